@@ -0,0 +1,101 @@
+package com.example.satsimulationsystem.backend.config;
+
+import com.example.satsimulationsystem.backend.modules.users.domain.UserCredentialsChangedEvent;
+import com.example.satsimulationsystem.backend.support.TtlCache;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Collection;
+
+/**
+ * Remembers successfully verified HTTP Basic credentials for a short TTL, so repeated calls from
+ * module integrations skip the BCrypt check (tens of milliseconds of CPU per request).
+ * <p>
+ * Entries are keyed by an HMAC-SHA256 of username and password under a random per-process key,
+ * so neither the passwords nor an offline-crackable hash of them are kept in memory. Only
+ * successful authentications are cached; wrong passwords always go through the delegate.
+ * Entries of a user are dropped when their credentials change or the user is deleted.
+ */
+public class CachedCredentialsAuthenticationProvider implements AuthenticationProvider {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final AuthenticationProvider delegate;
+    private final TtlCache<String, VerifiedCredentials> verifiedCredentials;
+    private final SecretKeySpec hmacKey;
+
+    public CachedCredentialsAuthenticationProvider(AuthenticationProvider delegate, long ttlMillis, int maxEntries) {
+        this.delegate = delegate;
+        this.verifiedCredentials = new TtlCache<>(ttlMillis, maxEntries);
+        byte[] keyBytes = new byte[32];
+        new SecureRandom().nextBytes(keyBytes);
+        this.hmacKey = new SecretKeySpec(keyBytes, HMAC_ALGORITHM);
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        if (!(authentication.getCredentials() instanceof String password)) {
+            return delegate.authenticate(authentication);
+        }
+        String username = authentication.getName();
+        String cacheKey = cacheKey(username, password);
+
+        VerifiedCredentials cached = verifiedCredentials.get(cacheKey);
+        if (cached != null) {
+            UsernamePasswordAuthenticationToken result =
+                    UsernamePasswordAuthenticationToken.authenticated(cached.principal, null, cached.authorities);
+            result.setDetails(authentication.getDetails());
+            return result;
+        }
+
+        Authentication result = delegate.authenticate(authentication);
+        if (result != null && result.isAuthenticated()) {
+            verifiedCredentials.put(cacheKey, new VerifiedCredentials(username, result.getPrincipal(), result.getAuthorities()));
+        }
+        return result;
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return UsernamePasswordAuthenticationToken.class.isAssignableFrom(authentication);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCredentialsChanged(UserCredentialsChangedEvent event) {
+        verifiedCredentials.invalidateIf((key, credentials) -> credentials.username.equals(event.getUsername()));
+    }
+
+    private String cacheKey(String username, String password) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(hmacKey);
+            mac.update(username.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0); // Separator, so "ab"+"c" and "a"+"bc" never collide
+            return Base64.getEncoder().encodeToString(mac.doFinal(password.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+
+    private static final class VerifiedCredentials {
+        private final String username;
+        private final Object principal;
+        private final Collection<? extends GrantedAuthority> authorities;
+
+        private VerifiedCredentials(String username, Object principal, Collection<? extends GrantedAuthority> authorities) {
+            this.username = username;
+            this.principal = principal;
+            this.authorities = authorities;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.satsimulationsystem.backend.config;
+
+import com.example.satsimulationsystem.backend.services.ArchivedInvoiceStorage;
+import com.example.satsimulationsystem.backend.services.InvoiceStorage;
+import com.example.satsimulationsystem.backend.services.ShardedInvoiceStorage;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Paths;
+
+@Configuration
+public class InvoiceStorageConfig {
+
+    // "files" stores one file per invoice; "archive" appends to segment files and still serves the files stored before
+    @Bean
+    public InvoiceStorage invoiceStorage(@Value("${app.pdf.storage-path:invoices-pdf}") String storagePath,
+                                         @Value("${app.pdf.storage.mode:files}") String mode,
+                                         @Value("${app.pdf.archive.segment-size-mb:1024}") long segmentSizeMb) throws IOException {
+        ShardedInvoiceStorage files = new ShardedInvoiceStorage(storagePath);
+        switch (mode) {
+            case "files":
+                return files;
+            case "archive":
+                return new ArchivedInvoiceStorage(Paths.get(storagePath, "archive"), segmentSizeMb * 1024 * 1024, files);
+            default:
+                throw new IllegalArgumentException("Unknown app.pdf.storage.mode: " + mode + " (expected files or archive)");
+        }
+    }
+
+    // Free and total space of the volume holding the invoices, so a filling disk shows up before stores start failing
+    @Bean
+    public MeterBinder invoiceStorageMetrics(@Value("${app.pdf.storage-path:invoices-pdf}") String storagePath) {
+        File root = Paths.get(storagePath).toFile();
+        return registry -> {
+            Gauge.builder("invoicing.pdf.storage.usable", root, File::getUsableSpace).baseUnit("bytes").register(registry);
+            Gauge.builder("invoicing.pdf.storage.total", root, File::getTotalSpace).baseUnit("bytes").register(registry);
+        };
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.satsimulationsystem.backend.config;
+
+import com.example.satsimulationsystem.backend.support.StripedRateLimiter;
+import com.example.satsimulationsystem.backend.support.StripedRateLimiter.Limit;
+import com.example.satsimulationsystem.backend.support.StripedRateLimiter.Rejection;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Per-user rate and concurrency limits on order intake and reports, so one module replaying a backlog cannot
+ * take the connection pool and the PDF disk from the others.
+ * <p>
+ * Two independent limits apply, each per authenticated user: {@code writes} (POST /api/invoicing/orders and
+ * /orders/batch) and {@code reports} (/api/invoicing/reports/**). Each has a token bucket
+ * ({@code requests-per-second}, {@code burst}) and a cap on requests in progress ({@code max-concurrent}),
+ * configured under {@code app.ratelimit.<limit>.*} and overridable per role with
+ * {@code app.ratelimit.<limit>.roles.<ROLE>.*}. A rejected request gets 429 with {@code Retry-After}.
+ * <p>
+ * Runs after authorization, so only permitted requests are counted. Streaming reports and ZIP exports hold
+ * their concurrency slot until the response is complete.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String WRITES = "writes";
+    private static final String REPORTS = "reports";
+
+    private final Environment environment;
+    private final MeterRegistry registry;
+    private final Map<String, StripedRateLimiter> limiters = Map.of(WRITES, new StripedRateLimiter(), REPORTS, new StripedRateLimiter());
+    // Used for properties that are not set
+    private static final Map<String, Limit> DEFAULTS = Map.of(WRITES, new Limit(20, 40, 4), REPORTS, new Limit(2, 10, 2));
+
+    private final Map<String, Limit> limitsByRole = new ConcurrentHashMap<>();
+
+    public RateLimitFilter(Environment environment, MeterRegistry registry) {
+        this.environment = environment;
+        this.registry = registry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return limitName(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            chain.doFilter(request, response);
+            return;
+        }
+        String limitName = limitName(request);
+        String username = authentication.getName();
+        String role = roleOf(authentication);
+        StripedRateLimiter limiter = limiters.get(limitName);
+
+        Rejection rejection = limiter.tryAcquire(username, limitFor(limitName, role));
+        if (rejection != null) {
+            Counter.builder("invoicing.ratelimit.rejected")
+                    .tag("limit", limitName).tag("role", role).tag("reason", rejection.reason().name().toLowerCase())
+                    .register(registry).increment();
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(rejection.retryAfterSeconds()));
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.getWriter().write(rejection.reason() == StripedRateLimiter.Reason.CONCURRENCY
+                    ? "Too many " + limitName + " requests in progress for this user."
+                    : "Too many " + limitName + " requests for this user; retry later.");
+            return;
+        }
+
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            async = request.isAsyncStarted();
+        } finally {
+            if (async) {
+                request.getAsyncContext().addListener(new ReleasingListener(limiter, username));
+            } else {
+                limiter.release(username);
+            }
+        }
+    }
+
+    // null when the request is not limited
+    private static String limitName(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if ("POST".equals(request.getMethod()) && (path.equals("/api/invoicing/orders") || path.equals("/api/invoicing/orders/batch"))) {
+            return WRITES;
+        }
+        if (path.equals("/api/invoicing/reports") || path.startsWith("/api/invoicing/reports/")) {
+            return REPORTS;
+        }
+        return null;
+    }
+
+    private static String roleOf(Authentication authentication) {
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            String name = authority.getAuthority();
+            if (name != null && name.startsWith("ROLE_")) {
+                return name.substring("ROLE_".length());
+            }
+        }
+        return "NONE";
+    }
+
+    private Limit limitFor(String limitName, String role) {
+        Limit defaults = DEFAULTS.get(limitName);
+        return limitsByRole.computeIfAbsent(limitName + ":" + role, key -> new Limit(
+                property(limitName, role, "requests-per-second", Double.class, defaults.permitsPerSecond()),
+                property(limitName, role, "burst", Integer.class, defaults.burst()),
+                property(limitName, role, "max-concurrent", Integer.class, defaults.maxConcurrent())));
+    }
+
+    // app.ratelimit.<limit>.roles.<ROLE>.<name>, else app.ratelimit.<limit>.<name>
+    private <T> T property(String limitName, String role, String name, Class<T> type, T defaultValue) {
+        T value = environment.getProperty("app.ratelimit." + limitName + ".roles." + role + "." + name, type);
+        return value != null ? value : environment.getProperty("app.ratelimit." + limitName + "." + name, type, defaultValue);
+    }
+
+    private static final class ReleasingListener implements AsyncListener {
+        private final StripedRateLimiter limiter;
+        private final String username;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        ReleasingListener(StripedRateLimiter limiter, String username) {
+            this.limiter = limiter;
+            this.username = username;
+        }
+
+        // Complete follows a timeout or error as well; release once
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                limiter.release(username);
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
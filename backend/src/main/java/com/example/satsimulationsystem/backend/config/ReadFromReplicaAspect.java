@@ -0,0 +1,22 @@
+package com.example.satsimulationsystem.backend.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+/**
+ * Allows replica reads for the duration of {@code @ReadFromReplica} methods. Ordered outside the transaction
+ * interceptor, so the whole transaction of the method is routed.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ReadFromReplicaAspect {
+
+    @Around("@annotation(com.example.satsimulationsystem.backend.support.ReadFromReplica)"
+            + " || @within(com.example.satsimulationsystem.backend.support.ReadFromReplica)")
+    public Object routeToReplica(ProceedingJoinPoint joinPoint) throws Throwable {
+        return ReplicaRoutingDataSource.withReplicaReads(joinPoint::proceed);
+    }
+}
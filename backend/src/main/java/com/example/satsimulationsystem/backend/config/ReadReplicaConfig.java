@@ -0,0 +1,91 @@
+package com.example.satsimulationsystem.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Read/write split, enabled by setting {@code app.datasource.replica.url}.
+ * <p>
+ * The primary pool is configured as before ({@code spring.datasource.*}, {@code spring.datasource.hikari.*}) and
+ * takes all writes, schema migrations and ordinary reads. Read-only transactions of {@code @ReadFromReplica}
+ * methods (the reports) use a separate, separately sized replica pool whose statements time out after
+ * {@code app.datasource.replica.statement-timeout-seconds}, so report scans neither compete with order inserts
+ * for connections nor run unbounded.
+ * <p>
+ * With {@code app.datasource.replica.migrate=true} the replica gets the same Flyway migrations as the primary.
+ * That is only for a replica that is a second independent database (see application-replica-local.properties);
+ * a real replica receives the schema through replication.
+ */
+@Configuration
+@ConditionalOnProperty("app.datasource.replica.url")
+public class ReadReplicaConfig {
+
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(DataSourceProperties primaryProperties,
+                                              @Value("${app.datasource.replica.url}") String url,
+                                              @Value("${app.datasource.replica.username:${spring.datasource.username}}") String username,
+                                              @Value("${app.datasource.replica.password:${spring.datasource.password}}") String password,
+                                              @Value("${app.datasource.replica.maximum-pool-size:4}") int maximumPoolSize) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setDriverClassName(primaryProperties.determineDriverClassName());
+        dataSource.setMaximumPoolSize(maximumPoolSize);
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    // The data source of JPA, JdbcTemplate and the transaction manager
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 @Value("${app.datasource.replica.statement-timeout-seconds:120}") int statementTimeoutSeconds) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary,
+                new StatementTimeoutDataSource(replica, statementTimeoutSeconds));
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Bean
+    @ConditionalOnProperty("app.datasource.replica.migrate")
+    public InitializingBean replicaSchemaMigration(Flyway flyway,
+                                                   @Value("${app.datasource.replica.url}") String url,
+                                                   @Value("${app.datasource.replica.username:${spring.datasource.username}}") String username,
+                                                   @Value("${app.datasource.replica.password:${spring.datasource.password}}") String password) {
+        // Outside the replica pool, whose connections are read-only
+        return () -> Flyway.configure().configuration(flyway.getConfiguration())
+                .dataSource(new DriverManagerDataSource(url, username, password))
+                .load()
+                .migrate();
+    }
+
+    @Bean
+    public ReadFromReplicaAspect readFromReplicaAspect() {
+        return new ReadFromReplicaAspect();
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.satsimulationsystem.backend.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends the connections of read-only transactions running inside a {@code @ReadFromReplica} method to the
+ * replica pool, and every other connection to the primary.
+ * <p>
+ * The transaction's read-only flag is only set after the transaction manager asked for its connection, so this
+ * data source must sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, which
+ * fetches the real connection at the first statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final String PRIMARY = "primary";
+    private static final String REPLICA = "replica";
+    private static final ThreadLocal<Boolean> REPLICA_READS = new ThreadLocal<>();
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica) {
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return Boolean.TRUE.equals(REPLICA_READS.get()) && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                ? REPLICA : PRIMARY;
+    }
+
+    /**
+     * Runs the call with replica reads allowed on this thread (for its read-only transactions).
+     */
+    static Object withReplicaReads(ReplicaCall call) throws Throwable {
+        Boolean previous = REPLICA_READS.get();
+        REPLICA_READS.set(Boolean.TRUE);
+        try {
+            return call.proceed();
+        } finally {
+            if (previous == null) {
+                REPLICA_READS.remove();
+            } else {
+                REPLICA_READS.set(previous);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface ReplicaCall {
+        Object proceed() throws Throwable;
+    }
+}
@@ -1,13 +1,20 @@
 package com.example.satsimulationsystem.backend.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
 import static org.springframework.security.config.Customizer.withDefaults;
 
 @Configuration
@@ -19,16 +26,32 @@ public class SecurityConfig {
         return new BCryptPasswordEncoder();
     }
 
+    // HTTP Basic re-sends the password on every request; verified credentials are cached briefly to avoid a BCrypt check per call
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public AuthenticationProvider authenticationProvider(UserDetailsService userDetailsService,
+                                                         PasswordEncoder passwordEncoder,
+                                                         @Value("${app.security.credential-cache.ttl-ms:300000}") long credentialCacheTtlMs,
+                                                         @Value("${app.security.credential-cache.max-entries:10000}") int credentialCacheMaxEntries) {
+        DaoAuthenticationProvider passwordCheck = new DaoAuthenticationProvider();
+        passwordCheck.setUserDetailsService(userDetailsService);
+        passwordCheck.setPasswordEncoder(passwordEncoder);
+        return new CachedCredentialsAuthenticationProvider(passwordCheck, credentialCacheTtlMs, credentialCacheMaxEntries);
+    }
+
+    @Bean
+    public SecurityFilterChain filterChain(HttpSecurity http,
+                                           Environment environment,
+                                           MeterRegistry meterRegistry,
+                                           @Value("${app.ratelimit.enabled:true}") boolean rateLimitEnabled) throws Exception {
         http
             .csrf(csrf -> csrf.disable()) // Disable CSRF for stateless APIs (if using JWT, otherwise configure properly)
             .authorizeHttpRequests(authz -> authz
-                // Allow public access to actuator health (if needed)
-                // .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/actuator/health").permitAll() // Load balancer and orchestrator probes
+                .requestMatchers("/actuator/**").hasRole("ADMINISTRATOR") // Metrics (Prometheus scrapes with administrator credentials)
                 // Define access rules for user module - to be refined
                 .requestMatchers("/api/users/**").hasRole("ADMINISTRATOR") // Example: only ADMIN can access user endpoints
                 .requestMatchers("/api/invoicing/reports/**").hasRole("ADMINISTRATOR") // Secure reporting endpoints
+                .requestMatchers("/api/invoicing/tax-rules/**").hasRole("ADMINISTRATOR") // Only administrators change tax rates
                 .requestMatchers("/api/invoicing/orders/**").authenticated() // Module users can create orders
                 .requestMatchers("/api/invoicing/invoices/download/**").authenticated() // Authenticated users can download their invoices (further checks might be needed if users should only download their own)
                 .anyRequest().authenticated() // All other requests need authentication
@@ -36,8 +59,12 @@ public class SecurityConfig {
             .httpBasic(withDefaults()) // Use HTTP Basic authentication for now
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS)); // Stateless session management
 
+        // Per-user limits on order intake and reports; after authorization, so rejected requests are not counted.
+        // Not a bean: Spring Boot would also register it as a servlet filter outside the security chain.
+        if (rateLimitEnabled) {
+            http.addFilterAfter(new RateLimitFilter(environment, meterRegistry), AuthorizationFilter.class);
+        }
+
         return http.build();
     }
-
-    // We might add UserDetailsService configuration later if we move away from in-memory/basic auth.
 } 
\ No newline at end of file
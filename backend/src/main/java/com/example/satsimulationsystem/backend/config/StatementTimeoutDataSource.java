@@ -0,0 +1,52 @@
+package com.example.satsimulationsystem.backend.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Gives every statement created on its connections a query timeout, so a runaway report is cancelled by the
+ * driver instead of holding a connection (and the database) indefinitely. Statements that set their own
+ * timeout afterwards (e.g. from a transaction timeout) keep theirs.
+ */
+public class StatementTimeoutDataSource extends DelegatingDataSource {
+
+    private final int timeoutSeconds;
+
+    public StatementTimeoutDataSource(DataSource target, int timeoutSeconds) {
+        super(target);
+        this.timeoutSeconds = timeoutSeconds;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return withStatementTimeout(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return withStatementTimeout(super.getConnection(username, password));
+    }
+
+    // createStatement, prepareStatement and prepareCall (all overloads) return a Statement
+    private Connection withStatementTimeout(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result;
+                    try {
+                        result = method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    if (result instanceof Statement statement) {
+                        statement.setQueryTimeout(timeoutSeconds);
+                    }
+                    return result;
+                });
+    }
+}
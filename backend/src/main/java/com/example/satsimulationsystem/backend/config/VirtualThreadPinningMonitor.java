@@ -0,0 +1,65 @@
+package com.example.satsimulationsystem.backend.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reports virtual threads that stay pinned to their carrier thread, typically because they block (JDBC, file
+ * I/O, sleeping) inside a {@code synchronized} block or method. While pinned, a virtual thread occupies one of
+ * the few carrier threads, so a handful of them can stall every request.
+ * <p>
+ * Listens to the JDK's {@code jdk.VirtualThreadPinned} flight recorder event in-process. Every pinning longer than
+ * {@code app.threads.pinned-threshold-ms} is recorded in the {@code jvm.threads.virtual.pinned} timer; the
+ * stack of the first pinning at each code location is logged, so the {@code synchronized} section to replace
+ * with a {@link java.util.concurrent.locks.ReentrantLock} can be found.
+ */
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 12;
+
+    private final RecordingStream recording;
+    private final Timer pinned;
+    private final Set<String> reportedLocations = ConcurrentHashMap.newKeySet();
+
+    public VirtualThreadPinningMonitor(MeterRegistry registry, long thresholdMs) {
+        this.pinned = Timer.builder("jvm.threads.virtual.pinned").register(registry);
+        this.recording = new RecordingStream();
+        recording.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(thresholdMs)).withStackTrace();
+        recording.onEvent(PINNED_EVENT, this::onPinned);
+        recording.startAsync();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinned.record(event.getDuration());
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return;
+        }
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        StringBuilder stack = new StringBuilder();
+        for (RecordedFrame frame : frames.subList(0, Math.min(frames.size(), LOGGED_FRAMES))) {
+            stack.append("\n\tat ").append(frame.getMethod().getType().getName()).append('.')
+                    .append(frame.getMethod().getName()).append(" line ").append(frame.getLineNumber());
+        }
+        if (reportedLocations.add(stack.toString())) {
+            System.err.println("Virtual thread pinned to its carrier for " + event.getDuration().toMillis()
+                    + " ms (further pinnings here are only counted):" + stack);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        recording.close();
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.satsimulationsystem.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Virtual-thread execution mode, enabled with {@code spring.threads.virtual.enabled=true} on Java 21 or later.
+ * <p>
+ * Spring Boot then serves requests on virtual threads (one per request instead of Tomcat's fixed pool) and runs
+ * MVC async work (the streaming reports and ZIP exports), {@code @Async} and {@code @Scheduled} jobs on them too.
+ * This adds what that mode needs here: a bound on concurrent database work, since request concurrency is no
+ * longer limited by the thread pool, and diagnostics for virtual threads pinned to their carrier.
+ * <p>
+ * The PDF worker and export pools keep their platform threads: rendering is CPU-bound, and their size is what
+ * bounds it.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadsConfig {
+
+    // Static: post-processors are created before the other beans of this configuration.
+    // Every connection pool is limited on its own (primary and, when configured, the read replica).
+    @Bean
+    public static BeanPostProcessor dataSourceConcurrencyLimiter(
+            @Value("${app.db.max-concurrency:0}") int maxConcurrency,
+            @Value("${app.db.acquire-timeout-ms:5000}") long acquireTimeoutMs) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource pool) {
+                    return new ConcurrencyLimitedDataSource(pool, maxConcurrency > 0 ? maxConcurrency : pool.getMaximumPoolSize(), acquireTimeoutMs);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder dataSourceConcurrencyMetrics(Map<String, DataSource> dataSources) {
+        return registry -> dataSources.forEach((name, dataSource) -> {
+            if (dataSource instanceof ConcurrencyLimitedDataSource limited) {
+                Gauge.builder("db.connections.limited.in.use", limited, ConcurrencyLimitedDataSource::inUse).tag("name", name).register(registry);
+                Gauge.builder("db.connections.limited.waiting", limited, ConcurrencyLimitedDataSource::waiting).tag("name", name).register(registry);
+            }
+        });
+    }
+
+    @Bean
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(MeterRegistry registry,
+                                                                   @Value("${app.threads.pinned-threshold-ms:20}") long thresholdMs) {
+        return new VirtualThreadPinningMonitor(registry, thresholdMs);
+    }
+}
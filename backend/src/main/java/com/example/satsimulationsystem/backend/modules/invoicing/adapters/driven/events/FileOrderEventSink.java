@@ -0,0 +1,65 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.adapters.driven.events;
+
+import com.example.satsimulationsystem.backend.modules.invoicing.application.OrderEventSink;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderEventMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Appends events as NDJSON (one {@link OrderEventMessage} per line) to a log file per day,
+ * {@code order-events-<date>.ndjson} under {@code app.outbox.sink.file.directory}. Each batch is written with
+ * one call and forced to disk before the relay removes it from the outbox.
+ * <p>
+ * A batch retried after a crash between the write and the outbox delete appears twice in the log; readers skip
+ * event ids they have already seen.
+ */
+@Component
+@ConditionalOnProperty("app.outbox.sink.file.enabled")
+public class FileOrderEventSink implements OrderEventSink {
+
+    private final Path directory;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public FileOrderEventSink(@Value("${app.outbox.sink.file.directory:order-events}") String directory,
+                              ObjectMapper objectMapper) throws IOException {
+        this.directory = Files.createDirectories(Paths.get(directory));
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public String name() {
+        return "file";
+    }
+
+    @Override
+    public void publish(List<OrderEventMessage> events) throws IOException {
+        ByteArrayOutputStream lines = new ByteArrayOutputStream(events.size() * 512);
+        for (OrderEventMessage event : events) {
+            lines.write(objectMapper.writeValueAsBytes(event));
+            lines.write('\n');
+        }
+        Path file = directory.resolve("order-events-" + LocalDate.now() + ".ndjson");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+}
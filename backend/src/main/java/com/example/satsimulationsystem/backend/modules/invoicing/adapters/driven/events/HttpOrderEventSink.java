@@ -0,0 +1,67 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.adapters.driven.events;
+
+import com.example.satsimulationsystem.backend.modules.invoicing.application.OrderEventSink;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderEventMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Broker adapter over HTTP: POSTs each batch as NDJSON ({@code application/x-ndjson}) to
+ * {@code app.outbox.sink.http.url}, e.g. the REST proxy of a message broker or a consumer's ingestion endpoint.
+ * Any 2xx response acknowledges the batch; anything else, or no response within
+ * {@code app.outbox.sink.http.timeout-ms}, has it delivered again.
+ */
+@Component
+@ConditionalOnProperty("app.outbox.sink.http.enabled")
+public class HttpOrderEventSink implements OrderEventSink {
+
+    private final HttpClient httpClient;
+    private final URI url;
+    private final Duration timeout;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public HttpOrderEventSink(@Value("${app.outbox.sink.http.url}") String url,
+                              @Value("${app.outbox.sink.http.timeout-ms:10000}") long timeoutMs,
+                              ObjectMapper objectMapper) {
+        this.url = URI.create(url);
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+    }
+
+    @Override
+    public String name() {
+        return "http";
+    }
+
+    @Override
+    public void publish(List<OrderEventMessage> events) throws IOException, InterruptedException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(events.size() * 512);
+        for (OrderEventMessage event : events) {
+            body.write(objectMapper.writeValueAsBytes(event));
+            body.write('\n');
+        }
+        HttpRequest request = HttpRequest.newBuilder(url)
+                .timeout(timeout)
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+                .build();
+        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("Event endpoint answered " + response.statusCode());
+        }
+    }
+}
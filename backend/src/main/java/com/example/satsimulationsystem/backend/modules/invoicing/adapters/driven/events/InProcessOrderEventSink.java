@@ -0,0 +1,39 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.adapters.driven.events;
+
+import com.example.satsimulationsystem.backend.modules.invoicing.application.OrderEventSink;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderEventMessage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Publishes each event as an application event; consume it with {@code @EventListener} on
+ * {@link OrderEventMessage}. Listeners run on the relay thread, so slow consumers should hand off to their own
+ * executor. A listener exception fails the batch, which is then delivered again.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.sink.in-process.enabled", matchIfMissing = true)
+public class InProcessOrderEventSink implements OrderEventSink {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    public InProcessOrderEventSink(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public String name() {
+        return "in-process";
+    }
+
+    @Override
+    public void publish(List<OrderEventMessage> events) {
+        for (OrderEventMessage event : events) {
+            eventPublisher.publishEvent(event);
+        }
+    }
+}
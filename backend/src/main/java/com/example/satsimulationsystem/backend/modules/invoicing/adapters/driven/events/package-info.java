@@ -0,0 +1,4 @@
+/**
+ * Adapters for driven ports (e.g., order event sinks) for the Invoicing module.
+ */
+package com.example.satsimulationsystem.backend.modules.invoicing.adapters.driven.events;
@@ -0,0 +1,240 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.adapters.driving.api;
+
+import com.example.satsimulationsystem.backend.services.StoredInvoice;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Serves stored invoice PDFs with HTTP caching and byte-range support.
+ * <p>
+ * A stored invoice never changes once written (every rendering gets a new name), so responses carry a
+ * strong ETag, conditional requests are answered with 304, and a single {@code Range} is answered with 206.
+ * Only a URL that names one rendering gets a one-year immutable Cache-Control; a URL that names the order
+ * is revalidated, since the order's rendering can be replaced. The body is handed to Tomcat's sendfile when the connector
+ * supports it, so the kernel copies the file (or the invoice's range of an archive segment) to the socket;
+ * otherwise it is copied with {@link FileChannel#transferTo}. Multi-range requests are answered with the full file, as RFC 9110 allows.
+ */
+@Component
+public class InvoiceDownloadWriter {
+
+    // Tomcat request attributes for sendfile (see org.apache.coyote.Constants)
+    private static final String SENDFILE_SUPPORTED_ATTR = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
+    private static final String IMMUTABLE_CACHE_CONTROL = "private, max-age=31536000, immutable";
+    private static final String REVALIDATE_CACHE_CONTROL = "private, no-cache";
+
+    /**
+     * Writes the invoice (or the requested part of it) to the response.
+     *
+     * @param invoice A stored, immutable invoice.
+     * @param downloadName File name offered to the client.
+     * @param immutableUrl Whether the request URL names this rendering (its file name) rather than the order.
+     */
+    public void write(StoredInvoice invoice, String downloadName, boolean immutableUrl,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        long length = invoice.getLength();
+        long lastModified = invoice.getLastModified();
+        String cacheControl = immutableUrl ? IMMUTABLE_CACHE_CONTROL : REVALIDATE_CACHE_CONTROL;
+        long[] range = writeHeaders(etagOf(downloadName, length, lastModified), length, lastModified, true, cacheControl,
+                downloadName, request, response);
+        if (range == null) {
+            return;
+        }
+        long start = range[0];
+        long end = range[1];
+        long offset = invoice.getOffset(); // The invoice may be a byte range of a larger file
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED_ATTR))) {
+            // Tomcat writes the bytes itself after the request completes; the response body stays empty here
+            request.setAttribute(SENDFILE_FILENAME_ATTR, invoice.getFile().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START_ATTR, offset + start);
+            request.setAttribute(SENDFILE_END_ATTR, offset + end);
+            return;
+        }
+        WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+        if (invoice.getSharedChannel() != null) {
+            transfer(invoice.getSharedChannel(), offset + start, offset + end, target);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(invoice.getFile(), StandardOpenOption.READ)) {
+            transfer(channel, offset + start, offset + end, target);
+        }
+    }
+
+    /**
+     * Writes an in-memory invoice (or the requested part of it) to the response, with the same range handling
+     * as stored ones. The ETag is derived from the content. Such an invoice is served on the order's URL and may
+     * be rendered again later, so it is revalidated rather than cached as immutable, and {@code If-Range} is only
+     * honoured with the ETag: the date is the order's, not the rendering's, so it cannot tell renderings apart.
+     *
+     * @param lastModified Epoch millis of the order the invoice was rendered from.
+     */
+    public void write(byte[] pdf, long lastModified, String downloadName, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(pdf);
+        String etag = "\"" + Long.toHexString(crc.getValue()) + "-" + Integer.toHexString(pdf.length) + "\"";
+        long[] range = writeHeaders(etag, pdf.length, lastModified, false, REVALIDATE_CACHE_CONTROL, downloadName, request, response);
+        if (range != null) {
+            response.getOutputStream().write(pdf, (int) range[0], (int) (range[1] - range[0]));
+        }
+    }
+
+    /**
+     * Sets the caching, content and range headers and the status.
+     *
+     * @param dateValidatesRanges Whether {@code lastModified} changes with the bytes, so an {@code If-Range} date
+     *                            may select a partial response.
+     * @return {start, endExclusive} of the bytes to send, or null if the response has no body.
+     */
+    private long[] writeHeaders(String etag, long length, long lastModified, boolean dateValidatesRanges, String cacheControl,
+                                String downloadName, HttpServletRequest request, HttpServletResponse response) {
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (isNotModified(request, etag, lastModified)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return null;
+        }
+
+        response.setContentType(MediaType.APPLICATION_PDF_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + downloadName + "\"");
+
+        long start = 0;
+        long end = length; // Exclusive
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && rangeApplies(request, etag, lastModified, dateValidatesRanges)) {
+            long[] bounds = parseSingleRange(range, length);
+            if (bounds == UNSATISFIABLE) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return null;
+            }
+            if (bounds != null) {
+                start = bounds[0];
+                end = bounds[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (end - 1) + "/" + length);
+            }
+        }
+        response.setContentLengthLong(end - start);
+
+        if ("HEAD".equals(request.getMethod()) || end == start) {
+            return null;
+        }
+        return new long[]{start, end};
+    }
+
+    private static void transfer(FileChannel channel, long position, long end, WritableByteChannel target) throws IOException {
+        while (position < end) {
+            long transferred = channel.transferTo(position, end - position, target);
+            if (transferred <= 0) {
+                throw new EOFException("Invoice file ends before the stored length");
+            }
+            position += transferred;
+        }
+    }
+
+    // File names are unique per rendering, so name, size and modification time identify the bytes exactly
+    private static String etagOf(String fileName, long length, long lastModified) {
+        return "\"" + Integer.toHexString(fileName.hashCode()) + "-" + Long.toHexString(length)
+                + "-" + Long.toHexString(lastModified) + "\"";
+    }
+
+    // If-None-Match wins over If-Modified-Since (RFC 9110, section 13.2.2); weak comparison applies
+    private static boolean isNotModified(HttpServletRequest request, String etag, long lastModified) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.equals("*") || stripWeak(tag).equals(etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        long ifModifiedSince = dateHeader(request, HttpHeaders.IF_MODIFIED_SINCE);
+        return ifModifiedSince >= 0 && lastModified / 1000 <= ifModifiedSince / 1000; // HTTP dates have second precision
+    }
+
+    // A Range is only honoured if If-Range (when present) still matches the file; strong comparison applies
+    private static boolean rangeApplies(HttpServletRequest request, String etag, long lastModified, boolean dateValidatesRanges) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"")) {
+            return ifRange.trim().equals(etag);
+        }
+        if (!dateValidatesRanges) {
+            return false; // Send the whole invoice rather than a part of a possibly different rendering
+        }
+        long date = dateHeader(request, HttpHeaders.IF_RANGE);
+        return date >= 0 && lastModified / 1000 == date / 1000;
+    }
+
+    private static final long[] UNSATISFIABLE = new long[0];
+
+    /**
+     * @return {start, endExclusive}; null to ignore the header and send the whole file; UNSATISFIABLE for 416.
+     */
+    private static long[] parseSingleRange(String header, long length) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                // Suffix range: the last N bytes
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || length == 0) {
+                    return UNSATISFIABLE;
+                }
+                return new long[]{Math.max(0, length - suffix), length};
+            }
+            long start = Long.parseLong(first);
+            long endInclusive = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+            if (start >= length) {
+                return UNSATISFIABLE;
+            }
+            if (endInclusive < start) {
+                return null; // Syntactically invalid range: ignored
+            }
+            return new long[]{start, endInclusive + 1};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static long dateHeader(HttpServletRequest request, String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1; // Not an HTTP date
+        }
+    }
+
+    private static String stripWeak(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.adapters.driving.api;
+
+import com.example.satsimulationsystem.backend.modules.invoicing.application.OnDemandInvoicePdfService;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.InvoicePdfStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds the invoice link exposed as {@code invoicePdfUrl}: the stored PDF once it exists and, in lazy mode,
+ * the on-demand endpoint ({@code /orders/{id}/invoice.pdf}) until then.
+ */
+@Component
+public class InvoicePdfLinks {
+
+    private final boolean lazy;
+
+    @Autowired
+    public InvoicePdfLinks(OnDemandInvoicePdfService onDemandInvoicePdfService) {
+        this(onDemandInvoicePdfService.isEnabled());
+    }
+
+    public InvoicePdfLinks(boolean lazy) {
+        this.lazy = lazy;
+    }
+
+    public String invoicePdfUrl(Long orderId, InvoicePdfStatus status, String storedUrl) {
+        if (storedUrl != null && status == InvoicePdfStatus.GENERATED) {
+            return storedUrl;
+        }
+        return lazy && orderId != null ? "/orders/" + orderId + "/invoice.pdf" : storedUrl;
+    }
+}
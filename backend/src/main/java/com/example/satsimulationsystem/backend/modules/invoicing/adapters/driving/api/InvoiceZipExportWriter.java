@@ -0,0 +1,237 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.adapters.driving.api;
+
+import com.example.satsimulationsystem.backend.modules.invoicing.application.InvoicingService;
+import com.example.satsimulationsystem.backend.modules.invoicing.application.OnDemandInvoicePdfService;
+import com.example.satsimulationsystem.backend.modules.invoicing.application.RenderedInvoicePdf;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.InvoicePdfStatus;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.Order;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderReportCriteria;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderReportRow;
+import com.example.satsimulationsystem.backend.services.InvoiceStorage;
+import com.example.satsimulationsystem.backend.services.PdfGenerationService;
+import com.example.satsimulationsystem.backend.services.StoredInvoice;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Streams the invoice PDFs of a report as one ZIP archive, in report order.
+ * <p>
+ * Orders are read from the report query one row at a time. Stored invoices are copied from the invoice storage;
+ * invoices that have not been stored yet (pending, failed, or lazy mode) are rendered on a bounded pool while
+ * earlier entries are written. At most {@code app.pdf.export.window} invoices are rendered or waiting to be
+ * written per export, so memory use does not depend on the number of invoices. Invoices that cannot be exported
+ * are listed in an {@code export-errors.txt} entry at the end instead of failing the whole archive.
+ */
+@Component
+public class InvoiceZipExportWriter {
+
+    private static final String ERRORS_ENTRY = "export-errors.txt";
+
+    private final InvoicingService invoicingService;
+    private final InvoiceStorage invoiceStorage;
+    private final PdfGenerationService pdfGenerationService;
+    private final OnDemandInvoicePdfService onDemandInvoicePdfService;
+    private final int window;
+    private final ThreadPoolExecutor renderExecutor;
+
+    @Autowired
+    public InvoiceZipExportWriter(InvoicingService invoicingService,
+                                  InvoiceStorage invoiceStorage,
+                                  PdfGenerationService pdfGenerationService,
+                                  OnDemandInvoicePdfService onDemandInvoicePdfService,
+                                  @Value("${app.pdf.export.threads:4}") int threads,
+                                  @Value("${app.pdf.export.window:16}") int window) {
+        this.invoicingService = invoicingService;
+        this.invoiceStorage = invoiceStorage;
+        this.pdfGenerationService = pdfGenerationService;
+        this.onDemandInvoicePdfService = onDemandInvoicePdfService;
+        this.window = Math.max(1, window);
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        // Shared by all exports; when it is saturated the exporting thread renders the invoice itself
+        this.renderExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * this.window),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "invoice-export-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Writes a ZIP with one {@code invoice-<orderId>.pdf} entry per order of the report (application/zip).
+     *
+     * @return The number of orders of the report, including those listed in the errors entry.
+     */
+    public long writeZip(OrderReportCriteria criteria, OutputStream outputStream) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(outputStream, 64 * 1024));
+        zip.setLevel(Deflater.BEST_SPEED); // PDF content streams are already compressed; only the structure shrinks
+        ArrayDeque<PendingEntry> pending = new ArrayDeque<>(window);
+        StringBuilder errors = new StringBuilder();
+        long[] orders = new long[1];
+        try {
+            invoicingService.streamOrderRowsForReport(criteria, row -> {
+                orders[0]++;
+                try {
+                    if (pending.size() >= window) {
+                        writeEntry(zip, pending.removeFirst(), errors);
+                    }
+                    pending.addLast(prepare(row));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            while (!pending.isEmpty()) {
+                writeEntry(zip, pending.removeFirst(), errors);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            // Renderings still queued for an aborted export (client gone) are not waited for
+            for (PendingEntry entry : pending) {
+                if (entry.rendering != null) {
+                    entry.rendering.cancel(false);
+                }
+            }
+        }
+        if (errors.length() > 0) {
+            zip.putNextEntry(new ZipEntry(ERRORS_ENTRY));
+            zip.write(errors.toString().getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+        zip.finish();
+        zip.flush();
+        return orders[0];
+    }
+
+    // Runs on the exporting thread: only cheap lookups here, rendering goes to the pool
+    private PendingEntry prepare(OrderReportRow row) throws IOException {
+        Long orderId = row.getOrderId();
+        long lastModified = row.getOrderDate() != null
+                ? row.getOrderDate().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : System.currentTimeMillis();
+        String storedUrl = row.getInvoicePdfUrl();
+        if (row.getInvoicePdfStatus() == InvoicePdfStatus.GENERATED && storedUrl != null) {
+            Optional<StoredInvoice> stored = invoiceStorage.locate(storedUrl.substring(storedUrl.lastIndexOf('/') + 1));
+            if (stored.isPresent()) {
+                return new PendingEntry(orderId, lastModified, stored.get(), null);
+            }
+        }
+        RenderedInvoicePdf cached = onDemandInvoicePdfService.cached(orderId);
+        if (cached != null) {
+            return new PendingEntry(orderId, lastModified, null, CompletableFuture.completedFuture(cached.getContent()));
+        }
+        return new PendingEntry(orderId, lastModified, null, CompletableFuture.supplyAsync(() -> render(orderId), renderExecutor));
+    }
+
+    // Not cached: a bulk export would evict the invoices people are actually downloading
+    private byte[] render(Long orderId) {
+        Order order = invoicingService.getOrderById(orderId)
+                .orElseThrow(() -> new IllegalStateException("Order no longer exists"));
+        try {
+            return pdfGenerationService.renderInvoicePdf(order);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeEntry(ZipOutputStream zip, PendingEntry entry, StringBuilder errors) throws IOException {
+        byte[] pdf = null;
+        if (entry.rendering != null) {
+            try {
+                pdf = entry.rendering.join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause() instanceof UncheckedIOException ? e.getCause().getCause() : e.getCause();
+                System.err.println("Could not render invoice PDF for export, order ID: " + entry.orderId + " - " + cause.getMessage());
+                errors.append("invoice-").append(entry.orderId).append(".pdf: ").append(cause.getMessage()).append('\n');
+                return;
+            }
+        }
+        ZipEntry zipEntry = new ZipEntry("invoice-" + entry.orderId + ".pdf");
+        zipEntry.setLastModifiedTime(FileTime.fromMillis(entry.lastModified));
+        zip.putNextEntry(zipEntry);
+        if (pdf != null) {
+            zip.write(pdf);
+        } else {
+            copy(entry.stored, zip);
+        }
+        zip.closeEntry();
+    }
+
+    private static void copy(StoredInvoice invoice, OutputStream target) throws IOException {
+        if (invoice.getSharedChannel() != null) {
+            copy(invoice.getSharedChannel(), invoice.getOffset(), invoice.getLength(), target);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(invoice.getFile(), StandardOpenOption.READ)) {
+            copy(channel, invoice.getOffset(), invoice.getLength(), target);
+        }
+    }
+
+    private static void copy(FileChannel channel, long position, long length, OutputStream target) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(length, 64 * 1024));
+        long end = position + length;
+        while (position < end) {
+            buffer.clear().limit((int) Math.min(buffer.capacity(), end - position));
+            int read = channel.read(buffer, position); // Positional reads: the shared channel has no position to race on
+            if (read < 0) {
+                throw new EOFException("Invoice file ends before the stored length");
+            }
+            target.write(buffer.array(), 0, read);
+            position += read;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        renderExecutor.shutdown();
+        try {
+            if (!renderExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+                renderExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            renderExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Exactly one of stored and rendering is set
+    private static final class PendingEntry {
+        final Long orderId;
+        final long lastModified;
+        final StoredInvoice stored;
+        final CompletableFuture<byte[]> rendering;
+
+        PendingEntry(Long orderId, long lastModified, StoredInvoice stored, CompletableFuture<byte[]> rendering) {
+            this.orderId = orderId;
+            this.lastModified = lastModified;
+            this.stored = stored;
+            this.rendering = rendering;
+        }
+    }
+}
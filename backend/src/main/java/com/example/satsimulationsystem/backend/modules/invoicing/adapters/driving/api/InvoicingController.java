@@ -1,31 +1,55 @@
 package com.example.satsimulationsystem.backend.modules.invoicing.adapters.driving.api;
 
+import com.example.satsimulationsystem.backend.modules.invoicing.application.BatchOrderResult;
+import com.example.satsimulationsystem.backend.modules.invoicing.application.IdempotentOrderResult;
+import com.example.satsimulationsystem.backend.modules.invoicing.application.InvoicingMetrics;
 import com.example.satsimulationsystem.backend.modules.invoicing.application.InvoicingService;
+import com.example.satsimulationsystem.backend.modules.invoicing.application.OnDemandInvoicePdfService;
+import com.example.satsimulationsystem.backend.modules.invoicing.application.OrderIdempotencyService;
+import com.example.satsimulationsystem.backend.modules.invoicing.application.RenderedInvoicePdf;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.InvoicePdfStatus;
 import com.example.satsimulationsystem.backend.modules.invoicing.domain.Order;
-import com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderItem;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderReportCriteria;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderReportType;
 import com.example.satsimulationsystem.backend.modules.users.domain.User;
+import com.example.satsimulationsystem.backend.modules.users.application.ModuleUserDetails;
 import com.example.satsimulationsystem.backend.modules.users.application.UserService;
+import com.example.satsimulationsystem.backend.modules.invoicing.adapters.driving.api.dto.BatchCreateOrderRequestDTO;
+import com.example.satsimulationsystem.backend.modules.invoicing.adapters.driving.api.dto.BatchOrderResponseDTO;
+import com.example.satsimulationsystem.backend.modules.invoicing.adapters.driving.api.dto.BatchOrderResultDTO;
 import com.example.satsimulationsystem.backend.modules.invoicing.adapters.driving.api.dto.CreateOrderRequestDTO;
+import com.example.satsimulationsystem.backend.modules.invoicing.adapters.driving.api.dto.InvoiceStatusDTO;
 import com.example.satsimulationsystem.backend.modules.invoicing.adapters.driving.api.dto.OrderResponseDTO;
-import com.example.satsimulationsystem.backend.modules.invoicing.adapters.driving.api.dto.OrderItemDTO;
+import com.example.satsimulationsystem.backend.modules.invoicing.adapters.driving.api.dto.OrderPageDTO;
+import com.example.satsimulationsystem.backend.services.InvoiceStorage;
+import com.example.satsimulationsystem.backend.services.StoredInvoice;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
-import java.io.File;
+import jakarta.validation.Validator;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.stream.Collectors;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.time.LocalDateTime;
 import org.springframework.format.annotation.DateTimeFormat;
 
@@ -35,30 +59,93 @@ import org.springframework.format.annotation.DateTimeFormat;
 @RequestMapping("/api/invoicing")
 public class InvoicingController {
 
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+
     private final InvoicingService invoicingService;
     private final UserService userService; // To fetch the User entity for the authenticated principal
-    private final String pdfStoragePath; // To resolve PDF file paths
+    private final InvoiceStorage invoiceStorage; // To locate stored PDFs
+    private final Validator validator; // Per-order validation of batch submissions
+    private final int maxBatchSize;
+    private final OrderDtoMapper orderDtoMapper;
+    private final OrderReportStreamWriter orderReportStreamWriter;
+    private final InvoiceDownloadWriter invoiceDownloadWriter;
+    private final OnDemandInvoicePdfService onDemandInvoicePdfService;
+    private final InvoicePdfLinks invoicePdfLinks;
+    private final InvoiceZipExportWriter invoiceZipExportWriter;
+    private final OrderIdempotencyService orderIdempotencyService;
+    private final ObjectMapper objectMapper;
+    private final InvoicingMetrics invoicingMetrics;
+    private final int maxReportPageSize;
 
     @Autowired
     public InvoicingController(InvoicingService invoicingService, 
                                UserService userService, 
-                               @Value("${app.pdf.storage-path:invoices-pdf}") String pdfStoragePath) {
+                               InvoiceStorage invoiceStorage,
+                               Validator validator,
+                               @Value("${app.invoicing.batch.max-size:5000}") int maxBatchSize,
+                               OrderDtoMapper orderDtoMapper,
+                               OrderReportStreamWriter orderReportStreamWriter,
+                               InvoiceDownloadWriter invoiceDownloadWriter,
+                               OnDemandInvoicePdfService onDemandInvoicePdfService,
+                               InvoicePdfLinks invoicePdfLinks,
+                               InvoiceZipExportWriter invoiceZipExportWriter,
+                               OrderIdempotencyService orderIdempotencyService,
+                               ObjectMapper objectMapper,
+                               InvoicingMetrics invoicingMetrics,
+                               @Value("${app.reports.page.max-size:1000}") int maxReportPageSize) {
         this.invoicingService = invoicingService;
         this.userService = userService;
-        this.pdfStoragePath = pdfStoragePath;
+        this.invoiceStorage = invoiceStorage;
+        this.validator = validator;
+        this.maxBatchSize = maxBatchSize;
+        this.orderDtoMapper = orderDtoMapper;
+        this.orderReportStreamWriter = orderReportStreamWriter;
+        this.invoiceDownloadWriter = invoiceDownloadWriter;
+        this.onDemandInvoicePdfService = onDemandInvoicePdfService;
+        this.invoicePdfLinks = invoicePdfLinks;
+        this.invoiceZipExportWriter = invoiceZipExportWriter;
+        this.orderIdempotencyService = orderIdempotencyService;
+        this.objectMapper = objectMapper;
+        this.invoicingMetrics = invoicingMetrics;
+        this.maxReportPageSize = maxReportPageSize;
     }
 
+    /**
+     * Creates an order. With an {@code Idempotency-Key} header, a retry of the same submission (same user, key and
+     * order) returns the order created the first time instead of creating another one.
+     */
     @PostMapping("/orders")
-    public ResponseEntity<?> createOrder(@Valid @RequestBody CreateOrderRequestDTO orderRequestDTO, Authentication authentication) {
-        String username = authentication.getName();
-        User placingUser = userService.getUserByUsername(username)
+    public ResponseEntity<?> createOrder(@Valid @RequestBody CreateOrderRequestDTO orderRequestDTO,
+                                         @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+                                         Authentication authentication) {
+        User placingUser = invoicingMetrics.userLookup().record(() -> resolvePlacingUser(authentication))
                 .orElseThrow(() -> new SecurityException("Authenticated user not found in the system."));
 
         try {
-            Order orderToProcess = convertToOrderEntity(orderRequestDTO);
-            Order processedOrder = invoicingService.createOrderAndCalculateTaxes(orderToProcess, placingUser);
-            OrderResponseDTO responseDTO = convertToOrderResponseDTO(processedOrder);
-            return new ResponseEntity<>(responseDTO, HttpStatus.CREATED);
+            Order orderToProcess = invoicingMetrics.dtoMapping().record(() -> orderDtoMapper.convertToOrderEntity(orderRequestDTO));
+            if (idempotencyKey == null) {
+                Order processedOrder = invoicingService.createOrderAndCalculateTaxes(orderToProcess, placingUser);
+                return new ResponseEntity<>(toCreatedOrderResponse(processedOrder), HttpStatus.CREATED);
+            }
+            if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+                return ResponseEntity.badRequest().body(IDEMPOTENCY_KEY_HEADER + " must be 1 to " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters.");
+            }
+            IdempotentOrderResult result = orderIdempotencyService.createOrder(orderToProcess, placingUser, idempotencyKey, requestHash(orderRequestDTO));
+            switch (result.getOutcome()) {
+                case CREATED:
+                    return new ResponseEntity<>(toCreatedOrderResponse(result.getOrder()), HttpStatus.CREATED);
+                case REPLAYED:
+                    // Same status as the original response, so a client cannot tell a retry from a first attempt
+                    return ResponseEntity.status(HttpStatus.CREATED)
+                            .header(IDEMPOTENT_REPLAYED_HEADER, "true")
+                            .body(toCreatedOrderResponse(result.getOrder()));
+                case IN_PROGRESS:
+                    return ResponseEntity.status(HttpStatus.CONFLICT).body("An order with this " + IDEMPOTENCY_KEY_HEADER + " is still being processed.");
+                default:
+                    return ResponseEntity.unprocessableEntity().body(IDEMPOTENCY_KEY_HEADER + " was already used for a different order.");
+            }
         } catch (IllegalArgumentException e) {
             // Consider a more structured error response
             return ResponseEntity.badRequest().body(e.getMessage());
@@ -67,91 +154,153 @@ public class InvoicingController {
         }
     }
 
-    private Order convertToOrderEntity(CreateOrderRequestDTO requestDTO) {
-        Order order = new Order();
-        order.setClientName(requestDTO.getClientName());
-        order.setClientNit(requestDTO.getClientNit());
-        order.setClientAddress(requestDTO.getClientAddress());
-        order.setProviderName(requestDTO.getProviderName());
-
-        if (requestDTO.getItems() != null) {
-            order.setItems(requestDTO.getItems().stream().map(itemDTO -> {
-                OrderItem item = new OrderItem();
-                item.setProductNameOrService(itemDTO.getProductNameOrService());
-                item.setUnitCost(itemDTO.getUnitCost());
-                item.setQuantity(itemDTO.getQuantity());
-                item.setModuleType(itemDTO.getModuleType());
-                item.setCategory(itemDTO.getCategory());
-                // Calculated fields (subtotal, taxApplied, itemTotal) will be set by the service
-                return item;
-            }).collect(Collectors.toList()));
-        } else {
-            order.setItems(new ArrayList<>());
-        }
-        return order;
-    }
-
-    private OrderResponseDTO convertToOrderResponseDTO(Order order) {
-        OrderResponseDTO dto = new OrderResponseDTO();
-        dto.setOrderId(order.getId());
-        dto.setClientName(order.getClientName());
-        dto.setClientNit(order.getClientNit());
-        dto.setClientAddress(order.getClientAddress());
-        dto.setProviderName(order.getProviderName());
-        dto.setTotalAmount(order.getTotalAmount());
-        dto.setTotalTaxes(order.getTotalTaxes());
-        dto.setInvoicePdfUrl(order.getInvoicePdfUrl());
-        dto.setOrderDate(order.getOrderDate());
-        if (order.getCreatedBy() != null) {
-            dto.setCreatedByUsername(order.getCreatedBy().getUsername());
-        }
-
-        if (order.getItems() != null) {
-            dto.setItems(order.getItems().stream().map(itemEntity -> {
-                OrderItemDTO itemDTO = new OrderItemDTO();
-                itemDTO.setProductNameOrService(itemEntity.getProductNameOrService());
-                itemDTO.setUnitCost(itemEntity.getUnitCost()); // This is the original unit cost
-                itemDTO.setQuantity(itemEntity.getQuantity());
-                itemDTO.setModuleType(itemEntity.getModuleType());
-                itemDTO.setCategory(itemEntity.getCategory());
-                itemDTO.setItemSubtotal(itemEntity.getItemSubtotal());
-                itemDTO.setTaxApplied(itemEntity.getTaxApplied());
-                itemDTO.setItemTotal(itemEntity.getItemTotal());
-                return itemDTO;
-            }).collect(Collectors.toList()));
-        } else {
-            dto.setItems(new ArrayList<>());
-        }
-        return dto;
+    private OrderResponseDTO toCreatedOrderResponse(Order order) {
+        return invoicingMetrics.dtoMapping().record(() -> orderDtoMapper.convertToOrderResponseDTO(order));
     }
 
-    @GetMapping("/invoices/download/{fileName:.+}")
-    public ResponseEntity<InputStreamResource> downloadInvoice(@PathVariable String fileName) {
-        Path filePath = Paths.get(pdfStoragePath).resolve(fileName).normalize();
-        File file = filePath.toFile();
+    // SHA-256 of the order as parsed (not the raw body), so formatting differences between retries do not matter
+    private String requestHash(CreateOrderRequestDTO orderRequestDTO) {
+        try {
+            byte[] canonical = objectMapper.writeValueAsBytes(orderRequestDTO);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(canonical));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot fingerprint order request", e);
+        }
+    }
 
-        if (!file.exists() || !filePath.startsWith(Paths.get(pdfStoragePath).normalize())) {
-            // Basic security check to prevent path traversal. Ensure the file is within the storage directory.
-            return ResponseEntity.notFound().build();
+    @PostMapping("/orders/batch")
+    public ResponseEntity<?> createOrdersBatch(@Valid @RequestBody BatchCreateOrderRequestDTO batchRequestDTO, Authentication authentication) {
+        List<CreateOrderRequestDTO> orderRequests = batchRequestDTO.getOrders();
+        if (orderRequests.size() > maxBatchSize) {
+            return ResponseEntity.badRequest().body("Batch contains " + orderRequests.size() + " orders; the maximum is " + maxBatchSize + ".");
         }
 
-        try {
-            InputStreamResource resource = new InputStreamResource(Files.newInputStream(filePath));
+        User placingUser = resolvePlacingUser(authentication)
+                .orElse(null);
+        if (placingUser == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Authenticated user not found in the system.");
+        }
+
+        // Bean-validate each order on its own so failures are reported per order.
+        BatchOrderResultDTO[] results = new BatchOrderResultDTO[orderRequests.size()];
+        List<Order> validOrders = new ArrayList<>(orderRequests.size());
+        List<Integer> validPositions = new ArrayList<>(orderRequests.size());
+        for (int i = 0; i < orderRequests.size(); i++) {
+            CreateOrderRequestDTO orderRequest = orderRequests.get(i);
+            if (orderRequest == null) {
+                results[i] = new BatchOrderResultDTO(i, false, null, "Order must not be null");
+                continue;
+            }
+            Set<ConstraintViolation<CreateOrderRequestDTO>> violations = validator.validate(orderRequest);
+            if (!violations.isEmpty()) {
+                String error = violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; "));
+                results[i] = new BatchOrderResultDTO(i, false, null, error);
+                continue;
+            }
+            validOrders.add(orderDtoMapper.convertToOrderEntity(orderRequest));
+            validPositions.add(i);
+        }
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.add(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
-            headers.add(HttpHeaders.CACHE_CONTROL, "no-cache, no-store, must-revalidate");
-            headers.add(HttpHeaders.PRAGMA, "no-cache");
-            headers.add(HttpHeaders.EXPIRES, "0");
+        for (BatchOrderResult result : invoicingService.createOrdersInBatch(validOrders, placingUser)) {
+            int position = validPositions.get(result.getIndex());
+            results[position] = result.isSuccess()
+                    ? new BatchOrderResultDTO(position, true, orderDtoMapper.convertToOrderResponseDTO(result.getOrder()), null)
+                    : new BatchOrderResultDTO(position, false, null, result.getError());
+        }
 
-            return ResponseEntity.ok()
-                    .headers(headers)
-                    .contentType(MediaType.APPLICATION_PDF)
-                    .contentLength(file.length())
-                    .body(resource);
+        int succeeded = 0;
+        for (BatchOrderResultDTO result : results) {
+            if (result.isSuccess()) {
+                succeeded++;
+            }
+        }
+        return ResponseEntity.ok(new BatchOrderResponseDTO(results.length, succeeded, results.length - succeeded, Arrays.asList(results)));
+    }
+
+    // The authenticated principal already carries the database user; only other principal types need a lookup
+    private Optional<User> resolvePlacingUser(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof ModuleUserDetails userDetails && userDetails.getUser() != null) {
+            return Optional.of(userDetails.getUser());
+        }
+        return userService.getUserByUsername(authentication.getName());
+    }
+
+    @GetMapping("/orders/{orderId}/invoice-status")
+    public ResponseEntity<InvoiceStatusDTO> getInvoiceStatus(@PathVariable("orderId") Long orderId) {
+        return invoicingService.getOrderById(orderId)
+                .map(order -> ResponseEntity.ok(new InvoiceStatusDTO(
+                        order.getId(),
+                        order.getInvoicePdfStatus(),
+                        invoicePdfLinks.invoicePdfUrl(order.getId(), order.getInvoicePdfStatus(), order.getInvoicePdfUrl()),
+                        order.getInvoicePdfAttempts())))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * The order's invoice PDF. Serves the stored PDF once it has been generated; in lazy mode
+     * ({@code app.pdf.generation.mode=lazy}) renders it on first access and serves it from memory afterwards.
+     */
+    @GetMapping("/orders/{orderId}/invoice.pdf")
+    public void downloadOrderInvoice(@PathVariable("orderId") Long orderId,
+                                     HttpServletRequest request,
+                                     HttpServletResponse response) {
+        String downloadName = "invoice-" + orderId + ".pdf";
+        try {
+            RenderedInvoicePdf cached = onDemandInvoicePdfService.cached(orderId);
+            if (cached != null) {
+                invoiceDownloadWriter.write(cached.getContent(), cached.getLastModified(), downloadName, request, response);
+                return;
+            }
+            Optional<Order> order = invoicingService.getOrderById(orderId);
+            if (order.isEmpty()) {
+                response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+                return;
+            }
+            String storedUrl = order.get().getInvoicePdfUrl();
+            if (order.get().getInvoicePdfStatus() == InvoicePdfStatus.GENERATED && storedUrl != null) {
+                Optional<StoredInvoice> stored = invoiceStorage.locate(storedUrl.substring(storedUrl.lastIndexOf('/') + 1));
+                if (stored.isPresent()) {
+                    invoiceDownloadWriter.write(stored.get(), downloadName, false, request, response);
+                    return;
+                }
+            }
+            if (!onDemandInvoicePdfService.isEnabled()) {
+                // Eager mode: the worker has not rendered it yet (or gave up); see /orders/{orderId}/invoice-status
+                response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+                return;
+            }
+            RenderedInvoicePdf rendered = onDemandInvoicePdfService.render(order.get());
+            invoiceDownloadWriter.write(rendered.getContent(), rendered.getLastModified(), downloadName, request, response);
+        } catch (IOException e) {
+            System.err.println("Error rendering invoice PDF for order ID: " + orderId + " - " + e.getMessage());
+            if (!response.isCommitted()) {
+                response.reset();
+                response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            }
+        }
+    }
+
+    @GetMapping("/invoices/download/{fileName:.+}")
+    public void downloadInvoice(@PathVariable("fileName") String fileName,
+                                HttpServletRequest request,
+                                HttpServletResponse response) {
+        try {
+            // Only names the storage issued resolve, so paths outside the storage directory cannot be reached
+            Optional<StoredInvoice> invoice = invoiceStorage.locate(fileName);
+            if (invoice.isEmpty()) {
+                response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+                return;
+            }
+            invoiceDownloadWriter.write(invoice.get(), fileName, true, request, response);
         } catch (IOException e) {
             System.err.println("Error downloading PDF: " + fileName + " - " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            if (!response.isCommitted()) {
+                response.reset();
+                response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            }
         }
     }
 
@@ -161,14 +310,17 @@ public class InvoicingController {
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
         
+        long started = System.nanoTime();
         try {
             List<Order> orders = invoicingService.getOrdersByNitAndDateRange(nit, startDate, endDate);
             if (orders.isEmpty()) {
+                invoicingMetrics.recordReport(OrderReportType.BY_NIT.getPath(), "list", 0, started);
                 return ResponseEntity.noContent().build();
             }
             List<OrderResponseDTO> responseDTOs = orders.stream()
-                                                     .map(this::convertToOrderResponseDTO)
+                                                     .map(orderDtoMapper::convertToOrderResponseDTO)
                                                      .collect(Collectors.toList());
+            invoicingMetrics.recordReport(OrderReportType.BY_NIT.getPath(), "list", responseDTOs.size(), started);
             return ResponseEntity.ok(responseDTOs);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
@@ -181,14 +333,17 @@ public class InvoicingController {
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
         
+        long started = System.nanoTime();
         try {
             List<Order> orders = invoicingService.getOrdersByModuleRoleAndDateRange(moduleRole, startDate, endDate);
             if (orders.isEmpty()) {
+                invoicingMetrics.recordReport(OrderReportType.BY_MODULE.getPath(), "list", 0, started);
                 return ResponseEntity.noContent().build();
             }
             List<OrderResponseDTO> responseDTOs = orders.stream()
-                                                     .map(this::convertToOrderResponseDTO)
+                                                     .map(orderDtoMapper::convertToOrderResponseDTO)
                                                      .collect(Collectors.toList());
+            invoicingMetrics.recordReport(OrderReportType.BY_MODULE.getPath(), "list", responseDTOs.size(), started);
             return ResponseEntity.ok(responseDTOs);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
@@ -200,14 +355,17 @@ public class InvoicingController {
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
         
+        long started = System.nanoTime();
         try {
             List<Order> orders = invoicingService.getGeneralSalesReport(startDate, endDate);
             if (orders.isEmpty()) {
+                invoicingMetrics.recordReport(OrderReportType.GENERAL.getPath(), "list", 0, started);
                 return ResponseEntity.noContent().build();
             }
             List<OrderResponseDTO> responseDTOs = orders.stream()
-                                                     .map(this::convertToOrderResponseDTO)
+                                                     .map(orderDtoMapper::convertToOrderResponseDTO)
                                                      .collect(Collectors.toList());
+            invoicingMetrics.recordReport(OrderReportType.GENERAL.getPath(), "list", responseDTOs.size(), started);
             return ResponseEntity.ok(responseDTOs);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
@@ -219,14 +377,17 @@ public class InvoicingController {
             @RequestParam String providerName,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        long started = System.nanoTime();
         try {
             List<Order> orders = invoicingService.getOrdersByProviderNameAndDateRange(providerName, startDate, endDate);
             if (orders.isEmpty()) {
+                invoicingMetrics.recordReport(OrderReportType.BY_PROVIDER.getPath(), "list", 0, started);
                 return ResponseEntity.noContent().build();
             }
             List<OrderResponseDTO> responseDTOs = orders.stream()
-                                                     .map(this::convertToOrderResponseDTO)
+                                                     .map(orderDtoMapper::convertToOrderResponseDTO)
                                                      .collect(Collectors.toList());
+            invoicingMetrics.recordReport(OrderReportType.BY_PROVIDER.getPath(), "list", responseDTOs.size(), started);
             return ResponseEntity.ok(responseDTOs);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
@@ -238,17 +399,160 @@ public class InvoicingController {
             @RequestParam String category,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        long started = System.nanoTime();
         try {
             List<Order> orders = invoicingService.getOrdersByItemCategoryAndDateRange(category, startDate, endDate);
             if (orders.isEmpty()) {
+                invoicingMetrics.recordReport(OrderReportType.BY_ITEM_CATEGORY.getPath(), "list", 0, started);
                 return ResponseEntity.noContent().build();
             }
             List<OrderResponseDTO> responseDTOs = orders.stream()
-                                                     .map(this::convertToOrderResponseDTO)
+                                                     .map(orderDtoMapper::convertToOrderResponseDTO)
                                                      .collect(Collectors.toList());
+            invoicingMetrics.recordReport(OrderReportType.BY_ITEM_CATEGORY.getPath(), "list", responseDTOs.size(), started);
             return ResponseEntity.ok(responseDTOs);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
-} 
\ No newline at end of file
+
+    // Keyset-paginated variant of the five reports above: /reports/{by-nit|by-module|general|by-provider|by-item-category}/page
+    @GetMapping("/reports/{reportType}/page")
+    public ResponseEntity<?> getReportPage(
+            @PathVariable("reportType") String reportType,
+            @RequestParam(name = "nit", required = false) String nit,
+            @RequestParam(name = "moduleRole", required = false) String moduleRole,
+            @RequestParam(name = "providerName", required = false) String providerName,
+            @RequestParam(name = "category", required = false) String category,
+            @RequestParam(name = "startDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(name = "endDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(name = "afterId", required = false) Long afterId,
+            @RequestParam(name = "limit", defaultValue = "100") int limit) {
+        long started = System.nanoTime();
+        try {
+            OrderReportCriteria criteria = buildReportCriteria(reportType, nit, moduleRole, providerName, category, startDate, endDate);
+            if (limit < 1 || limit > maxReportPageSize) {
+                return ResponseEntity.badRequest().body("Page limit must be between 1 and " + maxReportPageSize + ".");
+            }
+            // Fetch one extra row to know whether another page exists without a COUNT query
+            List<Order> orders = invoicingService.getOrdersPageForReport(criteria, afterId, limit + 1);
+            boolean hasMore = orders.size() > limit;
+            List<Order> pageOrders = hasMore ? orders.subList(0, limit) : orders;
+            List<OrderResponseDTO> responseDTOs = pageOrders.stream()
+                                                            .map(orderDtoMapper::convertToOrderResponseDTO)
+                                                            .collect(Collectors.toList());
+            Long nextAfterId = hasMore ? pageOrders.get(pageOrders.size() - 1).getId() : null;
+            invoicingMetrics.recordReport(criteria.getType().getPath(), "page", responseDTOs.size(), started);
+            return ResponseEntity.ok(new OrderPageDTO(responseDTOs, nextAfterId, hasMore));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Streaming variant of the five reports: NDJSON (default) or CSV written while the orders are read
+    @GetMapping("/reports/{reportType}/stream")
+    public ResponseEntity<StreamingResponseBody> streamReport(
+            @PathVariable("reportType") String reportType,
+            @RequestParam(name = "nit", required = false) String nit,
+            @RequestParam(name = "moduleRole", required = false) String moduleRole,
+            @RequestParam(name = "providerName", required = false) String providerName,
+            @RequestParam(name = "category", required = false) String category,
+            @RequestParam(name = "startDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(name = "endDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(name = "format", defaultValue = "ndjson") String format) {
+        OrderReportCriteria criteria;
+        try {
+            criteria = buildReportCriteria(reportType, nit, moduleRole, providerName, category, startDate, endDate);
+        } catch (IllegalArgumentException e) {
+            return streamingBadRequest(e.getMessage());
+        }
+
+        if ("csv".equalsIgnoreCase(format)) {
+            StreamingResponseBody body = outputStream -> {
+                long started = System.nanoTime();
+                long rows = orderReportStreamWriter.writeCsv(criteria, outputStream);
+                invoicingMetrics.recordReport(criteria.getType().getPath(), "csv", rows, started);
+            };
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"report-" + reportType + ".csv\"")
+                    .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                    .body(body);
+        } else if ("ndjson".equalsIgnoreCase(format)) {
+            StreamingResponseBody body = outputStream -> {
+                long started = System.nanoTime();
+                long rows = orderReportStreamWriter.writeNdjson(criteria, outputStream);
+                invoicingMetrics.recordReport(criteria.getType().getPath(), "ndjson", rows, started);
+            };
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .body(body);
+        }
+        return streamingBadRequest("Unsupported format: " + format + " (expected ndjson or csv)");
+    }
+
+    // Invoice PDFs of the orders of a report as one ZIP (e.g. every invoice of a NIT, or of a date range via general)
+    @GetMapping("/reports/{reportType}/invoices.zip")
+    public ResponseEntity<StreamingResponseBody> exportInvoices(
+            @PathVariable("reportType") String reportType,
+            @RequestParam(name = "nit", required = false) String nit,
+            @RequestParam(name = "moduleRole", required = false) String moduleRole,
+            @RequestParam(name = "providerName", required = false) String providerName,
+            @RequestParam(name = "category", required = false) String category,
+            @RequestParam(name = "startDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(name = "endDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        OrderReportCriteria criteria;
+        try {
+            criteria = buildReportCriteria(reportType, nit, moduleRole, providerName, category, startDate, endDate);
+        } catch (IllegalArgumentException e) {
+            return streamingBadRequest(e.getMessage());
+        }
+        StreamingResponseBody body = outputStream -> {
+            long started = System.nanoTime();
+            long invoices = invoiceZipExportWriter.writeZip(criteria, outputStream);
+            invoicingMetrics.recordReport(criteria.getType().getPath(), "zip", invoices, started);
+        };
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"invoices-" + reportType + ".zip\"")
+                .contentType(new MediaType("application", "zip"))
+                .body(body);
+    }
+
+    // Streaming endpoints are typed to StreamingResponseBody, so error messages are written the same way
+    private ResponseEntity<StreamingResponseBody> streamingBadRequest(String message) {
+        return ResponseEntity.badRequest()
+                .contentType(new MediaType("text", "plain", StandardCharsets.UTF_8))
+                .body(outputStream -> outputStream.write(message.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private OrderReportCriteria buildReportCriteria(String reportType, String nit, String moduleRole, String providerName,
+                                                    String category, LocalDateTime startDate, LocalDateTime endDate) {
+        OrderReportType type = OrderReportType.fromPath(reportType);
+        String value;
+        switch (type) {
+            case BY_NIT:
+                value = nit;
+                break;
+            case BY_MODULE:
+                value = moduleRole;
+                break;
+            case BY_PROVIDER:
+                value = providerName;
+                break;
+            case BY_ITEM_CATEGORY:
+                value = category;
+                break;
+            default:
+                value = null;
+        }
+        if (type.getValueParameter() != null && value == null) {
+            throw new IllegalArgumentException("Parameter '" + type.getValueParameter() + "' is required for report " + type.getPath() + ".");
+        }
+        if ((startDate == null) != (endDate == null)) {
+            throw new IllegalArgumentException("Both start date and end date must be provided if filtering by date.");
+        }
+        if (startDate != null && startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Start date must be before end date.");
+        }
+        return new OrderReportCriteria(type, value, startDate, endDate);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.adapters.driving.api;
+
+import com.example.satsimulationsystem.backend.modules.invoicing.adapters.driving.api.dto.CreateOrderRequestDTO;
+import com.example.satsimulationsystem.backend.modules.invoicing.adapters.driving.api.dto.OrderItemDTO;
+import com.example.satsimulationsystem.backend.modules.invoicing.adapters.driving.api.dto.OrderResponseDTO;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.Money;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.Order;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderItem;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.stream.Collectors;
+
+/**
+ * Maps between the invoicing API DTOs and the domain entities.
+ * Shared by the request/response endpoints and the streaming report writers.
+ */
+@Component
+public class OrderDtoMapper {
+
+    private final InvoicePdfLinks invoicePdfLinks;
+
+    @Autowired
+    public OrderDtoMapper(InvoicePdfLinks invoicePdfLinks) {
+        this.invoicePdfLinks = invoicePdfLinks;
+    }
+
+    public Order convertToOrderEntity(CreateOrderRequestDTO requestDTO) {
+        Order order = new Order();
+        order.setClientName(requestDTO.getClientName());
+        order.setClientNit(requestDTO.getClientNit());
+        order.setClientAddress(requestDTO.getClientAddress());
+        order.setProviderName(requestDTO.getProviderName());
+
+        if (requestDTO.getItems() != null) {
+            order.setItems(requestDTO.getItems().stream().map(itemDTO -> {
+                OrderItem item = new OrderItem();
+                item.setProductNameOrService(itemDTO.getProductNameOrService());
+                item.setUnitCost(itemDTO.getUnitCost() != null ? Money.of(itemDTO.getUnitCost()) : null); // Rounded HALF_UP to the cent
+                item.setQuantity(itemDTO.getQuantity());
+                item.setModuleType(itemDTO.getModuleType());
+                item.setCategory(itemDTO.getCategory());
+                // Calculated fields (subtotal, taxApplied, itemTotal) will be set by the service
+                return item;
+            }).collect(Collectors.toList()));
+        } else {
+            order.setItems(new ArrayList<>());
+        }
+        return order;
+    }
+
+    public OrderResponseDTO convertToOrderResponseDTO(Order order) {
+        OrderResponseDTO dto = new OrderResponseDTO();
+        dto.setOrderId(order.getId());
+        dto.setClientName(order.getClientName());
+        dto.setClientNit(order.getClientNit());
+        dto.setClientAddress(order.getClientAddress());
+        dto.setProviderName(order.getProviderName());
+        dto.setTotalAmount(toDouble(order.getTotalAmount()));
+        dto.setTotalTaxes(toDouble(order.getTotalTaxes()));
+        dto.setInvoicePdfUrl(invoicePdfLinks.invoicePdfUrl(order.getId(), order.getInvoicePdfStatus(), order.getInvoicePdfUrl()));
+        dto.setInvoicePdfStatus(order.getInvoicePdfStatus());
+        dto.setOrderDate(order.getOrderDate());
+        if (order.getCreatedBy() != null) {
+            dto.setCreatedByUsername(order.getCreatedBy().getUsername());
+        }
+
+        if (order.getItems() != null) {
+            dto.setItems(order.getItems().stream().map(itemEntity -> {
+                OrderItemDTO itemDTO = new OrderItemDTO();
+                itemDTO.setProductNameOrService(itemEntity.getProductNameOrService());
+                itemDTO.setUnitCost(toDouble(itemEntity.getUnitCost())); // This is the original unit cost
+                itemDTO.setQuantity(itemEntity.getQuantity());
+                itemDTO.setModuleType(itemEntity.getModuleType());
+                itemDTO.setCategory(itemEntity.getCategory());
+                itemDTO.setItemSubtotal(toDouble(itemEntity.getItemSubtotal()));
+                itemDTO.setTaxApplied(toDouble(itemEntity.getTaxApplied()));
+                itemDTO.setItemTotal(toDouble(itemEntity.getItemTotal()));
+                return itemDTO;
+            }).collect(Collectors.toList()));
+        } else {
+            dto.setItems(new ArrayList<>());
+        }
+        return dto;
+    }
+
+    // The API still exposes amounts as JSON numbers; Money to double is exact to the cent
+    static Double toDouble(Money amount) {
+        return amount != null ? amount.toDouble() : null;
+    }
+}
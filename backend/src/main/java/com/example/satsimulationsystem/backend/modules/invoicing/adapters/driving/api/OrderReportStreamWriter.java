@@ -0,0 +1,146 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.adapters.driving.api;
+
+import com.example.satsimulationsystem.backend.modules.invoicing.adapters.driving.api.dto.OrderResponseDTO;
+import com.example.satsimulationsystem.backend.modules.invoicing.application.InvoicingService;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderReportCriteria;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderReportRow;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes order-list reports straight to the response stream, one order at a time,
+ * so memory use does not depend on the number of orders in the report.
+ */
+@Component
+public class OrderReportStreamWriter {
+
+    private static final String CSV_HEADER = "orderId,orderDate,clientNit,clientName,clientAddress,providerName,"
+            + "createdByUsername,itemCount,totalAmount,totalTaxes,invoicePdfStatus,invoicePdfUrl\n";
+
+    private final InvoicingService invoicingService;
+    private final OrderDtoMapper orderDtoMapper;
+    private final InvoicePdfLinks invoicePdfLinks;
+    private final ObjectWriter orderWriter;
+
+    @Autowired
+    public OrderReportStreamWriter(InvoicingService invoicingService, OrderDtoMapper orderDtoMapper,
+                                   InvoicePdfLinks invoicePdfLinks, ObjectMapper objectMapper) {
+        this.invoicingService = invoicingService;
+        this.orderDtoMapper = orderDtoMapper;
+        this.invoicePdfLinks = invoicePdfLinks;
+        this.orderWriter = objectMapper.writerFor(OrderResponseDTO.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n");
+    }
+
+    /**
+     * Writes one JSON document per order, separated by newlines (application/x-ndjson).
+     *
+     * @return The number of orders written.
+     */
+    public long writeNdjson(OrderReportCriteria criteria, OutputStream outputStream) throws IOException {
+        long[] rows = new long[1];
+        try (SequenceWriter sequenceWriter = orderWriter.writeValues(outputStream)) {
+            invoicingService.streamOrdersForReport(criteria, order -> {
+                try {
+                    sequenceWriter.write(orderDtoMapper.convertToOrderResponseDTO(order));
+                    rows[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        outputStream.flush();
+        return rows[0];
+    }
+
+    /**
+     * Writes one CSV row per order with its header fields and totals (text/csv).
+     * Rows come from a projection query, so no order entities or items are loaded.
+     *
+     * @return The number of orders written.
+     */
+    public long writeCsv(OrderReportCriteria criteria, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        long[] rows = new long[1];
+        try {
+            invoicingService.streamOrderRowsForReport(criteria, row -> {
+                try {
+                    writeCsvRow(writer, row);
+                    rows[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        return rows[0];
+    }
+
+    private void writeCsvRow(Writer writer, OrderReportRow row) throws IOException {
+        writer.write(String.valueOf(row.getOrderId()));
+        writer.write(',');
+        writeCsvValue(writer, row.getOrderDate());
+        writer.write(',');
+        writeCsvValue(writer, row.getClientNit());
+        writer.write(',');
+        writeCsvValue(writer, row.getClientName());
+        writer.write(',');
+        writeCsvValue(writer, row.getClientAddress());
+        writer.write(',');
+        writeCsvValue(writer, row.getProviderName());
+        writer.write(',');
+        writeCsvValue(writer, row.getCreatedByUsername());
+        writer.write(',');
+        writeCsvValue(writer, row.getItemCount());
+        writer.write(',');
+        writeCsvValue(writer, row.getTotalAmount());
+        writer.write(',');
+        writeCsvValue(writer, row.getTotalTaxes());
+        writer.write(',');
+        writeCsvValue(writer, row.getInvoicePdfStatus());
+        writer.write(',');
+        writeCsvValue(writer, invoicePdfLinks.invoicePdfUrl(row.getOrderId(), row.getInvoicePdfStatus(), row.getInvoicePdfUrl()));
+        writer.write('\n');
+    }
+
+    // RFC 4180 quoting: only values containing a separator, quote or line break are quoted.
+    private void writeCsvValue(Writer writer, Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        boolean needsQuotes = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                needsQuotes = true;
+                break;
+            }
+        }
+        if (!needsQuotes) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.adapters.driving.api;
+
+import com.example.satsimulationsystem.backend.modules.invoicing.adapters.driving.api.dto.TaxSummaryDTO;
+import com.example.satsimulationsystem.backend.modules.invoicing.application.DailyTaxRollupService;
+import com.example.satsimulationsystem.backend.modules.invoicing.application.TaxReportService;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.ReportDimension;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.TaxSummary;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Aggregated tax reports. Secured together with the other report endpoints under /api/invoicing/reports/**.
+ */
+@RestController
+@RequestMapping("/api/invoicing/reports/summary")
+public class TaxReportController {
+
+    private final TaxReportService taxReportService;
+    private final DailyTaxRollupService dailyTaxRollupService;
+
+    @Autowired
+    public TaxReportController(TaxReportService taxReportService, DailyTaxRollupService dailyTaxRollupService) {
+        this.taxReportService = taxReportService;
+        this.dailyTaxRollupService = dailyTaxRollupService;
+    }
+
+    @GetMapping
+    public ResponseEntity<?> getTaxSummary(
+            @RequestParam("groupBy") ReportDimension groupBy, // NIT, MODULE, MODULE_TYPE, PROVIDER, CATEGORY or DAY
+            @RequestParam(name = "startDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(name = "endDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        try {
+            List<TaxSummary> summaries = taxReportService.summarizeTaxes(groupBy, startDate, endDate);
+            if (summaries.isEmpty()) {
+                return ResponseEntity.noContent().build();
+            }
+            List<TaxSummaryDTO> responseDTOs = summaries.stream()
+                                                        .map(summary -> convertToTaxSummaryDTO(groupBy, summary))
+                                                        .collect(Collectors.toList());
+            return ResponseEntity.ok(responseDTOs);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Recomputes the daily rollups of a day range from the orders (backfill or repair)
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<?> rebuildRollups(
+            @RequestParam("startDay") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDay,
+            @RequestParam("endDay") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDay) {
+        try {
+            int days = dailyTaxRollupService.rebuild(startDay, endDay);
+            return ResponseEntity.ok("Rebuilt tax rollups for " + days + " day(s).");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    private TaxSummaryDTO convertToTaxSummaryDTO(ReportDimension dimension, TaxSummary summary) {
+        return new TaxSummaryDTO(
+                dimension,
+                summary.getGroupKey(),
+                summary.getOrderCount(),
+                OrderDtoMapper.toDouble(summary.getTotalAmount()),
+                OrderDtoMapper.toDouble(summary.getTotalTaxes())
+        );
+    }
+}
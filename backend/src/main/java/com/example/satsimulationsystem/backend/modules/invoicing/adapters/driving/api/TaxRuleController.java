@@ -0,0 +1,97 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.adapters.driving.api;
+
+import com.example.satsimulationsystem.backend.modules.invoicing.adapters.driving.api.dto.TaxRuleDTO;
+import com.example.satsimulationsystem.backend.modules.invoicing.application.TaxRuleService;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.TaxRule;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Administration of the effective-dated VAT rules. Changes apply to orders created after the change commits.
+ */
+@RestController
+@RequestMapping("/api/invoicing/tax-rules")
+public class TaxRuleController {
+
+    private final TaxRuleService taxRuleService;
+
+    @Autowired
+    public TaxRuleController(TaxRuleService taxRuleService) {
+        this.taxRuleService = taxRuleService;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<TaxRuleDTO>> getAllRules() {
+        List<TaxRuleDTO> rules = taxRuleService.getAllRules().stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(rules);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<TaxRuleDTO> getRule(@PathVariable("id") Long id) {
+        return taxRuleService.getRule(id)
+                .map(rule -> ResponseEntity.ok(convertToDto(rule)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping
+    public ResponseEntity<?> createRule(@Valid @RequestBody TaxRuleDTO request) {
+        try {
+            TaxRule created = taxRuleService.createRule(convertToEntity(request));
+            return new ResponseEntity<>(convertToDto(created), HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<?> updateRule(@PathVariable("id") Long id, @Valid @RequestBody TaxRuleDTO request) {
+        if (taxRuleService.getRule(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            return ResponseEntity.ok(convertToDto(taxRuleService.updateRule(id, convertToEntity(request))));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteRule(@PathVariable("id") Long id) {
+        return taxRuleService.deleteRule(id) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    // Re-reads the rules from the database, e.g. after editing the table directly
+    @PostMapping("/reload")
+    public ResponseEntity<String> reloadRules() {
+        try {
+            return ResponseEntity.ok("Loaded " + taxRuleService.reload() + " tax rule(s).");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Tax rules not reloaded: " + e.getMessage());
+        }
+    }
+
+    private TaxRuleDTO convertToDto(TaxRule rule) {
+        return new TaxRuleDTO(
+                rule.getId(),
+                rule.getModuleType(),
+                rule.getCategory(),
+                rule.getProviderName(),
+                rule.getRatePercent(),
+                rule.getEffectiveFrom(),
+                rule.getEffectiveTo()
+        );
+    }
+
+    private TaxRule convertToEntity(TaxRuleDTO dto) {
+        return new TaxRule(null, dto.getModuleType(), dto.getCategory(), dto.getProviderName(),
+                dto.getRatePercent(), dto.getEffectiveFrom(), dto.getEffectiveTo());
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.adapters.driving.api.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchCreateOrderRequestDTO {
+
+    // Deliberately not @Valid: each order is validated individually so one bad order
+    // is reported in its own result instead of rejecting the whole batch.
+    @NotEmpty(message = "Batch must contain at least one order")
+    @NotNull
+    private List<CreateOrderRequestDTO> orders;
+}
@@ -0,0 +1,18 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.adapters.driving.api.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchOrderResponseDTO {
+
+    private int total;
+    private int succeeded;
+    private int failed;
+    private List<BatchOrderResultDTO> results; // One entry per submitted order, in submission order
+}
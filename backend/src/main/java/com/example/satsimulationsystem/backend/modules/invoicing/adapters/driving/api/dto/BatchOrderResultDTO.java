@@ -0,0 +1,16 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.adapters.driving.api.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchOrderResultDTO {
+
+    private int index;             // Position of the order in the submitted batch
+    private boolean success;
+    private OrderResponseDTO order; // Present when success is true
+    private String error;           // Present when success is false
+}
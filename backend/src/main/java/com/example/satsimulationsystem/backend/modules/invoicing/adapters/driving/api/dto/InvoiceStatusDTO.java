@@ -0,0 +1,17 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.adapters.driving.api.dto;
+
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.InvoicePdfStatus;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InvoiceStatusDTO {
+
+    private Long orderId;
+    private InvoicePdfStatus status; // PENDING, GENERATED or FAILED
+    private String invoicePdfUrl;    // Populated once status is GENERATED
+    private Integer attempts;        // Rendering attempts made so far
+}
@@ -0,0 +1,17 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.adapters.driving.api.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderPageDTO {
+
+    private List<OrderResponseDTO> orders; // Ordered by orderId
+    private Long nextAfterId;              // Pass as afterId to get the next page; null when there are no more orders
+    private boolean hasMore;
+}
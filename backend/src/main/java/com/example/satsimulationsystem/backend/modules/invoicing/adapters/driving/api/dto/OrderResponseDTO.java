@@ -1,5 +1,6 @@
 package com.example.satsimulationsystem.backend.modules.invoicing.adapters.driving.api.dto;
 
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.InvoicePdfStatus;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
@@ -21,6 +22,7 @@ public class OrderResponseDTO {
     private Double totalAmount;
     private Double totalTaxes;
     private String invoicePdfUrl;
+    private InvoicePdfStatus invoicePdfStatus; // PENDING until the PDF worker has rendered the invoice
     private LocalDateTime orderDate;
     private String createdByUsername; // Username of the module user who placed the order
 
@@ -0,0 +1,38 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.adapters.driving.api.dto;
+
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.ModuleType;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaxRuleDTO {
+
+    private Long id; // Ignored on create and update
+
+    @NotNull(message = "Module type must be specified")
+    private ModuleType moduleType;
+
+    private String category;     // Optional: only items of this category
+    private String providerName; // Optional: only orders of this provider
+
+    @NotNull(message = "Rate must not be null")
+    @DecimalMin(value = "0.00", message = "Rate must not be negative")
+    @DecimalMax(value = "100.00", message = "Rate must not exceed 100")
+    @Digits(integer = 3, fraction = 2, message = "Rate must have at most two decimals")
+    private BigDecimal ratePercent; // e.g. 12.00 for 12%
+
+    @NotNull(message = "Effective-from day must not be null")
+    private LocalDate effectiveFrom;
+
+    private LocalDate effectiveTo; // Last day the rule applies; omit for open-ended
+}
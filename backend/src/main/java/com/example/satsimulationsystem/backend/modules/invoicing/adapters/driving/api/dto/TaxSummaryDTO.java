@@ -0,0 +1,18 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.adapters.driving.api.dto;
+
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.ReportDimension;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaxSummaryDTO {
+
+    private ReportDimension dimension; // What groupKey refers to, e.g. NIT or CATEGORY
+    private String groupKey;           // Dimension value (NIT, role, provider, category, module type or ISO day)
+    private Long orderCount;
+    private Double totalAmount;        // Total amount including taxes
+    private Double totalTaxes;         // Total taxes applied
+}
@@ -0,0 +1,26 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.application;
+
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.Order;
+import lombok.Value;
+
+/**
+ * Outcome of a single order within a batch submission.
+ */
+@Value
+public class BatchOrderResult {
+    int index;     // Position of the order in the submitted batch
+    Order order;   // Persisted order, null if the order was rejected
+    String error;  // Rejection reason, null on success
+
+    public boolean isSuccess() {
+        return order != null;
+    }
+
+    public static BatchOrderResult success(int index, Order order) {
+        return new BatchOrderResult(index, order, null);
+    }
+
+    public static BatchOrderResult failure(int index, String error) {
+        return new BatchOrderResult(index, null, error);
+    }
+}
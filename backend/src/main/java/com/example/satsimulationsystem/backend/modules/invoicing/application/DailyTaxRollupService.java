@@ -0,0 +1,211 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.application;
+
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.DailyTaxRollup;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.DailyTaxRollupRepository;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.Money;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.Order;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderCreatedEvent;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderItem;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderRepository;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.ReportDimension;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.TaxSummary;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains the {@link DailyTaxRollup} table.
+ * <p>
+ * Each committed order adds its totals to the rows of its day (one per NIT, module role, provider,
+ * and per item category / module type it contains). The update runs in its own transaction after the
+ * order commits, so a rollup failure never rejects an order; instead a nightly job rebuilds the
+ * previous day from the raw orders, which also makes closed days exact.
+ */
+@Service
+public class DailyTaxRollupService {
+
+    private static final ReportDimension[] STORED_DIMENSIONS = {
+            ReportDimension.NIT, ReportDimension.MODULE, ReportDimension.MODULE_TYPE, ReportDimension.PROVIDER, ReportDimension.CATEGORY
+    };
+
+    private final DailyTaxRollupRepository rollupRepository;
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate requiresNewTransaction;
+    private final boolean enabled;
+
+    @Autowired
+    public DailyTaxRollupService(DailyTaxRollupRepository rollupRepository,
+                                 OrderRepository orderRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${app.reports.rollup.enabled:true}") boolean enabled) {
+        this.rollupRepository = rollupRepository;
+        this.orderRepository = orderRepository;
+        this.requiresNewTransaction = new TransactionTemplate(transactionManager);
+        // AFTER_COMMIT listeners still see the finished transaction's resources; always start a fresh one
+        this.requiresNewTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onOrderCreated(OrderCreatedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        Order order = event.getOrder();
+        LocalDate day = order.getOrderDate().toLocalDate();
+        Collection<Contribution> contributions = contributionsOf(order);
+        try {
+            applyContributions(day, contributions);
+        } catch (DataIntegrityViolationException e) {
+            // Another order inserted the same rollup row concurrently; the row exists now, so retry as updates
+            try {
+                applyContributions(day, contributions);
+            } catch (RuntimeException retryFailure) {
+                System.err.println("Failed to update tax rollups for order ID: " + order.getId() + " - " + retryFailure.getMessage());
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Failed to update tax rollups for order ID: " + order.getId() + " - " + e.getMessage());
+        }
+    }
+
+    /**
+     * Recomputes the rollup rows of each day in the range from the raw orders, one transaction per day.
+     * Used for the nightly reconciliation and to backfill days that predate the rollup table.
+     *
+     * @return The number of days rebuilt.
+     */
+    public int rebuild(LocalDate startDay, LocalDate endDay) {
+        if (startDay == null || endDay == null || startDay.isAfter(endDay)) {
+            throw new IllegalArgumentException("A valid start day and end day must be provided.");
+        }
+        int days = 0;
+        for (LocalDate day = startDay; !day.isAfter(endDay); day = day.plusDays(1)) {
+            LocalDate rebuiltDay = day;
+            requiresNewTransaction.executeWithoutResult(status -> rebuildDay(rebuiltDay));
+            days++;
+        }
+        return days;
+    }
+
+    @Scheduled(cron = "${app.reports.rollup.reconcile-cron:0 15 0 * * *}")
+    public void reconcilePreviousDay() {
+        if (!enabled) {
+            return;
+        }
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        try {
+            rebuild(yesterday, yesterday);
+        } catch (RuntimeException e) {
+            System.err.println("Failed to reconcile tax rollups for " + yesterday + " - " + e.getMessage());
+        }
+    }
+
+    private void rebuildDay(LocalDate day) {
+        LocalDateTime dayStart = day.atStartOfDay();
+        LocalDateTime dayEnd = day.atTime(LocalTime.MAX);
+        rollupRepository.deleteByRollupDate(day);
+
+        List<DailyTaxRollup> rows = new ArrayList<>();
+        for (ReportDimension dimension : STORED_DIMENSIONS) {
+            for (TaxSummary summary : summarizeOrders(dimension, dayStart, dayEnd)) {
+                rows.add(new DailyTaxRollup(null, day, dimension, DailyTaxRollup.storedValue(summary.getGroupKey()),
+                        summary.getOrderCount(), summary.getTotalAmount(), summary.getTotalTaxes()));
+            }
+        }
+        rollupRepository.saveAll(rows);
+    }
+
+    private List<TaxSummary> summarizeOrders(ReportDimension dimension, LocalDateTime startDate, LocalDateTime endDate) {
+        switch (dimension) {
+            case NIT:
+                return orderRepository.summarizeTaxesByNit(startDate, endDate);
+            case MODULE:
+                return orderRepository.summarizeTaxesByModuleRole(startDate, endDate);
+            case MODULE_TYPE:
+                return orderRepository.summarizeTaxesByModuleType(startDate, endDate);
+            case PROVIDER:
+                return orderRepository.summarizeTaxesByProvider(startDate, endDate);
+            case CATEGORY:
+                return orderRepository.summarizeTaxesByItemCategory(startDate, endDate);
+            default:
+                throw new IllegalArgumentException("Dimension is not stored in rollups: " + dimension);
+        }
+    }
+
+    private void applyContributions(LocalDate day, Collection<Contribution> contributions) {
+        requiresNewTransaction.executeWithoutResult(status -> {
+            for (Contribution contribution : contributions) {
+                int updated = rollupRepository.increment(day, contribution.dimension.name(), contribution.value,
+                        contribution.orderCount, contribution.totalAmount.toBigDecimal(), contribution.totalTaxes.toBigDecimal());
+                if (updated == 0) {
+                    rollupRepository.saveAndFlush(new DailyTaxRollup(null, day, contribution.dimension, contribution.value,
+                            contribution.orderCount, contribution.totalAmount, contribution.totalTaxes));
+                }
+            }
+        });
+    }
+
+    // One contribution per order-level dimension, plus one per distinct item category / module type
+    private Collection<Contribution> contributionsOf(Order order) {
+        Map<String, Contribution> contributions = new LinkedHashMap<>();
+        addOrderContribution(contributions, ReportDimension.NIT, order.getClientNit(), order);
+        if (order.getCreatedBy() != null) {
+            addOrderContribution(contributions, ReportDimension.MODULE, order.getCreatedBy().getRole(), order);
+        }
+        addOrderContribution(contributions, ReportDimension.PROVIDER, order.getProviderName(), order);
+        for (OrderItem item : order.getItems()) {
+            addItemContribution(contributions, ReportDimension.CATEGORY, item.getCategory(), item);
+            addItemContribution(contributions, ReportDimension.MODULE_TYPE,
+                    item.getModuleType() != null ? item.getModuleType().name() : null, item);
+        }
+        return contributions.values();
+    }
+
+    private void addOrderContribution(Map<String, Contribution> contributions, ReportDimension dimension, String value, Order order) {
+        Contribution contribution = new Contribution(dimension, DailyTaxRollup.storedValue(value));
+        contribution.orderCount = 1L;
+        contribution.totalAmount = order.getTotalAmount();
+        contribution.totalTaxes = order.getTotalTaxes();
+        contributions.put(dimension + ":" + contribution.value, contribution);
+    }
+
+    private void addItemContribution(Map<String, Contribution> contributions, ReportDimension dimension, String value, OrderItem item) {
+        String storedValue = DailyTaxRollup.storedValue(value);
+        Contribution contribution = contributions.computeIfAbsent(dimension + ":" + storedValue, key -> {
+            Contribution created = new Contribution(dimension, storedValue);
+            created.orderCount = 1L; // The order counts once per category/module type, however many items match
+            return created;
+        });
+        contribution.totalAmount = contribution.totalAmount.plus(item.getItemTotal());
+        contribution.totalTaxes = contribution.totalTaxes.plus(item.getTaxApplied());
+    }
+
+    private static final class Contribution {
+        private final ReportDimension dimension;
+        private final String value;
+        private Long orderCount = 0L;
+        private Money totalAmount = Money.ZERO;
+        private Money totalTaxes = Money.ZERO;
+
+        private Contribution(ReportDimension dimension, String value) {
+            this.dimension = dimension;
+            this.value = value;
+        }
+    }
+}
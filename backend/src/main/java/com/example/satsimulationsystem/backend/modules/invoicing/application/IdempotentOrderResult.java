@@ -0,0 +1,33 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.application;
+
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.Order;
+import lombok.Value;
+
+/**
+ * Outcome of an order submission carrying an {@code Idempotency-Key}.
+ */
+@Value
+public class IdempotentOrderResult {
+
+    public enum Outcome {
+        CREATED,     // First submission with the key: the order was created
+        REPLAYED,    // Retry of a completed submission: the original order, nothing recomputed
+        IN_PROGRESS, // The first submission with the key is still running
+        KEY_REUSED   // The key was already used for a different order
+    }
+
+    Outcome outcome;
+    Order order; // Null for IN_PROGRESS and KEY_REUSED
+
+    public static IdempotentOrderResult created(Order order) {
+        return new IdempotentOrderResult(Outcome.CREATED, order);
+    }
+
+    public static IdempotentOrderResult replayed(Order order) {
+        return new IdempotentOrderResult(Outcome.REPLAYED, order);
+    }
+
+    public static IdempotentOrderResult rejected(Outcome outcome) {
+        return new IdempotentOrderResult(outcome, null);
+    }
+}
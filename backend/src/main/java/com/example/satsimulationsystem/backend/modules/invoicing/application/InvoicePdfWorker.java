@@ -0,0 +1,197 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.application;
+
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.InvoicePdfStatus;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.Order;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderCreatedEvent;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderRepository;
+import com.example.satsimulationsystem.backend.services.PdfGenerationService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Renders invoice PDFs off the request path.
+ * <p>
+ * Orders are enqueued once their creating transaction commits. Rendering runs on a bounded
+ * pool; failed attempts are retried with a linear backoff until {@code app.pdf.worker.max-attempts}
+ * is reached, after which the order is marked {@link InvoicePdfStatus#FAILED}. A periodic sweep
+ * re-enqueues orders left in {@link InvoicePdfStatus#PENDING} (queue overflow, restarts, ...).
+ * <p>
+ * In lazy mode ({@code app.pdf.generation.mode=lazy}) nothing is rendered here; see {@link OnDemandInvoicePdfService}.
+ * <p>
+ * The queue length and the number of orders queued or rendering are exported as {@code invoicing.pdf.queue.size}
+ * and {@code invoicing.pdf.in.flight}.
+ */
+@Component
+public class InvoicePdfWorker {
+
+    private final OrderRepository orderRepository;
+    private final PdfGenerationService pdfGenerationService;
+    private final InvoicingMetrics metrics;
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService retryScheduler;
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private final int queueCapacity;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+    private final boolean eager;
+
+    @Autowired
+    public InvoicePdfWorker(OrderRepository orderRepository,
+                            PdfGenerationService pdfGenerationService,
+                            InvoicingMetrics metrics,
+                            MeterRegistry registry,
+                            @Value("${app.pdf.worker.threads:4}") int threads,
+                            @Value("${app.pdf.worker.queue-capacity:1000}") int queueCapacity,
+                            @Value("${app.pdf.worker.max-attempts:3}") int maxAttempts,
+                            @Value("${app.pdf.worker.retry-backoff-ms:2000}") long retryBackoffMs,
+                            @Value("${app.pdf.generation.mode:eager}") String generationMode) {
+        this.orderRepository = orderRepository;
+        this.pdfGenerationService = pdfGenerationService;
+        this.metrics = metrics;
+        this.queueCapacity = queueCapacity;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMs = retryBackoffMs;
+        this.eager = !OnDemandInvoicePdfService.isLazy(generationMode);
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "invoice-pdf-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "invoice-pdf-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("invoicing.pdf.queue.size", executor, pool -> pool.getQueue().size()).register(registry);
+        Gauge.builder("invoicing.pdf.in.flight", inFlight, Set::size).register(registry);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onOrderCreated(OrderCreatedEvent event) {
+        if (eager) {
+            enqueue(event.getOrderId());
+        }
+    }
+
+    /**
+     * Queues the order for rendering unless it is already queued or being rendered.
+     *
+     * @return true if the order was accepted by the worker pool.
+     */
+    public boolean enqueue(Long orderId) {
+        if (!inFlight.add(orderId)) {
+            return false;
+        }
+        return submit(orderId, 1);
+    }
+
+    private boolean submit(Long orderId, int attempt) {
+        try {
+            executor.execute(() -> render(orderId, attempt));
+            return true;
+        } catch (RejectedExecutionException e) {
+            // Queue is full (or we are shutting down). The order stays PENDING and the sweep picks it up later.
+            inFlight.remove(orderId);
+            System.err.println("Invoice PDF queue is full, deferring order ID: " + orderId);
+            return false;
+        }
+    }
+
+    private void render(Long orderId, int attempt) {
+        try {
+            Optional<Order> order = orderRepository.findById(orderId);
+            if (order.isEmpty() || order.get().getInvoicePdfStatus() != InvoicePdfStatus.PENDING) {
+                inFlight.remove(orderId);
+                return;
+            }
+            String pdfPath = pdfGenerationService.generateInvoicePdf(order.get());
+            metrics.pdfStatusUpdate().record(() -> orderRepository.updateInvoicePdf(orderId, pdfPath, InvoicePdfStatus.GENERATED, attempt));
+            inFlight.remove(orderId);
+        } catch (Exception e) {
+            System.err.println("Failed to generate invoice PDF for order ID: " + orderId
+                    + " (attempt " + attempt + " of " + maxAttempts + ") - " + e.getMessage());
+            if (attempt >= maxAttempts) {
+                markFailed(orderId, attempt);
+                return;
+            }
+            try {
+                retryScheduler.schedule(() -> {
+                    if (!submit(orderId, attempt + 1)) {
+                        inFlight.remove(orderId);
+                    }
+                }, retryBackoffMs * attempt, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException shuttingDown) {
+                inFlight.remove(orderId);
+            }
+        }
+    }
+
+    private void markFailed(Long orderId, int attempts) {
+        try {
+            orderRepository.updateInvoicePdfStatus(orderId, InvoicePdfStatus.FAILED, attempts);
+        } catch (Exception e) {
+            System.err.println("Could not mark invoice PDF as failed for order ID: " + orderId + " - " + e.getMessage());
+        } finally {
+            inFlight.remove(orderId);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.pdf.worker.sweep-initial-delay-ms:10000}",
+               fixedDelayString = "${app.pdf.worker.sweep-interval-ms:60000}")
+    public void sweepPendingInvoices() {
+        if (!eager) {
+            return; // Pending invoices are rendered when downloaded
+        }
+        int freeSlots = executor.getQueue().remainingCapacity();
+        if (freeSlots == 0) {
+            return;
+        }
+        List<Long> pendingIds = orderRepository.findIdsByInvoicePdfStatus(InvoicePdfStatus.PENDING,
+                PageRequest.of(0, Math.min(freeSlots, queueCapacity)));
+        for (Long orderId : pendingIds) {
+            if (!enqueue(orderId) && executor.getQueue().remainingCapacity() == 0) {
+                break;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        retryScheduler.shutdownNow();
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.application;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timers and histograms of the invoicing stages, exposed at {@code /actuator/prometheus}.
+ * <ul>
+ *     <li>{@code invoicing.order.stage{stage}}: user_lookup, tax_calculation, save and dto_mapping of order creation
+ *     (batch_save for the chunks of a batch).</li>
+ *     <li>{@code invoicing.pdf.stage{stage}}: render and write of an invoice (recorded by the PDF service), and the
+ *     status_update that saves the PDF location on the order.</li>
+ *     <li>{@code invoicing.report.duration} and {@code invoicing.report.rows}, tagged with the report and the
+ *     format (list, page, ndjson, csv, zip).</li>
+ * </ul>
+ * Histogram buckets are enabled for every {@code invoicing.*} meter in application.properties.
+ */
+@Component
+public class InvoicingMetrics {
+
+    public static final String ORDER_STAGE = "invoicing.order.stage";
+    public static final String PDF_STAGE = "invoicing.pdf.stage";
+    public static final String REPORT_DURATION = "invoicing.report.duration";
+    public static final String REPORT_ROWS = "invoicing.report.rows";
+
+    private final MeterRegistry registry;
+    private final Timer userLookup;
+    private final Timer taxCalculation;
+    private final Timer orderSave;
+    private final Timer batchSave;
+    private final Timer dtoMapping;
+    private final Timer pdfStatusUpdate;
+
+    @Autowired
+    public InvoicingMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.userLookup = stageTimer(ORDER_STAGE, "user_lookup");
+        this.taxCalculation = stageTimer(ORDER_STAGE, "tax_calculation");
+        this.orderSave = stageTimer(ORDER_STAGE, "save");
+        this.batchSave = stageTimer(ORDER_STAGE, "batch_save");
+        this.dtoMapping = stageTimer(ORDER_STAGE, "dto_mapping");
+        this.pdfStatusUpdate = stageTimer(PDF_STAGE, "status_update");
+    }
+
+    private Timer stageTimer(String name, String stage) {
+        return Timer.builder(name).tag("stage", stage).register(registry);
+    }
+
+    public Timer userLookup() {
+        return userLookup;
+    }
+
+    public Timer taxCalculation() {
+        return taxCalculation;
+    }
+
+    public Timer orderSave() {
+        return orderSave;
+    }
+
+    public Timer batchSave() {
+        return batchSave;
+    }
+
+    public Timer dtoMapping() {
+        return dtoMapping;
+    }
+
+    public Timer pdfStatusUpdate() {
+        return pdfStatusUpdate;
+    }
+
+    /**
+     * Records one report response.
+     *
+     * @param report       The report's URL segment (e.g. by-nit); only known reports, to keep the tag bounded.
+     * @param format       list, page, ndjson, csv or zip.
+     * @param rows         Orders returned.
+     * @param startedNanos {@link System#nanoTime()} when the report started.
+     */
+    public void recordReport(String report, String format, long rows, long startedNanos) {
+        Timer.builder(REPORT_DURATION).tag("report", report).tag("format", format).register(registry)
+                .record(System.nanoTime() - startedNanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder(REPORT_ROWS).baseUnit("rows").tag("report", report).tag("format", format).register(registry)
+                .record(rows);
+    }
+}
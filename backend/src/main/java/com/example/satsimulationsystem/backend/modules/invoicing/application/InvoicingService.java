@@ -10,14 +10,33 @@ public interface InvoicingService {
 
     /**
      * Creates a new order, calculates taxes, and prepares it for persistence.
-     * This method will also eventually trigger PDF generation and URL storage.
+     * The invoice PDF is not rendered here: the order is saved with a PENDING invoice status
+     * and the PDF worker renders it once the transaction commits.
      *
      * @param order The Order object containing client details and items. Item costs are pre-SAT-VAT.
      * @param placingUser The user (representing a module) placing the order.
-     * @return The processed and saved Order with calculated taxes and (eventually) PDF URL.
+     * @return The processed and saved Order with calculated taxes and a pending invoice PDF.
      */
     Order createOrderAndCalculateTaxes(Order order, User placingUser);
 
+    /**
+     * Validates, prices and persists many orders in one pass, using JDBC insert batching.
+     * Each order is reported individually: an invalid order does not prevent the others from being saved.
+     *
+     * @param orders The orders to create, in submission order.
+     * @param placingUser The user (representing a module) placing the orders.
+     * @return One result per submitted order, in the same order as the input list.
+     */
+    java.util.List<BatchOrderResult> createOrdersInBatch(java.util.List<Order> orders, User placingUser);
+
+    /**
+     * Retrieves a single order, e.g. to poll the status of its invoice PDF.
+     *
+     * @param orderId The order ID.
+     * @return The order, if it exists.
+     */
+    java.util.Optional<Order> getOrderById(Long orderId);
+
     /**
      * Retrieves a list of orders for a specific client NIT, optionally filtered by a date range.
      *
@@ -58,5 +77,33 @@ public interface InvoicingService {
      */
     java.util.List<Order> getOrdersByItemCategoryAndDateRange(String category, java.time.LocalDateTime startDate, java.time.LocalDateTime endDate);
 
+    /**
+     * Retrieves one keyset page of an order-list report, ordered by order ID.
+     *
+     * @param criteria The report and its filters.
+     * @param afterId The last order ID of the previous page, or null for the first page.
+     * @param limit Maximum number of orders to return.
+     * @return Up to {@code limit} orders with an ID greater than {@code afterId}.
+     */
+    java.util.List<Order> getOrdersPageForReport(com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderReportCriteria criteria, Long afterId, int limit);
+
+    /**
+     * Feeds every order of an order-list report to the consumer, one at a time and in ID order,
+     * without holding the whole result in memory. Orders are detached after the consumer returns.
+     *
+     * @param criteria The report and its filters.
+     * @param consumer Receives each order; items and creator are initialized.
+     */
+    void streamOrdersForReport(com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderReportCriteria criteria, java.util.function.Consumer<Order> consumer);
+
+    /**
+     * Same as {@link #streamOrdersForReport}, but feeds header-level rows (no items) built directly by the query,
+     * for flat report formats that do not need the order entities.
+     *
+     * @param criteria The report and its filters.
+     * @param consumer Receives each row, in order ID order.
+     */
+    void streamOrderRowsForReport(com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderReportCriteria criteria, java.util.function.Consumer<com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderReportRow> consumer);
+
     // Other methods for fetching orders, reports etc. will be added here or in a separate ReportService
 } 
\ No newline at end of file
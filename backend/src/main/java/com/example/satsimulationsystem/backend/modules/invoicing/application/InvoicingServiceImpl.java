@@ -1,84 +1,149 @@
 package com.example.satsimulationsystem.backend.modules.invoicing.application;
 
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.InvoicePdfStatus;
 import com.example.satsimulationsystem.backend.modules.invoicing.domain.Order;
-import com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderItem;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderCreatedEvent;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderReportCriteria;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderReportRow;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderReportType;
 import com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderRepository;
 import com.example.satsimulationsystem.backend.modules.users.domain.User;
-import com.example.satsimulationsystem.backend.services.PdfGenerationService;
+import com.example.satsimulationsystem.backend.support.ReadFromReplica;
+import jakarta.persistence.EntityManager;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.io.IOException;
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class InvoicingServiceImpl implements InvoicingService {
 
     private final OrderRepository orderRepository;
-    private final PdfGenerationService pdfGenerationService;
+    private final OrderTaxCalculator orderTaxCalculator;
+    private final TaxRuleEngine taxRuleEngine;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final InvoicingMetrics metrics;
+    private final OrderOutbox outbox;
+    private final int batchChunkSize;
 
     @Autowired
-    public InvoicingServiceImpl(OrderRepository orderRepository, PdfGenerationService pdfGenerationService) {
+    public InvoicingServiceImpl(OrderRepository orderRepository,
+                                OrderTaxCalculator orderTaxCalculator,
+                                TaxRuleEngine taxRuleEngine,
+                                ApplicationEventPublisher eventPublisher,
+                                PlatformTransactionManager transactionManager,
+                                EntityManager entityManager,
+                                InvoicingMetrics metrics,
+                                OrderOutbox outbox,
+                                @Value("${app.invoicing.batch.chunk-size:50}") int batchChunkSize) {
         this.orderRepository = orderRepository;
-        this.pdfGenerationService = pdfGenerationService;
+        this.orderTaxCalculator = orderTaxCalculator;
+        this.taxRuleEngine = taxRuleEngine;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManager = entityManager;
+        this.metrics = metrics;
+        this.outbox = outbox;
+        this.batchChunkSize = batchChunkSize;
     }
 
     @Override
     @Transactional
     public Order createOrderAndCalculateTaxes(Order order, User placingUser) {
         order.setCreatedBy(placingUser);
-        double totalOrderAmount = 0.0;
-        double totalOrderTaxes = 0.0;
+        metrics.taxCalculation().record(() -> orderTaxCalculator.calculateTaxes(order));
 
-        for (OrderItem item : order.getItems()) {
-            // Validate item details (e.g., unitCost, quantity should be positive)
-            if (item.getUnitCost() == null || item.getUnitCost() <= 0 || item.getQuantity() == null || item.getQuantity() <= 0) {
-                throw new IllegalArgumentException("Invalid item cost or quantity for product: " + item.getProductNameOrService());
-            }
-
-            double itemSubtotal = round(item.getUnitCost() * item.getQuantity());
-            item.setItemSubtotal(itemSubtotal);
-
-            double taxRate = getTaxRateForModule(item.getModuleType());
-            double taxApplied = round(itemSubtotal * taxRate);
-            item.setTaxApplied(taxApplied);
+        // The invoice PDF is rendered asynchronously by InvoicePdfWorker once this transaction commits,
+        // so the request (and its pooled DB connection) is not held for the duration of PDFBox rendering.
+        order.setInvoicePdfStatus(InvoicePdfStatus.PENDING);
+        order.setInvoicePdfAttempts(0);
+        Order savedOrder = metrics.orderSave().record(() -> orderRepository.save(order));
+        // Committed with the order; OrderOutboxRelay publishes it to the downstream consumers
+        outbox.orderCreated(savedOrder);
+        eventPublisher.publishEvent(new OrderCreatedEvent(savedOrder));
+        return savedOrder;
+    }
 
-            double itemTotal = round(itemSubtotal + taxApplied);
-            item.setItemTotal(itemTotal);
+    @Override
+    public List<BatchOrderResult> createOrdersInBatch(List<Order> orders, User placingUser) {
+        List<BatchOrderResult> results = new ArrayList<>(orders.size());
 
-            totalOrderAmount += itemTotal;
-            totalOrderTaxes += taxApplied;
+        // Validate and price every order up front; rejected orders never reach the database.
+        // The whole batch is priced against one rule snapshot, even if the tax rules change meanwhile.
+        TaxRuleTable taxRules = taxRuleEngine.current();
+        List<Integer> validIndexes = new ArrayList<>(orders.size());
+        for (int i = 0; i < orders.size(); i++) {
+            Order order = orders.get(i);
+            try {
+                order.setCreatedBy(placingUser);
+                metrics.taxCalculation().record(() -> orderTaxCalculator.calculateTaxes(order, taxRules));
+                order.setInvoicePdfStatus(InvoicePdfStatus.PENDING);
+                order.setInvoicePdfAttempts(0);
+                validIndexes.add(i);
+            } catch (IllegalArgumentException e) {
+                results.add(BatchOrderResult.failure(i, e.getMessage()));
+            }
         }
 
-        order.setTotalAmount(round(totalOrderAmount));
-        order.setTotalTaxes(round(totalOrderTaxes));
+        // Persist in chunks of the JDBC batch size, each in its own transaction, so a failing chunk
+        // only rejects its own orders and the persistence context never grows with the batch.
+        for (int start = 0; start < validIndexes.size(); start += batchChunkSize) {
+            List<Integer> chunk = validIndexes.subList(start, Math.min(start + batchChunkSize, validIndexes.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    List<Order> chunkOrders = new ArrayList<>(chunk.size());
+                    for (Integer index : chunk) {
+                        chunkOrders.add(orders.get(index));
+                    }
+                    metrics.batchSave().record(() -> {
+                        orderRepository.saveAll(chunkOrders);
+                        outbox.ordersCreated(chunkOrders);
+                        entityManager.flush();
+                    });
+                    for (Order saved : chunkOrders) {
+                        eventPublisher.publishEvent(new OrderCreatedEvent(saved));
+                    }
+                    entityManager.clear();
+                });
+                for (Integer index : chunk) {
+                    results.add(BatchOrderResult.success(index, orders.get(index)));
+                }
+            } catch (RuntimeException e) {
+                System.err.println("Failed to persist batch chunk of " + chunk.size() + " orders - " + e.getMessage());
+                for (Integer index : chunk) {
+                    orders.get(index).setId(null);
+                    results.add(BatchOrderResult.failure(index, "Could not persist order: " + e.getMessage()));
+                }
+            }
+        }
 
-        // First save the order to get an ID for PDF naming, if ID is generated on save
-        Order savedOrder = orderRepository.save(order);
+        results.sort(Comparator.comparingInt(BatchOrderResult::getIndex));
+        return results;
+    }
 
-        try {
-            String pdfPath = pdfGenerationService.generateInvoicePdf(savedOrder);
-            // The pdfPath from PdfGenerationServiceImpl is like "/invoices/download/fileName.pdf"
-            // This should be stored as is, and the controller serving the PDF will use it.
-            savedOrder.setInvoicePdfUrl(pdfPath); 
-            return orderRepository.save(savedOrder); // Save again to update with PDF URL
-        } catch (IOException e) {
-            // Log the error, and decide on transaction rollback policy.
-            // For now, we'll rethrow as a runtime exception to rollback the transaction.
-            // A more sophisticated error handling might try to save the order without a PDF URL
-            // or mark it as pending PDF generation.
-            System.err.println("Failed to generate or save PDF for order ID: " + savedOrder.getId() + " - " + e.getMessage());
-            throw new RuntimeException("Failed to generate invoice PDF after saving order.", e);
-        }
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Order> getOrderById(Long orderId) {
+        return orderRepository.findById(orderId);
     }
 
     @Override
     @Transactional(readOnly = true) // Reports are typically read-only operations
+    @ReadFromReplica
     public List<Order> getOrdersByNitAndDateRange(String nit, LocalDateTime startDate, LocalDateTime endDate) {
         if (nit == null || nit.isBlank()) {
             // Or throw IllegalArgumentException, depending on desired behavior for blank NIT
@@ -106,6 +171,7 @@ public class InvoicingServiceImpl implements InvoicingService {
 
     @Override
     @Transactional(readOnly = true)
+    @ReadFromReplica
     public List<Order> getOrdersByModuleRoleAndDateRange(String moduleRole, LocalDateTime startDate, LocalDateTime endDate) {
         if (moduleRole == null || moduleRole.isBlank()) {
             return Collections.emptyList();
@@ -126,6 +192,7 @@ public class InvoicingServiceImpl implements InvoicingService {
 
     @Override
     @Transactional(readOnly = true)
+    @ReadFromReplica
     public List<Order> getGeneralSalesReport(LocalDateTime startDate, LocalDateTime endDate) {
         if (startDate != null && endDate != null) {
             if (startDate.isAfter(endDate)) {
@@ -146,6 +213,7 @@ public class InvoicingServiceImpl implements InvoicingService {
 
     @Override
     @Transactional(readOnly = true)
+    @ReadFromReplica
     public List<Order> getOrdersByProviderNameAndDateRange(String providerName, LocalDateTime startDate, LocalDateTime endDate) {
         if (providerName == null || providerName.isBlank()) {
             return Collections.emptyList();
@@ -164,6 +232,7 @@ public class InvoicingServiceImpl implements InvoicingService {
 
     @Override
     @Transactional(readOnly = true)
+    @ReadFromReplica
     public List<Order> getOrdersByItemCategoryAndDateRange(String category, LocalDateTime startDate, LocalDateTime endDate) {
         if (category == null || category.isBlank()) {
             return Collections.emptyList();
@@ -172,30 +241,67 @@ public class InvoicingServiceImpl implements InvoicingService {
             if (startDate.isAfter(endDate)) {
                 throw new IllegalArgumentException("Start date must be before end date.");
             }
-            return orderRepository.findDistinctByItems_CategoryAndOrderDateBetween(category, startDate, endDate);
+            return orderRepository.findByItemCategoryAndOrderDateBetween(category, startDate, endDate);
         } else if (startDate != null || endDate != null) {
             throw new IllegalArgumentException("Both start date and end date must be provided if filtering by date.");
         } else {
-            return orderRepository.findDistinctByItems_Category(category);
+            return orderRepository.findByItemCategory(category);
         }
     }
 
-    private double getTaxRateForModule(com.example.satsimulationsystem.backend.modules.invoicing.domain.ModuleType moduleType) {
-        switch (moduleType) {
-            case PHARMACY:
-                return 0.12; // 12%
-            case INSURANCE:
-                return 0.10; // 10%
-            case HOSPITAL:
-                return 0.07; // 7%
-            default:
-                throw new IllegalArgumentException("Unknown module type: " + moduleType);
+    @Override
+    @Transactional(readOnly = true)
+    @ReadFromReplica
+    public List<Order> getOrdersPageForReport(OrderReportCriteria criteria, Long afterId, int limit) {
+        if (!isReportCriteriaValid(criteria)) {
+            return Collections.emptyList();
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Page limit must be positive.");
         }
+        return orderRepository.findReportPage(criteria, afterId, limit);
     }
 
-    private double round(double value) {
-        BigDecimal bd = BigDecimal.valueOf(value);
-        bd = bd.setScale(2, RoundingMode.HALF_UP);
-        return bd.doubleValue();
+    @Override
+    @Transactional(readOnly = true)
+    @ReadFromReplica
+    public void streamOrdersForReport(OrderReportCriteria criteria, Consumer<Order> consumer) {
+        if (!isReportCriteriaValid(criteria)) {
+            return;
+        }
+        try (Stream<Order> orders = orderRepository.streamReport(criteria)) {
+            orders.forEach(order -> {
+                consumer.accept(order);
+                // Keep the persistence context flat: each order (and its items) is dropped once written
+                entityManager.detach(order);
+            });
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @ReadFromReplica
+    public void streamOrderRowsForReport(OrderReportCriteria criteria, Consumer<OrderReportRow> consumer) {
+        if (!isReportCriteriaValid(criteria)) {
+            return;
+        }
+        try (Stream<OrderReportRow> rows = orderRepository.streamReportRows(criteria)) {
+            rows.forEach(consumer);
+        }
+    }
+
+    // Returns false when the report has no filter value (nothing matches), throws on an invalid date range.
+    private boolean isReportCriteriaValid(OrderReportCriteria criteria) {
+        LocalDateTime startDate = criteria.getStartDate();
+        LocalDateTime endDate = criteria.getEndDate();
+        if (startDate != null && endDate != null) {
+            if (startDate.isAfter(endDate)) {
+                throw new IllegalArgumentException("Start date must be before end date.");
+            }
+        } else if (startDate != null || endDate != null) {
+            throw new IllegalArgumentException("Both start date and end date must be provided if filtering by date.");
+        }
+        return criteria.getType() == OrderReportType.GENERAL
+                || (criteria.getValue() != null && !criteria.getValue().isBlank());
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,182 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.application;
+
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.InvoicePdfStatus;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.Order;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderRepository;
+import com.example.satsimulationsystem.backend.services.PdfGenerationService;
+import com.example.satsimulationsystem.backend.support.SizeBoundedLruCache;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.ZoneId;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lazy invoice PDFs ({@code app.pdf.generation.mode=lazy}): orders are not rendered when they are created;
+ * their invoice is rendered the first time it is downloaded from {@code /orders/{id}/invoice.pdf}.
+ * <p>
+ * Rendered PDFs are kept in an LRU cache bounded by {@code app.pdf.lazy.cache-size-mb}. Concurrent requests
+ * for the same invoice share a single rendering. With {@code app.pdf.lazy.spill-evicted}, PDFs evicted from
+ * the cache are saved to the invoice storage in the background and the order is marked
+ * {@link InvoicePdfStatus#GENERATED}, so they are never rendered twice; otherwise they are simply rendered
+ * again on the next download.
+ * <p>
+ * The cache size is exported as {@code invoicing.pdf.cache.size} (bytes) and {@code invoicing.pdf.cache.entries}.
+ */
+@Service
+public class OnDemandInvoicePdfService {
+
+    private final PdfGenerationService pdfGenerationService;
+    private final OrderRepository orderRepository;
+    private final InvoicingMetrics metrics;
+    private final boolean lazy;
+    private final boolean spillEvicted;
+    private final SizeBoundedLruCache<Long, RenderedInvoicePdf> cache;
+    private final ConcurrentHashMap<Long, CompletableFuture<RenderedInvoicePdf>> rendering = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor spillExecutor;
+
+    @Autowired
+    public OnDemandInvoicePdfService(PdfGenerationService pdfGenerationService,
+                                     OrderRepository orderRepository,
+                                     InvoicingMetrics metrics,
+                                     MeterRegistry registry,
+                                     @Value("${app.pdf.generation.mode:eager}") String generationMode,
+                                     @Value("${app.pdf.lazy.cache-size-mb:64}") long cacheSizeMb,
+                                     @Value("${app.pdf.lazy.spill-evicted:false}") boolean spillEvicted) {
+        this.pdfGenerationService = pdfGenerationService;
+        this.orderRepository = orderRepository;
+        this.metrics = metrics;
+        this.lazy = isLazy(generationMode);
+        this.spillEvicted = spillEvicted;
+        this.cache = new SizeBoundedLruCache<>(cacheSizeMb * 1024 * 1024, pdf -> pdf.getContent().length, this::onEvicted);
+        // One thread is enough: a spill is a small file write and an update; overflow is only re-rendered later
+        this.spillExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1000),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "invoice-pdf-spill");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("invoicing.pdf.cache.size", cache, SizeBoundedLruCache::weight).baseUnit("bytes").register(registry);
+        Gauge.builder("invoicing.pdf.cache.entries", cache, SizeBoundedLruCache::size).register(registry);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the mode is neither "eager" nor "lazy".
+     */
+    public static boolean isLazy(String generationMode) {
+        switch (generationMode) {
+            case "eager":
+                return false;
+            case "lazy":
+                return true;
+            default:
+                throw new IllegalArgumentException("Unknown app.pdf.generation.mode: " + generationMode + " (expected eager or lazy)");
+        }
+    }
+
+    /**
+     * @return true in lazy mode.
+     */
+    public boolean isEnabled() {
+        return lazy;
+    }
+
+    /**
+     * @return The cached PDF of the order, or null if it has not been rendered or was evicted.
+     */
+    public RenderedInvoicePdf cached(Long orderId) {
+        return cache.get(orderId);
+    }
+
+    /**
+     * Renders the order's invoice, or waits for the rendering already running for it, and caches the result.
+     */
+    public RenderedInvoicePdf render(Order order) throws IOException {
+        Long orderId = order.getId();
+        RenderedInvoicePdf cachedPdf = cache.get(orderId);
+        if (cachedPdf != null) {
+            return cachedPdf;
+        }
+        CompletableFuture<RenderedInvoicePdf> mine = new CompletableFuture<>();
+        CompletableFuture<RenderedInvoicePdf> running = rendering.putIfAbsent(orderId, mine);
+        if (running != null) {
+            return await(running);
+        }
+        try {
+            RenderedInvoicePdf pdf = cache.get(orderId); // Another rendering may have finished before ours was registered
+            if (pdf == null) {
+                long lastModified = order.getOrderDate() != null
+                        ? order.getOrderDate().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : System.currentTimeMillis();
+                pdf = new RenderedInvoicePdf(pdfGenerationService.renderInvoicePdf(order), lastModified);
+                cache.put(orderId, pdf);
+            }
+            mine.complete(pdf);
+            return pdf;
+        } catch (IOException | RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            rendering.remove(orderId, mine);
+        }
+    }
+
+    private static RenderedInvoicePdf await(CompletableFuture<RenderedInvoicePdf> running) throws IOException {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private void onEvicted(Long orderId, RenderedInvoicePdf pdf) {
+        if (!spillEvicted) {
+            return;
+        }
+        try {
+            spillExecutor.execute(() -> spill(orderId, pdf));
+        } catch (RejectedExecutionException e) {
+            // Spill queue full or shutting down; the invoice is rendered again when next downloaded
+        }
+    }
+
+    private void spill(Long orderId, RenderedInvoicePdf pdf) {
+        try {
+            String pdfPath = pdfGenerationService.storeInvoicePdf(orderId, pdf.getContent());
+            metrics.pdfStatusUpdate().record(() -> orderRepository.updateInvoicePdf(orderId, pdfPath, InvoicePdfStatus.GENERATED, 1));
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Could not save evicted invoice PDF for order ID: " + orderId + " - " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        spillExecutor.shutdown();
+        try {
+            if (!spillExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+                spillExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            spillExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
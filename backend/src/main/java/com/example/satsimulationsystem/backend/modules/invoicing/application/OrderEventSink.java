@@ -0,0 +1,24 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.application;
+
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderEventMessage;
+
+import java.util.List;
+
+/**
+ * A destination of the order events published by {@link OrderOutboxRelay}. Every bean implementing it receives
+ * every event; the built-in sinks are in {@code adapters.driven.events} and are enabled with
+ * {@code app.outbox.sink.*}. A message broker is connected by adding a bean that forwards to it.
+ */
+public interface OrderEventSink {
+
+    /**
+     * @return Short name used in logs and as the {@code sink} tag of the relay metrics.
+     */
+    String name();
+
+    /**
+     * Delivers a batch of events, sorted by event id. Returning normally means the batch is durably accepted; on an
+     * exception the whole batch is delivered again later (to every sink).
+     */
+    void publish(List<OrderEventMessage> events) throws Exception;
+}
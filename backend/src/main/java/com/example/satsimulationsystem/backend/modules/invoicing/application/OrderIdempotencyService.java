@@ -0,0 +1,199 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.application;
+
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.Order;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderIdempotencyKey;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderIdempotencyKeyRepository;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderRepository;
+import com.example.satsimulationsystem.backend.modules.users.domain.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Order creation with client-supplied {@code Idempotency-Key}s, so retried submissions do not create duplicate orders.
+ * <p>
+ * A key is stored in the same transaction as the order it created, so a committed order always has its key.
+ * Retries with the same key and the same order return the original order without pricing it again; the same key
+ * with a different order is rejected. Recently used keys are also kept in memory (bounded by
+ * {@code app.invoicing.idempotency.cache-size}), so a retry storm does not turn into key lookups. Keys expire after
+ * {@code app.invoicing.idempotency.ttl-hours} and are purged periodically.
+ * <p>
+ * Concurrent submissions with the same key on this instance are answered IN_PROGRESS while the first one runs.
+ * Across instances, the unique key constraint makes the later transaction roll back, and it replays the
+ * winner's order instead.
+ */
+@Service
+public class OrderIdempotencyService {
+
+    private final InvoicingService invoicingService;
+    private final OrderRepository orderRepository;
+    private final OrderIdempotencyKeyRepository keyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final Map<Scope, KnownKey> recentKeys; // Guarded by itself
+    private final Set<Scope> inProgress = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public OrderIdempotencyService(InvoicingService invoicingService,
+                                   OrderRepository orderRepository,
+                                   OrderIdempotencyKeyRepository keyRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${app.invoicing.idempotency.ttl-hours:24}") long ttlHours,
+                                   @Value("${app.invoicing.idempotency.cache-size:10000}") int cacheSize) {
+        this.invoicingService = invoicingService;
+        this.orderRepository = orderRepository;
+        this.keyRepository = keyRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = Duration.ofHours(ttlHours);
+        this.recentKeys = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Scope, KnownKey> eldest) {
+                return size() > cacheSize; // Oldest keys first; evicted ones are still found in the table
+            }
+        };
+    }
+
+    /**
+     * Creates the order unless the user already submitted it with the same key.
+     *
+     * @param idempotencyKey The client's key for this submission.
+     * @param requestHash    Fingerprint of the submitted order, to tell a retry from a different order.
+     */
+    public IdempotentOrderResult createOrder(Order order, User placingUser, String idempotencyKey, String requestHash) {
+        Scope scope = new Scope(placingUser.getId(), idempotencyKey);
+        IdempotentOrderResult known = lookup(scope, requestHash);
+        if (known != null) {
+            return known;
+        }
+        if (!inProgress.add(scope)) {
+            return IdempotentOrderResult.rejected(IdempotentOrderResult.Outcome.IN_PROGRESS);
+        }
+        try {
+            known = lookup(scope, requestHash); // Completed by another request between the first lookup and the claim
+            if (known != null) {
+                return known;
+            }
+            Order created = transactionTemplate.execute(status -> {
+                // An expired key that has not been purged yet would violate the unique constraint
+                keyRepository.findByUserIdAndIdempotencyKey(scope.userId, scope.key)
+                        .filter(this::isStale)
+                        .ifPresent(stale -> {
+                            keyRepository.delete(stale);
+                            keyRepository.flush();
+                        });
+                Order saved = invoicingService.createOrderAndCalculateTaxes(order, placingUser);
+                keyRepository.saveAndFlush(new OrderIdempotencyKey(null, scope.userId, scope.key, requestHash, saved.getId(), LocalDateTime.now()));
+                return saved;
+            });
+            remember(scope, new KnownKey(created.getId(), requestHash, LocalDateTime.now().plus(ttl)));
+            return IdempotentOrderResult.created(created);
+        } catch (DataIntegrityViolationException e) {
+            // Another instance committed an order with this key first; our order was rolled back with the key
+            known = lookup(scope, requestHash);
+            if (known != null) {
+                return known;
+            }
+            throw e;
+        } finally {
+            inProgress.remove(scope);
+        }
+    }
+
+    /**
+     * @return The result for a key that was already used, or null if the key is unknown or expired.
+     */
+    private IdempotentOrderResult lookup(Scope scope, String requestHash) {
+        KnownKey known;
+        synchronized (recentKeys) {
+            known = recentKeys.get(scope);
+        }
+        if (known == null || known.expiresAt.isBefore(LocalDateTime.now())) {
+            Optional<OrderIdempotencyKey> stored = keyRepository.findByUserIdAndIdempotencyKey(scope.userId, scope.key);
+            if (stored.isEmpty() || isExpired(stored.get())) {
+                return null;
+            }
+            known = new KnownKey(stored.get().getOrderId(), stored.get().getRequestHash(), stored.get().getCreatedAt().plus(ttl));
+            remember(scope, known);
+        }
+        if (!known.requestHash.equals(requestHash)) {
+            return IdempotentOrderResult.rejected(IdempotentOrderResult.Outcome.KEY_REUSED);
+        }
+        return invoicingService.getOrderById(known.orderId)
+                .map(IdempotentOrderResult::replayed)
+                .orElse(null);
+    }
+
+    private void remember(Scope scope, KnownKey known) {
+        synchronized (recentKeys) {
+            recentKeys.put(scope, known);
+        }
+    }
+
+    private boolean isExpired(OrderIdempotencyKey key) {
+        return key.getCreatedAt().plus(ttl).isBefore(LocalDateTime.now());
+    }
+
+    // Expired, or pointing at an order that no longer exists: the key may be used again
+    private boolean isStale(OrderIdempotencyKey key) {
+        return isExpired(key) || !orderRepository.existsById(key.getOrderId());
+    }
+
+    @Scheduled(fixedDelayString = "${app.invoicing.idempotency.purge-interval-ms:3600000}",
+               initialDelayString = "${app.invoicing.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpiredKeys() {
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (recentKeys) {
+            recentKeys.values().removeIf(known -> known.expiresAt.isBefore(now));
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> keyRepository.deleteCreatedBefore(now.minus(ttl)));
+        } catch (RuntimeException e) {
+            System.err.println("Could not purge expired order idempotency keys - " + e.getMessage());
+        }
+    }
+
+    private static final class Scope {
+        final Long userId;
+        final String key;
+
+        Scope(Long userId, String key) {
+            this.userId = userId;
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Scope scope && Objects.equals(userId, scope.userId) && key.equals(scope.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Objects.hashCode(userId) + key.hashCode();
+        }
+    }
+
+    private static final class KnownKey {
+        final Long orderId;
+        final String requestHash;
+        final LocalDateTime expiresAt;
+
+        KnownKey(Long orderId, String requestHash, LocalDateTime expiresAt) {
+            this.orderId = orderId;
+            this.requestHash = requestHash;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.application;
+
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.Order;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderCreatedPayload;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderOutboxEvent;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderOutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes order events to the outbox. Only joins the caller's transaction (the one saving the orders), so the
+ * events are committed or rolled back together with them; {@link OrderOutboxRelay} publishes them afterwards.
+ */
+@Component
+public class OrderOutbox {
+
+    private final OrderOutboxEventRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public OrderOutbox(OrderOutboxEventRepository outboxRepository, ObjectMapper objectMapper) {
+        this.outboxRepository = outboxRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void orderCreated(Order order) {
+        outboxRepository.save(orderCreatedEvent(order));
+    }
+
+    // One insert batch for a chunk of a batch submission
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void ordersCreated(List<Order> orders) {
+        List<OrderOutboxEvent> events = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            events.add(orderCreatedEvent(order));
+        }
+        outboxRepository.saveAll(events);
+    }
+
+    private OrderOutboxEvent orderCreatedEvent(Order order) {
+        try {
+            String payload = objectMapper.writeValueAsString(OrderCreatedPayload.of(order));
+            return new OrderOutboxEvent(null, OrderOutboxEvent.ORDER_CREATED, order.getId(), payload, LocalDateTime.now());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize the event of order ID: " + order.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.application;
+
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderCreatedEvent;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderEventMessage;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderOutboxEvent;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderOutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Publishes the outbox to the {@link OrderEventSink}s.
+ * <p>
+ * A pass reads the oldest {@code app.outbox.relay.batch-size} events by id, hands them to every sink and
+ * deletes them, until the outbox is empty. A sink failure ends the pass and the same batch is retried on the
+ * next one, so delivery is at least once. Passes run on a single thread, right after each order commit and
+ * every {@code app.outbox.relay.interval-ms} (events of other instances, retries after failures).
+ * <p>
+ * Ordering is best effort only. Ids come from a pooled sequence, so each instance draws from its own block,
+ * and concurrent transactions commit in any order: an event with a lower id can become visible after a pass
+ * has already published higher ones. Consumers must not rely on the order of events.
+ * <p>
+ * With several instances, either enable the relay on one of them ({@code app.outbox.relay.enabled}) or rely on
+ * consumers deduplicating by event id: concurrent relays can deliver an event twice.
+ * <p>
+ * Exported meters: {@code invoicing.outbox.published{sink}}, {@code invoicing.outbox.failures{sink}} and
+ * {@code invoicing.outbox.lag}, the time from the event's write (inside the order's transaction, so before
+ * its commit) to its publication.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.relay.enabled", matchIfMissing = true)
+public class OrderOutboxRelay {
+
+    private final OrderOutboxEventRepository outboxRepository;
+    private final List<OrderEventSink> sinks;
+    private final int batchSize;
+    private final ExecutorService executor;
+    private final AtomicBoolean passRequested = new AtomicBoolean();
+    private final MeterRegistry registry;
+    private final Timer lag;
+
+    @Autowired
+    public OrderOutboxRelay(OrderOutboxEventRepository outboxRepository,
+                            ObjectProvider<OrderEventSink> sinks,
+                            MeterRegistry registry,
+                            @Value("${app.outbox.relay.batch-size:200}") int batchSize) {
+        this.outboxRepository = outboxRepository;
+        this.sinks = sinks.orderedStream().toList();
+        this.batchSize = batchSize;
+        this.registry = registry;
+        this.lag = Timer.builder("invoicing.outbox.lag").register(registry);
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "order-outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (this.sinks.isEmpty()) {
+            System.err.println("No order event sink is enabled (app.outbox.sink.*); order events stay in the outbox.");
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onOrderCreated(OrderCreatedEvent event) {
+        requestPass();
+    }
+
+    @Scheduled(initialDelayString = "${app.outbox.relay.initial-delay-ms:5000}",
+               fixedDelayString = "${app.outbox.relay.interval-ms:5000}")
+    public void requestPass() {
+        // At most one pass is waiting; the commits of a batch submission share it
+        if (sinks.isEmpty() || !passRequested.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(this::publishPending);
+        } catch (RejectedExecutionException shuttingDown) {
+            passRequested.set(false);
+        }
+    }
+
+    private void publishPending() {
+        // Cleared before reading, so events committed during the pass request the next one
+        passRequested.set(false);
+        try {
+            List<OrderOutboxEvent> batch;
+            do {
+                batch = outboxRepository.findOldest(PageRequest.of(0, batchSize));
+                if (batch.isEmpty() || !publish(batch)) {
+                    return;
+                }
+                outboxRepository.deleteAllByIdInBatch(batch.stream().map(OrderOutboxEvent::getId).toList());
+                LocalDateTime now = LocalDateTime.now();
+                for (OrderOutboxEvent event : batch) {
+                    lag.record(Duration.between(event.getCreatedAt(), now));
+                }
+            } while (batch.size() == batchSize);
+        } catch (RuntimeException e) {
+            System.err.println("Order outbox relay pass failed - " + e.getMessage());
+        }
+    }
+
+    private boolean publish(List<OrderOutboxEvent> batch) {
+        List<OrderEventMessage> messages = new ArrayList<>(batch.size());
+        for (OrderOutboxEvent event : batch) {
+            messages.add(OrderEventMessage.of(event));
+        }
+        for (OrderEventSink sink : sinks) {
+            try {
+                sink.publish(messages);
+                Counter.builder("invoicing.outbox.published").tag("sink", sink.name()).register(registry).increment(messages.size());
+            } catch (Exception e) {
+                Counter.builder("invoicing.outbox.failures").tag("sink", sink.name()).register(registry).increment();
+                System.err.println("Order event sink " + sink.name() + " failed, retrying from event ID: "
+                        + messages.get(0).getEventId() + " - " + e.getMessage());
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
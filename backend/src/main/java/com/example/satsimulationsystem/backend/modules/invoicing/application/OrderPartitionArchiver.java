@@ -0,0 +1,126 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.application;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Moves closed months of orders to the archive tier.
+ * <p>
+ * On Oracle, {@code orders} has one partition per month and {@code order_items} follows it by reference (see
+ * migration V3). Once a month is over, its partitions of both tables are rebuilt with basic table compression
+ * (densely packed, read-optimized blocks; reports over history read far fewer blocks), optionally into a
+ * separate tablespace ({@code app.orders.archive.tablespace}). Indexes are maintained online, so the month stays
+ * readable and writable while it is rebuilt. The current month is never touched, so new orders keep writing to
+ * an uncompressed partition.
+ * <p>
+ * On other databases orders are not partitioned and the job does nothing.
+ */
+@Service
+public class OrderPartitionArchiver {
+
+    // high_value of an interval partition, e.g. TIMESTAMP' 2024-06-01 00:00:00'
+    private static final Pattern PARTITION_BOUND = Pattern.compile("\\d{4}-\\d{2}-\\d{2}");
+    private static final Pattern TABLESPACE_NAME = Pattern.compile("[A-Za-z][A-Za-z0-9_$#]{0,127}");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final String tablespace;
+    private volatile Boolean partitioned; // Resolved on first run
+
+    @Autowired
+    public OrderPartitionArchiver(JdbcTemplate jdbcTemplate,
+                                  @Value("${app.orders.archive.enabled:true}") boolean enabled,
+                                  @Value("${app.orders.archive.tablespace:}") String tablespace) {
+        if (!tablespace.isBlank() && !TABLESPACE_NAME.matcher(tablespace).matches()) {
+            throw new IllegalArgumentException("Invalid app.orders.archive.tablespace: " + tablespace);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.tablespace = tablespace.isBlank() ? null : tablespace.toUpperCase();
+    }
+
+    @Scheduled(cron = "${app.orders.archive.cron:0 30 1 * * *}")
+    public void archiveClosedMonths() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            archiveMonthsBefore(LocalDate.now().withDayOfMonth(1));
+        } catch (RuntimeException e) {
+            System.err.println("Failed to archive closed order partitions - " + e.getMessage());
+        }
+    }
+
+    /**
+     * Compresses every uncompressed order partition that ends on or before the given day.
+     *
+     * @return The names of the partitions archived.
+     */
+    public List<String> archiveMonthsBefore(LocalDate endDay) {
+        List<String> archived = new ArrayList<>();
+        if (!isPartitioned()) {
+            return archived;
+        }
+        for (OrderPartition partition : closedUncompressedPartitions(endDay)) {
+            // Reference partitions match their parent by position; their names are generated independently
+            String itemsPartition = jdbcTemplate.queryForObject("select partition_name from user_tab_partitions "
+                    + "where table_name = 'ORDER_ITEMS' and partition_position = ?", String.class, partition.position);
+            // Orders last: their compression marks the month as done, so a failed run is completed by the next one
+            jdbcTemplate.execute(moveStatement("order_items", itemsPartition));
+            jdbcTemplate.execute(moveStatement("orders", partition.name));
+            archived.add(partition.name);
+        }
+        return archived;
+    }
+
+    private String moveStatement(String table, String partition) {
+        return "alter table " + table + " move partition \"" + partition + "\""
+                + (tablespace != null ? " tablespace \"" + tablespace + "\"" : "")
+                + " row store compress basic update indexes online";
+    }
+
+    private List<OrderPartition> closedUncompressedPartitions(LocalDate endDay) {
+        // high_value is a LONG holding the partition bound as SQL text; it is parsed here rather than in SQL
+        List<OrderPartition> closed = new ArrayList<>();
+        jdbcTemplate.query("select partition_name, partition_position, high_value from user_tab_partitions "
+                        + "where table_name = 'ORDERS' and compression = 'DISABLED' order by partition_position",
+                row -> {
+                    String name = row.getString("partition_name");
+                    int position = row.getInt("partition_position");
+                    Matcher bound = PARTITION_BOUND.matcher(row.getString("high_value")); // LONGs are read after the columns before them
+                    if (bound.find() && !LocalDate.parse(bound.group()).isAfter(endDay)) {
+                        closed.add(new OrderPartition(name, position));
+                    }
+                });
+        return closed;
+    }
+
+    private boolean isPartitioned() {
+        if (partitioned == null) {
+            partitioned = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    connection.getMetaData().getDatabaseProductName().toLowerCase().contains("oracle"))
+                    && jdbcTemplate.queryForObject("select count(*) from user_part_tables where table_name = 'ORDERS'", Integer.class) > 0;
+        }
+        return partitioned;
+    }
+
+    private static final class OrderPartition {
+        final String name;
+        final int position;
+
+        OrderPartition(String name, int position) {
+            this.name = name;
+            this.position = position;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.application;
+
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.Money;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.Order;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderItem;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validates order items and computes item subtotals, SAT VAT and order totals.
+ * Shared by single and batch order creation so both paths price orders identically.
+ * All arithmetic is on whole cents ({@link Money}); VAT is rounded HALF_UP to the cent per item.
+ * Rates come from the tax rules in effect on the order date ({@link TaxRuleEngine}).
+ * <p>
+ * Orders with at least {@code app.tax.pricing.parallel-threshold} items are priced in slices on a
+ * fork-join pool. Totals are exact sums of cents, so the result is identical to sequential pricing,
+ * and when items are invalid the error reported is always the one of the first invalid item.
+ */
+@Component
+public class OrderTaxCalculator {
+
+    private static final int MIN_ITEMS_PER_TASK = 256; // Below this, splitting costs more than it saves
+
+    private final TaxRuleEngine taxRuleEngine;
+    private final int parallelThreshold;
+    private final ForkJoinPool pricingPool;
+
+    @Autowired
+    public OrderTaxCalculator(TaxRuleEngine taxRuleEngine,
+                              @Value("${app.tax.pricing.parallel-threshold:2000}") int parallelThreshold,
+                              @Value("${app.tax.pricing.parallelism:0}") int parallelism) {
+        this.taxRuleEngine = taxRuleEngine;
+        this.parallelThreshold = parallelThreshold > 0 ? parallelThreshold : Integer.MAX_VALUE; // 0 disables parallel pricing
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pricingPool = new ForkJoinPool(threads, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("tax-pricing-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+    }
+
+    /**
+     * Fills in the calculated fields of every item and the order totals.
+     *
+     * @param order The order to price. Item costs are pre-SAT-VAT.
+     * @throws IllegalArgumentException if the order has no items, an item has an invalid cost or quantity,
+     *                                  or no tax rule covers an item.
+     */
+    public void calculateTaxes(Order order) {
+        calculateTaxes(order, taxRuleEngine.current());
+    }
+
+    /**
+     * Same as {@link #calculateTaxes(Order)}, against a given rule table (e.g. one snapshot for a whole batch).
+     */
+    public void calculateTaxes(Order order, TaxRuleTable taxRules) {
+        if (order.getItems() == null || order.getItems().isEmpty()) {
+            throw new IllegalArgumentException("Order must contain at least one item");
+        }
+
+        // Orders are dated when persisted; until then they are priced as of today
+        LocalDate pricingDay = order.getOrderDate() != null ? order.getOrderDate().toLocalDate() : LocalDate.now();
+        List<OrderItem> items = order.getItems();
+        PricedItems totals;
+        if (items.size() >= parallelThreshold) {
+            List<OrderItem> indexed = items instanceof RandomAccess ? items : new ArrayList<>(items);
+            totals = pricingPool.invoke(new PricingTask(indexed, 0, indexed.size(),
+                    taxRules, order.getProviderName(), pricingDay, sliceSize(indexed.size())));
+        } else {
+            totals = priceItems(items, 0, items.size(), taxRules, order.getProviderName(), pricingDay);
+        }
+        if (totals.failure != null) {
+            throw totals.failure;
+        }
+
+        order.setTotalAmount(Money.ofCents(totals.amountCents));
+        order.setTotalTaxes(Money.ofCents(totals.taxesCents));
+    }
+
+    private int sliceSize(int itemCount) {
+        return Math.max(MIN_ITEMS_PER_TASK, itemCount / (pricingPool.getParallelism() * 4)); // A few slices per thread for balance
+    }
+
+    // Prices items [from, to) and stops at the first invalid one
+    private static PricedItems priceItems(List<OrderItem> items, int from, int to, TaxRuleTable taxRules,
+                                          String providerName, LocalDate pricingDay) {
+        PricedItems totals = new PricedItems();
+        for (int i = from; i < to; i++) {
+            OrderItem item = items.get(i);
+            try {
+                // Validate item details (e.g., unitCost, quantity should be positive)
+                if (item.getUnitCost() == null || !item.getUnitCost().isPositive() || item.getQuantity() == null || item.getQuantity() <= 0) {
+                    throw new IllegalArgumentException("Invalid item cost or quantity for product: " + item.getProductNameOrService());
+                }
+
+                Money itemSubtotal = item.getUnitCost().times(item.getQuantity());
+                item.setItemSubtotal(itemSubtotal);
+
+                int rateBasisPoints = taxRules.rateBasisPoints(item.getModuleType(), item.getCategory(), providerName, pricingDay);
+                Money taxApplied = itemSubtotal.percentage(rateBasisPoints);
+                item.setTaxApplied(taxApplied);
+
+                Money itemTotal = itemSubtotal.plus(taxApplied);
+                item.setItemTotal(itemTotal);
+
+                totals.amountCents = Math.addExact(totals.amountCents, itemTotal.getCents());
+                totals.taxesCents = Math.addExact(totals.taxesCents, taxApplied.getCents());
+            } catch (IllegalArgumentException | ArithmeticException e) {
+                totals.failure = e instanceof IllegalArgumentException ? (IllegalArgumentException) e
+                        : new IllegalArgumentException("Amount out of range for product: " + item.getProductNameOrService());
+                return totals;
+            }
+        }
+        return totals;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pricingPool.shutdown();
+        try {
+            pricingPool.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Totals of a slice of items, or the error of its first invalid item.
+     */
+    private static final class PricedItems {
+        private long amountCents;
+        private long taxesCents;
+        private IllegalArgumentException failure;
+
+        // Left must be the slice before right: the earlier failure wins, so errors do not depend on scheduling
+        private static PricedItems combine(PricedItems left, PricedItems right) {
+            if (left.failure != null) {
+                return left;
+            }
+            if (right.failure != null) {
+                return right;
+            }
+            left.amountCents = Math.addExact(left.amountCents, right.amountCents);
+            left.taxesCents = Math.addExact(left.taxesCents, right.taxesCents);
+            return left;
+        }
+    }
+
+    private static final class PricingTask extends RecursiveTask<PricedItems> {
+        private final List<OrderItem> items;
+        private final int from;
+        private final int to;
+        private final TaxRuleTable taxRules;
+        private final String providerName;
+        private final LocalDate pricingDay;
+        private final int sliceSize;
+
+        private PricingTask(List<OrderItem> items, int from, int to, TaxRuleTable taxRules,
+                            String providerName, LocalDate pricingDay, int sliceSize) {
+            this.items = items;
+            this.from = from;
+            this.to = to;
+            this.taxRules = taxRules;
+            this.providerName = providerName;
+            this.pricingDay = pricingDay;
+            this.sliceSize = sliceSize;
+        }
+
+        @Override
+        protected PricedItems compute() {
+            if (to - from <= sliceSize) {
+                return priceItems(items, from, to, taxRules, providerName, pricingDay);
+            }
+            int middle = (from + to) >>> 1;
+            PricingTask right = new PricingTask(items, middle, to, taxRules, providerName, pricingDay, sliceSize);
+            right.fork();
+            PricedItems left = new PricingTask(items, from, middle, taxRules, providerName, pricingDay, sliceSize).compute();
+            return PricedItems.combine(left, right.join());
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.application;
+
+import lombok.Value;
+
+/**
+ * An invoice PDF rendered on demand and kept in memory.
+ */
+@Value
+public class RenderedInvoicePdf {
+    byte[] content;
+    long lastModified; // Epoch millis of the order date; renderings of an order are byte-identical
+}
@@ -0,0 +1,25 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.application;
+
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.ReportDimension;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.TaxSummary;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Aggregated tax reports. Unlike the order listings in {@link InvoicingService}, these never load
+ * order entities: whole past days are read from the daily tax rollups, and only partial days
+ * (such as today) are grouped from the orders table.
+ */
+public interface TaxReportService {
+
+    /**
+     * Sums order totals and taxes grouped by the given dimension, optionally filtered by a date range.
+     *
+     * @param dimension The attribute to group by.
+     * @param startDate Optional start date for the filter (inclusive).
+     * @param endDate Optional end date for the filter (inclusive).
+     * @return One summary per distinct dimension value, ordered by that value.
+     */
+    List<TaxSummary> summarizeTaxes(ReportDimension dimension, LocalDateTime startDate, LocalDateTime endDate);
+}
@@ -0,0 +1,142 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.application;
+
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.DailyTaxRollup;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.DailyTaxRollupRepository;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderRepository;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.ReportDimension;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.TaxSummary;
+import com.example.satsimulationsystem.backend.support.ReadFromReplica;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Service
+public class TaxReportServiceImpl implements TaxReportService {
+
+    // Used when no date filter is given, so every dimension is served by the same bounded query.
+    static final LocalDateTime EARLIEST_ORDER_DATE = LocalDateTime.of(1900, 1, 1, 0, 0);
+    static final LocalDateTime LATEST_ORDER_DATE = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private final OrderRepository orderRepository;
+    private final DailyTaxRollupRepository rollupRepository;
+    private final boolean rollupEnabled;
+    private final LocalDate rollupAvailableFrom; // First day with complete rollups; null when all history is rolled up
+
+    @Autowired
+    public TaxReportServiceImpl(OrderRepository orderRepository,
+                                DailyTaxRollupRepository rollupRepository,
+                                @Value("${app.reports.rollup.enabled:true}") boolean rollupEnabled,
+                                @Value("${app.reports.rollup.available-from:}") String rollupAvailableFrom) {
+        this.orderRepository = orderRepository;
+        this.rollupRepository = rollupRepository;
+        this.rollupEnabled = rollupEnabled;
+        this.rollupAvailableFrom = rollupAvailableFrom.isBlank() ? null : LocalDate.parse(rollupAvailableFrom);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @ReadFromReplica
+    public List<TaxSummary> summarizeTaxes(ReportDimension dimension, LocalDateTime startDate, LocalDateTime endDate) {
+        if (dimension == null) {
+            throw new IllegalArgumentException("A report dimension must be specified.");
+        }
+        if (startDate != null && endDate != null) {
+            if (startDate.isAfter(endDate)) {
+                throw new IllegalArgumentException("Start date must be before end date.");
+            }
+        } else if (startDate != null || endDate != null) {
+            throw new IllegalArgumentException("Both start date and end date must be provided if filtering by date.");
+        } else {
+            startDate = EARLIEST_ORDER_DATE;
+            endDate = LATEST_ORDER_DATE;
+        }
+
+        if (!rollupEnabled) {
+            return orderedByGroupKey(summarizeOrders(dimension, startDate, endDate));
+        }
+
+        // Whole days before today are answered from the daily rollups; only the partial days at
+        // either end of the range (including today, which is still changing) are scanned in orders.
+        LocalDate firstRollupDay = startDate.toLocalTime().equals(LocalTime.MIDNIGHT)
+                ? startDate.toLocalDate() : startDate.toLocalDate().plusDays(1);
+        LocalDate lastRollupDay = endDate.toLocalTime().equals(LocalTime.MAX)
+                ? endDate.toLocalDate() : endDate.toLocalDate().minusDays(1);
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        if (lastRollupDay.isAfter(yesterday)) {
+            lastRollupDay = yesterday;
+        }
+        if (rollupAvailableFrom != null && firstRollupDay.isBefore(rollupAvailableFrom)) {
+            firstRollupDay = rollupAvailableFrom;
+        }
+        if (firstRollupDay.isAfter(lastRollupDay)) {
+            return orderedByGroupKey(summarizeOrders(dimension, startDate, endDate));
+        }
+
+        Map<String, TaxSummary> merged = new TreeMap<>(Comparator.nullsLast(Comparator.naturalOrder()));
+        LocalDateTime rollupStart = firstRollupDay.atStartOfDay();
+        if (startDate.isBefore(rollupStart)) {
+            mergeInto(merged, summarizeOrders(dimension, startDate, rollupStart.minusNanos(1)));
+        }
+        mergeInto(merged, summarizeRollups(dimension, firstRollupDay, lastRollupDay));
+        LocalDateTime rollupEnd = lastRollupDay.plusDays(1).atStartOfDay();
+        if (!endDate.isBefore(rollupEnd)) {
+            mergeInto(merged, summarizeOrders(dimension, rollupEnd, endDate));
+        }
+        return new ArrayList<>(merged.values());
+    }
+
+    // Results served from orders alone get the same keys and order as merged ones
+    private static List<TaxSummary> orderedByGroupKey(List<TaxSummary> summaries) {
+        Map<String, TaxSummary> merged = new TreeMap<>(Comparator.nullsLast(Comparator.naturalOrder()));
+        mergeInto(merged, summaries);
+        return new ArrayList<>(merged.values());
+    }
+
+    private List<TaxSummary> summarizeOrders(ReportDimension dimension, LocalDateTime startDate, LocalDateTime endDate) {
+        switch (dimension) {
+            case NIT:
+                return orderRepository.summarizeTaxesByNit(startDate, endDate);
+            case MODULE:
+                return orderRepository.summarizeTaxesByModuleRole(startDate, endDate);
+            case MODULE_TYPE:
+                return orderRepository.summarizeTaxesByModuleType(startDate, endDate);
+            case PROVIDER:
+                return orderRepository.summarizeTaxesByProvider(startDate, endDate);
+            case CATEGORY:
+                return orderRepository.summarizeTaxesByItemCategory(startDate, endDate);
+            case DAY:
+                return orderRepository.summarizeTaxesByDay(startDate, endDate);
+            default:
+                throw new IllegalArgumentException("Unsupported report dimension: " + dimension);
+        }
+    }
+
+    private List<TaxSummary> summarizeRollups(ReportDimension dimension, LocalDate startDay, LocalDate endDay) {
+        if (dimension == ReportDimension.DAY) {
+            return rollupRepository.summarizeByDay(startDay, endDay);
+        }
+        return rollupRepository.summarize(dimension, startDay, endDay);
+    }
+
+    private static void mergeInto(Map<String, TaxSummary> merged, List<TaxSummary> summaries) {
+        for (TaxSummary summary : summaries) {
+            String groupKey = DailyTaxRollup.groupKey(summary.getGroupKey()); // Also maps UNSPECIFIED_VALUE back to null
+            merged.merge(groupKey,
+                    new TaxSummary(groupKey, summary.getOrderCount(), summary.getTotalAmount(), summary.getTotalTaxes()),
+                    (left, right) -> new TaxSummary(groupKey,
+                            left.getOrderCount() + right.getOrderCount(),
+                            left.getTotalAmount().plus(right.getTotalAmount()),
+                            left.getTotalTaxes().plus(right.getTotalTaxes())));
+        }
+    }
+}
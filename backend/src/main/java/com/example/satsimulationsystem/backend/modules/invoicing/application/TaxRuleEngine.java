@@ -0,0 +1,34 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.application;
+
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.TaxRule;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * Holds the compiled {@link TaxRuleTable} that prices orders.
+ * <p>
+ * Readers take the current table with a single volatile read and use it without locking; installing
+ * rules compiles a complete new table first and then swaps the reference, so an order is always priced
+ * against one consistent rule set. Loading the rules is {@link TaxRuleService}'s job.
+ */
+@Component
+public class TaxRuleEngine {
+
+    private volatile TaxRuleTable table = TaxRuleTable.EMPTY;
+
+    public TaxRuleTable current() {
+        return table;
+    }
+
+    /**
+     * Compiles the rules and makes them current. The previous table stays in place if compilation fails.
+     *
+     * @throws IllegalArgumentException if the rules are invalid or overlap.
+     */
+    public TaxRuleTable install(Collection<TaxRule> rules) {
+        TaxRuleTable compiled = TaxRuleTable.compile(rules);
+        table = compiled;
+        return compiled;
+    }
+}
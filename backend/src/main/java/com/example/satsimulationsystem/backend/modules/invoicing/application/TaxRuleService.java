@@ -0,0 +1,206 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.application;
+
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.ModuleType;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.TaxRule;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.TaxRuleRepository;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.TaxRulesChangedEvent;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Manages the {@link TaxRule}s and keeps the {@link TaxRuleEngine} in sync with the database.
+ * <p>
+ * Every change is validated by compiling the resulting rule set before it is saved, and the engine reloads
+ * after the change commits. A periodic refresh picks up changes made by other instances or directly in the
+ * database. On first startup, an empty table is seeded with the historical module rates.
+ * <p>
+ * The overlap check reads every rule and then writes one, so changes are serialized: the write lock is held
+ * until the change's transaction has committed, and the next change validates against it. Rule changes are
+ * rare administrative edits, so one lock for the whole table costs nothing. A conflicting change made through
+ * another instance is not seen here; the refresh then fails to compile the table, keeps the previous rules
+ * and logs the overlap.
+ */
+@Service
+public class TaxRuleService {
+
+    private static final Sort RULE_ORDER = Sort.by("moduleType", "providerName", "category", "effectiveFrom");
+
+    private final TaxRuleRepository taxRuleRepository;
+    private final TaxRuleEngine taxRuleEngine;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate requiresNewTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final boolean seedDefaults;
+
+    @Autowired
+    public TaxRuleService(TaxRuleRepository taxRuleRepository,
+                          TaxRuleEngine taxRuleEngine,
+                          ApplicationEventPublisher eventPublisher,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${app.tax.rules.seed-defaults:true}") boolean seedDefaults) {
+        this.taxRuleRepository = taxRuleRepository;
+        this.taxRuleEngine = taxRuleEngine;
+        this.eventPublisher = eventPublisher;
+        this.requiresNewTransaction = new TransactionTemplate(transactionManager);
+        // AFTER_COMMIT listeners still see the finished transaction's resources; always start a fresh one
+        this.requiresNewTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.seedDefaults = seedDefaults;
+    }
+
+    // Runs before the web server accepts requests, so no order is priced against the empty table
+    @PostConstruct
+    void loadOnStartup() {
+        if (seedDefaults) {
+            requiresNewTransaction.executeWithoutResult(status -> {
+                if (taxRuleRepository.count() == 0) {
+                    taxRuleRepository.saveAll(defaultRules());
+                }
+            });
+        }
+        reload();
+    }
+
+    /**
+     * Reads all rules and installs them in the engine.
+     *
+     * @return The number of rules now in effect.
+     * @throws IllegalArgumentException if the stored rules are invalid; the engine keeps its previous table.
+     */
+    public int reload() {
+        List<TaxRule> rules = requiresNewTransaction.execute(status -> taxRuleRepository.findAll());
+        return taxRuleEngine.install(rules).size();
+    }
+
+    @Scheduled(fixedDelayString = "${app.tax.rules.refresh-interval-ms:60000}",
+               initialDelayString = "${app.tax.rules.refresh-interval-ms:60000}")
+    public void refresh() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            System.err.println("Failed to refresh tax rules, keeping the previous ones - " + e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTaxRulesChanged(TaxRulesChangedEvent event) {
+        refresh();
+    }
+
+    @Transactional(readOnly = true)
+    public List<TaxRule> getAllRules() {
+        return taxRuleRepository.findAll(RULE_ORDER);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<TaxRule> getRule(Long id) {
+        return taxRuleRepository.findById(id);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the rule is invalid or overlaps an existing rule of the same module, category and provider.
+     */
+    public TaxRule createRule(TaxRule rule) {
+        rule.setId(null);
+        normalize(rule);
+        return underWriteLock(() -> {
+            List<TaxRule> resulting = new ArrayList<>(taxRuleRepository.findAll());
+            resulting.add(rule);
+            TaxRuleTable.compile(resulting); // Validation only
+            TaxRule saved = taxRuleRepository.save(rule);
+            eventPublisher.publishEvent(new TaxRulesChangedEvent(saved.getId()));
+            return saved;
+        });
+    }
+
+    /**
+     * @throws IllegalArgumentException if the rule does not exist, is invalid, or would overlap another rule.
+     */
+    public TaxRule updateRule(Long id, TaxRule changes) {
+        normalize(changes);
+        changes.setId(id);
+        return underWriteLock(() -> {
+            TaxRule existing = taxRuleRepository.findById(id)
+                    .orElseThrow(() -> new IllegalArgumentException("Tax rule not found: " + id));
+            List<TaxRule> resulting = new ArrayList<>();
+            for (TaxRule rule : taxRuleRepository.findAll()) {
+                resulting.add(rule.getId().equals(id) ? changes : rule);
+            }
+            TaxRuleTable.compile(resulting); // Validation only
+
+            existing.setModuleType(changes.getModuleType());
+            existing.setCategory(changes.getCategory());
+            existing.setProviderName(changes.getProviderName());
+            existing.setRatePercent(changes.getRatePercent());
+            existing.setEffectiveFrom(changes.getEffectiveFrom());
+            existing.setEffectiveTo(changes.getEffectiveTo());
+            eventPublisher.publishEvent(new TaxRulesChangedEvent(id));
+            return existing;
+        });
+    }
+
+    /**
+     * @return false if the rule does not exist.
+     */
+    public boolean deleteRule(Long id) {
+        return underWriteLock(() -> {
+            if (!taxRuleRepository.existsById(id)) {
+                return false;
+            }
+            taxRuleRepository.deleteById(id);
+            eventPublisher.publishEvent(new TaxRulesChangedEvent(id));
+            return true;
+        });
+    }
+
+    // The lock is taken outside the transaction so it is only released once the change is committed
+    private <T> T underWriteLock(Supplier<T> change) {
+        writeLock.lock();
+        try {
+            return writeTransaction.execute(status -> change.get());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private static void normalize(TaxRule rule) {
+        if (rule.getRatePercent() != null && rule.getRatePercent().stripTrailingZeros().scale() <= 2) {
+            rule.setRatePercent(rule.getRatePercent().setScale(2)); // Finer rates are rejected by validation
+        }
+        if (rule.getCategory() != null && rule.getCategory().isBlank()) {
+            rule.setCategory(null);
+        }
+        if (rule.getProviderName() != null && rule.getProviderName().isBlank()) {
+            rule.setProviderName(null);
+        }
+    }
+
+    // The rates that were hardcoded before rules moved to the database
+    private static List<TaxRule> defaultRules() {
+        LocalDate since = LocalDate.of(2000, 1, 1);
+        return List.of(
+                new TaxRule(null, ModuleType.PHARMACY, null, null, new BigDecimal("12.00"), since, null),
+                new TaxRule(null, ModuleType.INSURANCE, null, null, new BigDecimal("10.00"), since, null),
+                new TaxRule(null, ModuleType.HOSPITAL, null, null, new BigDecimal("7.00"), since, null));
+    }
+}
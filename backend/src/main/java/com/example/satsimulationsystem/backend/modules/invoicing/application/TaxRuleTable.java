@@ -0,0 +1,237 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.application;
+
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.ModuleType;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.TaxRule;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable lookup table compiled from the {@link TaxRule}s.
+ * <p>
+ * Rules are indexed by module (array slot), then provider and/or category (hash maps), and each key holds
+ * a timeline of non-overlapping date ranges searched by binary search. Resolving a rate allocates nothing
+ * and takes no locks, so a table can be shared by any number of pricing threads while a new one is built.
+ */
+public final class TaxRuleTable {
+
+    static final TaxRuleTable EMPTY = new TaxRuleTable(new ModuleRules[ModuleType.values().length], 0);
+
+    private static final BigDecimal MAX_RATE_PERCENT = BigDecimal.valueOf(100);
+
+    private final ModuleRules[] rulesByModule; // Indexed by ModuleType.ordinal(); null when a module has no rules
+    private final int ruleCount;
+
+    private TaxRuleTable(ModuleRules[] rulesByModule, int ruleCount) {
+        this.rulesByModule = rulesByModule;
+        this.ruleCount = ruleCount;
+    }
+
+    /**
+     * @return The VAT rate in basis points of the most specific rule matching the item on the given day.
+     * @throws IllegalArgumentException if the module type is missing or no rule covers the item on that day.
+     */
+    public int rateBasisPoints(ModuleType moduleType, String category, String providerName, LocalDate day) {
+        if (moduleType == null) {
+            throw new IllegalArgumentException("Module type must be specified");
+        }
+        ModuleRules rules = rulesByModule[moduleType.ordinal()];
+        int rate = rules != null ? rules.resolve(category, providerName, day.toEpochDay()) : Timeline.NO_RATE;
+        if (rate == Timeline.NO_RATE) {
+            throw new IllegalArgumentException("No tax rule for module " + moduleType + " on " + day);
+        }
+        return rate;
+    }
+
+    public int size() {
+        return ruleCount;
+    }
+
+    /**
+     * Validates and compiles the rules.
+     *
+     * @throws IllegalArgumentException if a rule is incomplete or out of range, or two rules with the same
+     *                                  module, category and provider overlap in time.
+     */
+    public static TaxRuleTable compile(Collection<TaxRule> rules) {
+        Map<ModuleType, Map<RuleKey, List<TaxRule>>> grouped = new HashMap<>();
+        for (TaxRule rule : rules) {
+            validate(rule);
+            grouped.computeIfAbsent(rule.getModuleType(), moduleType -> new HashMap<>())
+                   .computeIfAbsent(new RuleKey(blankToNull(rule.getCategory()), blankToNull(rule.getProviderName())),
+                           key -> new ArrayList<>())
+                   .add(rule);
+        }
+
+        ModuleRules[] rulesByModule = new ModuleRules[ModuleType.values().length];
+        for (Map.Entry<ModuleType, Map<RuleKey, List<TaxRule>>> module : grouped.entrySet()) {
+            Map<String, Map<String, Timeline>> byProviderAndCategory = new HashMap<>();
+            Map<String, Timeline> byProvider = new HashMap<>();
+            Map<String, Timeline> byCategory = new HashMap<>();
+            Timeline any = null;
+            for (Map.Entry<RuleKey, List<TaxRule>> entry : module.getValue().entrySet()) {
+                RuleKey key = entry.getKey();
+                Timeline timeline = Timeline.of(entry.getValue());
+                if (key.getProviderName() != null && key.getCategory() != null) {
+                    byProviderAndCategory.computeIfAbsent(key.getProviderName(), provider -> new HashMap<>())
+                                         .put(key.getCategory(), timeline);
+                } else if (key.getProviderName() != null) {
+                    byProvider.put(key.getProviderName(), timeline);
+                } else if (key.getCategory() != null) {
+                    byCategory.put(key.getCategory(), timeline);
+                } else {
+                    any = timeline;
+                }
+            }
+            Map<String, Map<String, Timeline>> frozenProviderAndCategory = new HashMap<>();
+            byProviderAndCategory.forEach((provider, byCat) -> frozenProviderAndCategory.put(provider, Map.copyOf(byCat)));
+            rulesByModule[module.getKey().ordinal()] = new ModuleRules(Map.copyOf(frozenProviderAndCategory),
+                    Map.copyOf(byProvider), Map.copyOf(byCategory), any);
+        }
+        return new TaxRuleTable(rulesByModule, rules.size());
+    }
+
+    /**
+     * @return The rate in basis points, e.g. 1200 for 12.00%.
+     */
+    static int basisPoints(BigDecimal ratePercent) {
+        return ratePercent.movePointRight(2).intValueExact();
+    }
+
+    private static void validate(TaxRule rule) {
+        if (rule.getModuleType() == null || rule.getRatePercent() == null || rule.getEffectiveFrom() == null) {
+            throw new IllegalArgumentException(describe(rule) + " needs a module type, a rate and an effective-from day");
+        }
+        if (rule.getRatePercent().stripTrailingZeros().scale() > 2) {
+            throw new IllegalArgumentException("Tax rate must have at most two decimals: " + rule.getRatePercent());
+        }
+        // Checked before converting, so an oversized rate is rejected rather than overflowing the int
+        if (rule.getRatePercent().signum() < 0 || rule.getRatePercent().compareTo(MAX_RATE_PERCENT) > 0) {
+            throw new IllegalArgumentException("Tax rate must be between 0 and 100 percent: " + rule.getRatePercent());
+        }
+        if (rule.getEffectiveTo() != null && rule.getEffectiveTo().isBefore(rule.getEffectiveFrom())) {
+            throw new IllegalArgumentException(describe(rule) + " ends before it starts");
+        }
+    }
+
+    private static String describe(TaxRule rule) {
+        return "Tax rule " + idOf(rule);
+    }
+
+    private static String idOf(TaxRule rule) {
+        return rule.getId() != null ? rule.getId().toString() : "(new)";
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    @Value
+    private static class RuleKey {
+        String category;
+        String providerName;
+    }
+
+    private static final class ModuleRules {
+        private final Map<String, Map<String, Timeline>> byProviderAndCategory;
+        private final Map<String, Timeline> byProvider;
+        private final Map<String, Timeline> byCategory;
+        private final Timeline any; // Module-wide rule; may be null
+
+        private ModuleRules(Map<String, Map<String, Timeline>> byProviderAndCategory, Map<String, Timeline> byProvider,
+                            Map<String, Timeline> byCategory, Timeline any) {
+            this.byProviderAndCategory = byProviderAndCategory;
+            this.byProvider = byProvider;
+            this.byCategory = byCategory;
+            this.any = any;
+        }
+
+        // Most specific first; a level whose rules do not cover the day falls through to the next one
+        private int resolve(String category, String providerName, long epochDay) {
+            if (providerName != null) {
+                if (category != null) {
+                    Map<String, Timeline> byCat = byProviderAndCategory.get(providerName);
+                    int rate = byCat != null ? rateAt(byCat.get(category), epochDay) : Timeline.NO_RATE;
+                    if (rate != Timeline.NO_RATE) {
+                        return rate;
+                    }
+                }
+                int rate = rateAt(byProvider.get(providerName), epochDay);
+                if (rate != Timeline.NO_RATE) {
+                    return rate;
+                }
+            }
+            if (category != null) {
+                int rate = rateAt(byCategory.get(category), epochDay);
+                if (rate != Timeline.NO_RATE) {
+                    return rate;
+                }
+            }
+            return rateAt(any, epochDay);
+        }
+
+        private static int rateAt(Timeline timeline, long epochDay) {
+            return timeline != null ? timeline.rateAt(epochDay) : Timeline.NO_RATE;
+        }
+    }
+
+    /**
+     * Date ranges of one rule key, sorted by start day. Ranges never overlap.
+     */
+    private static final class Timeline {
+        private static final int NO_RATE = -1;
+
+        private final long[] fromDays;  // Inclusive, epoch days
+        private final long[] untilDays; // Exclusive, epoch days; Long.MAX_VALUE when open-ended
+        private final int[] rates;      // Basis points
+
+        private Timeline(long[] fromDays, long[] untilDays, int[] rates) {
+            this.fromDays = fromDays;
+            this.untilDays = untilDays;
+            this.rates = rates;
+        }
+
+        private static Timeline of(List<TaxRule> rules) {
+            rules.sort(Comparator.comparing(TaxRule::getEffectiveFrom));
+            long[] fromDays = new long[rules.size()];
+            long[] untilDays = new long[rules.size()];
+            int[] rates = new int[rules.size()];
+            for (int i = 0; i < rules.size(); i++) {
+                TaxRule rule = rules.get(i);
+                fromDays[i] = rule.getEffectiveFrom().toEpochDay();
+                untilDays[i] = rule.getEffectiveTo() != null ? rule.getEffectiveTo().toEpochDay() + 1 : Long.MAX_VALUE;
+                rates[i] = basisPoints(rule.getRatePercent());
+                if (i > 0 && fromDays[i] < untilDays[i - 1]) {
+                    TaxRule previous = rules.get(i - 1);
+                    throw new IllegalArgumentException("Overlapping tax rules for module " + rule.getModuleType()
+                            + ", category " + rule.getCategory() + ", provider " + rule.getProviderName()
+                            + " (ids " + idOf(previous) + " and " + idOf(rule) + ")");
+                }
+            }
+            return new Timeline(fromDays, untilDays, rates);
+        }
+
+        private int rateAt(long epochDay) {
+            int low = 0;
+            int high = fromDays.length - 1;
+            int match = -1; // Last range starting on or before the day
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (fromDays[mid] <= epochDay) {
+                    match = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return match >= 0 && epochDay < untilDays[match] ? rates[match] : NO_RATE;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.domain;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Pre-aggregated tax totals for one day and one value of a {@link ReportDimension}
+ * (e.g. 2024-05-01 / PROVIDER / "Acme"). Maintained incrementally as orders are created,
+ * so historical summary reports are answered without scanning orders.
+ * DAY is not stored: daily totals are the sum of the NIT rows of each day.
+ */
+@Entity
+@Table(name = "daily_tax_rollups",
+       uniqueConstraints = @UniqueConstraint(name = "uk_daily_tax_rollups_key", columnNames = {"rollup_date", "dimension", "dimension_value"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyTaxRollup {
+
+    // Stored for an unspecified value (Oracle treats '' as NULL, and NULL cannot take part in the unique key).
+    // Blank itself, so no specified value can collide with it.
+    public static final String UNSPECIFIED_VALUE = " ";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "daily_tax_rollups_seq")
+    @SequenceGenerator(name = "daily_tax_rollups_seq", sequenceName = "daily_tax_rollups_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "rollup_date", nullable = false)
+    private LocalDate rollupDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "dimension", nullable = false, length = 20)
+    private ReportDimension dimension;
+
+    @Column(name = "dimension_value", nullable = false)
+    private String dimensionValue;
+
+    @Column(nullable = false)
+    private Long orderCount;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private Money totalAmount; // Total amount including taxes
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private Money totalTaxes;  // Total taxes applied
+
+    /**
+     * @return The value a summary groups by: trimmed, or null when unspecified (null or blank). Raw order
+     * summaries and rollups both group this way, so their rows merge. Also maps a stored value back.
+     */
+    public static String groupKey(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    /**
+     * @return The {@code dimensionValue} stored for a value.
+     */
+    public static String storedValue(String value) {
+        String key = groupKey(value);
+        return key != null ? key : UNSPECIFIED_VALUE;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.domain;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyTaxRollupRepository extends JpaRepository<DailyTaxRollup, Long> {
+
+    // Adds an order's contribution to an existing rollup row; returns 0 if the row does not exist yet.
+    // Native so the increment is a single in-place UPDATE without dialect casts around the bind parameters.
+    @Modifying
+    @Query(nativeQuery = true, value = "update daily_tax_rollups set order_count = order_count + :orderCount, "
+            + "total_amount = total_amount + :totalAmount, total_taxes = total_taxes + :totalTaxes "
+            + "where rollup_date = :rollupDate and dimension = :dimension and dimension_value = :dimensionValue")
+    int increment(@Param("rollupDate") LocalDate rollupDate,
+                  @Param("dimension") String dimension,
+                  @Param("dimensionValue") String dimensionValue,
+                  @Param("orderCount") Long orderCount,
+                  @Param("totalAmount") BigDecimal totalAmount,
+                  @Param("totalTaxes") BigDecimal totalTaxes);
+
+    @Modifying
+    @Query("delete from DailyTaxRollup r where r.rollupDate = :rollupDate")
+    int deleteByRollupDate(@Param("rollupDate") LocalDate rollupDate);
+
+    // Totals per dimension value over whole days (bounds inclusive)
+    @Query("select new " + OrderRepository.TAX_SUMMARY + "(r.dimensionValue, sum(r.orderCount), sum(r.totalAmount), sum(r.totalTaxes)) "
+            + "from DailyTaxRollup r where r.dimension = :dimension and r.rollupDate between :startDay and :endDay "
+            + "group by r.dimensionValue")
+    List<TaxSummary> summarize(@Param("dimension") ReportDimension dimension,
+                               @Param("startDay") LocalDate startDay,
+                               @Param("endDay") LocalDate endDay);
+
+    // Totals per day, derived from the NIT rows since every order has exactly one NIT
+    @Query("select new " + OrderRepository.TAX_SUMMARY + "(r.rollupDate, sum(r.orderCount), sum(r.totalAmount), sum(r.totalTaxes)) "
+            + "from DailyTaxRollup r where r.dimension = com.example.satsimulationsystem.backend.modules.invoicing.domain.ReportDimension.NIT "
+            + "and r.rollupDate between :startDay and :endDay group by r.rollupDate")
+    List<TaxSummary> summarizeByDay(@Param("startDay") LocalDate startDay, @Param("endDay") LocalDate endDay);
+}
@@ -0,0 +1,7 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.domain;
+
+public enum InvoicePdfStatus {
+    PENDING,   // Order committed, invoice PDF waiting to be rendered by the worker pool (in lazy mode: on first download)
+    GENERATED, // PDF rendered and invoicePdfUrl populated
+    FAILED     // Rendering gave up after the configured number of attempts
+}
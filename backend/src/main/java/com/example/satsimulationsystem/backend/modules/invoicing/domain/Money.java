@@ -0,0 +1,117 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.domain;
+
+import org.hibernate.annotations.Immutable;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An amount of money as a whole number of cents.
+ * <p>
+ * Sums and quantities are exact, and applying a tax rate rounds HALF_UP to the cent in integer
+ * arithmetic, so pricing an item needs no BigDecimal and accumulates no binary floating-point error.
+ * Amounts are persisted as NUMERIC(19,2) through {@link MoneyConverter}.
+ */
+@Immutable // Lets Hibernate skip deep copies for dirty checking
+public final class Money implements Comparable<Money>, Serializable {
+
+    public static final Money ZERO = new Money(0);
+
+    private static final int BASIS_POINTS_PER_UNIT = 10_000; // 100% = 10000 basis points
+
+    private final long cents;
+
+    private Money(long cents) {
+        this.cents = cents;
+    }
+
+    public static Money ofCents(long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+
+    /**
+     * @throws ArithmeticException if the amount does not fit in a long number of cents.
+     */
+    public static Money of(BigDecimal amount) {
+        return ofCents(amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+    }
+
+    /**
+     * Rounds the decimal value of {@code amount} (as printed by {@link Double#toString}) HALF_UP to the cent.
+     * Meant for API input; amounts inside the system stay in Money.
+     */
+    public static Money of(double amount) {
+        return of(BigDecimal.valueOf(amount));
+    }
+
+    public long getCents() {
+        return cents;
+    }
+
+    public Money plus(Money other) {
+        return ofCents(Math.addExact(cents, other.cents));
+    }
+
+    public Money times(int quantity) {
+        return ofCents(Math.multiplyExact(cents, (long) quantity));
+    }
+
+    /**
+     * @param basisPoints Rate in hundredths of a percent, e.g. 1200 for 12%.
+     * @return This amount times the rate, rounded HALF_UP (half a cent away from zero) to the cent.
+     */
+    public Money percentage(int basisPoints) {
+        long scaled = Math.multiplyExact(Math.abs(cents), (long) basisPoints);
+        long rounded = (scaled + BASIS_POINTS_PER_UNIT / 2) / BASIS_POINTS_PER_UNIT;
+        return ofCents(cents < 0 ? -rounded : rounded);
+    }
+
+    public boolean isPositive() {
+        return cents > 0;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    /**
+     * @return The nearest double, for API fields that are still typed as Double.
+     */
+    public double toDouble() {
+        return cents / 100.0;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Money && ((Money) other).cents == cents;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(cents);
+    }
+
+    /**
+     * @return The amount with exactly two decimals and no grouping, e.g. "-1234.50".
+     */
+    @Override
+    public String toString() {
+        long absolute = Math.abs(cents);
+        int fraction = (int) (absolute % 100);
+        StringBuilder text = new StringBuilder(24);
+        if (cents < 0) {
+            text.append('-');
+        }
+        text.append(absolute / 100).append('.');
+        if (fraction < 10) {
+            text.append('0');
+        }
+        return text.append(fraction).toString();
+    }
+}
@@ -11,14 +11,30 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+// One index per report access path; created by db/migration, declared here so generated schemas match
+@Table(name = "orders", indexes = {
+        @Index(name = "ix_orders_client_nit_date", columnList = "client_nit, order_date"),
+        @Index(name = "ix_orders_provider_date", columnList = "provider_name, order_date"),
+        @Index(name = "ix_orders_user_date", columnList = "user_id, order_date"),
+        @Index(name = "ix_orders_order_date", columnList = "order_date"),
+        @Index(name = "ix_orders_pdf_status_id", columnList = "invoice_pdf_status, id")
+})
+// Fetch plan for everything that renders a full order (API responses, reports, invoice PDFs): items and creator in one query
+@NamedEntityGraph(name = Order.WITH_ITEMS_AND_CREATOR, attributeNodes = {
+        @NamedAttributeNode("items"),
+        @NamedAttributeNode("createdBy")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Order {
 
+    public static final String WITH_ITEMS_AND_CREATOR = "Order.withItemsAndCreator";
+
+    // Sequence-based ids (pre-allocated in blocks) let Hibernate batch inserts; IDENTITY disables JDBC batching.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
@@ -32,16 +48,26 @@ public class Order {
 
     private String providerName; // For "Reporte de impuestos por Proveedor"
 
-    @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
-    @JoinColumn(name = "order_id")
+    // LAZY so aggregate queries and id lookups do not drag items along; queries that need them say so explicitly
+    @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    @JoinColumn(name = "order_id", nullable = false) // Non-null FK is written in the item INSERT instead of a follow-up UPDATE
     @NotEmpty
     private List<OrderItem> items;
 
-    private Double totalAmount; // Total amount including taxes
-    private Double totalTaxes;  // Total taxes applied
+    @Column(precision = 19, scale = 2)
+    private Money totalAmount; // Total amount including taxes
+
+    @Column(precision = 19, scale = 2)
+    private Money totalTaxes;  // Total taxes applied
 
     private String invoicePdfUrl;
 
+    @Enumerated(EnumType.STRING)
+    private InvoicePdfStatus invoicePdfStatus; // Null for orders created before asynchronous PDF rendering
+
+    private Integer invoicePdfAttempts = 0; // Number of rendering attempts made by the PDF worker
+
+    @Column(nullable = false) // Partition key of orders on Oracle (one partition per month)
     private LocalDateTime orderDate;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,20 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.domain;
+
+import lombok.Value;
+
+/**
+ * Published by the invoicing service once an order has been persisted.
+ * Listeners that need the committed row (e.g. PDF rendering, tax rollups) should use
+ * {@code @TransactionalEventListener} so they only run after the commit.
+ * <p>
+ * The order is the instance that was just saved, with its items and creator already in memory,
+ * so listeners can read it without querying the database again.
+ */
+@Value
+public class OrderCreatedEvent {
+    Order order;
+
+    public Long getOrderId() {
+        return order.getId();
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.domain;
+
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Payload of an {@value OrderOutboxEvent#ORDER_CREATED} event: the order's report columns, enough for rollups
+ * and reconciliation without reading the order back. Items are only counted; consumers that need them load the
+ * order by id.
+ */
+@Value
+public class OrderCreatedPayload {
+    Long orderId;
+    LocalDateTime orderDate;
+    String clientNit;
+    String clientName;
+    String providerName;
+    String createdByUsername;
+    String createdByRole;
+    int itemCount;
+    BigDecimal totalAmount;
+    BigDecimal totalTaxes;
+
+    public static OrderCreatedPayload of(Order order) {
+        return new OrderCreatedPayload(
+                order.getId(),
+                order.getOrderDate(),
+                order.getClientNit(),
+                order.getClientName(),
+                order.getProviderName(),
+                order.getCreatedBy() != null ? order.getCreatedBy().getUsername() : null,
+                order.getCreatedBy() != null ? order.getCreatedBy().getRole() : null,
+                order.getItems() != null ? order.getItems().size() : 0,
+                order.getTotalAmount() != null ? order.getTotalAmount().toBigDecimal() : null,
+                order.getTotalTaxes() != null ? order.getTotalTaxes().toBigDecimal() : null);
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.domain;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * An outbox event as handed to the sinks, and as published on the in-process bus.
+ * <p>
+ * Delivery is at least once: an event can be delivered again after a failed or interrupted relay pass, so
+ * consumers deduplicate by {@code eventId}. Ordering is best effort: events usually arrive in {@code eventId}
+ * order, but an event can arrive after events with higher ids (see {@code OrderOutboxRelay}).
+ */
+@Value
+public class OrderEventMessage {
+    Long eventId;
+    String eventType;
+    Long orderId;
+    LocalDateTime createdAt;
+    @JsonRawValue
+    String payload; // JSON, embedded as is when the message is serialized
+
+    public static OrderEventMessage of(OrderOutboxEvent event) {
+        return new OrderEventMessage(event.getId(), event.getEventType(), event.getOrderId(), event.getCreatedAt(), event.getPayload());
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.domain;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * An {@code Idempotency-Key} a client sent with an order submission, and the order it created.
+ * Keys are scoped to the submitting user; the request hash detects a key being reused for a different order.
+ */
+@Entity
+@Table(name = "order_idempotency_keys",
+       uniqueConstraints = @UniqueConstraint(name = "uk_order_idempotency_keys_key", columnNames = {"user_id", "idempotency_key"}),
+       indexes = @Index(name = "ix_order_idempotency_keys_created", columnList = "created_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderIdempotencyKey {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_idempotency_keys_seq")
+    @SequenceGenerator(name = "order_idempotency_keys_seq", sequenceName = "order_idempotency_keys_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "idempotency_key", nullable = false)
+    private String idempotencyKey;
+
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash; // Hex SHA-256 of the submitted order
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
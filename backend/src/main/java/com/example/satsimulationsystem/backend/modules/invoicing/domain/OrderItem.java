@@ -9,35 +9,42 @@ import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
 @Entity
-@Table(name = "order_items")
+@Table(name = "order_items", indexes = { // Created by db/migration; declared here so generated schemas match
+        @Index(name = "ix_order_items_category_order", columnList = "category, order_id"),
+        @Index(name = "ix_order_items_order", columnList = "order_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class OrderItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_seq")
+    @SequenceGenerator(name = "order_items_seq", sequenceName = "order_items_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
     private String productNameOrService;
 
     @NotNull
-    @Positive
-    private Double unitCost; // Cost before this system's VAT, but including profit margin as per requirement
+    @Column(precision = 19, scale = 2)
+    private Money unitCost; // Cost before this system's VAT, but including profit margin as per requirement
 
     @NotNull
     @Positive
     private Integer quantity; // Assuming quantity, defaults to 1 if not applicable for service
 
     @NotNull
-    private Double itemSubtotal; // unitCost * quantity
+    @Column(precision = 19, scale = 2)
+    private Money itemSubtotal; // unitCost * quantity
 
     @NotNull
-    private Double taxApplied; // VAT calculated by this system
+    @Column(precision = 19, scale = 2)
+    private Money taxApplied; // VAT calculated by this system
 
     @NotNull
-    private Double itemTotal; // itemSubtotal + taxApplied
+    @Column(precision = 19, scale = 2)
+    private Money itemTotal; // itemSubtotal + taxApplied
 
     @Enumerated(EnumType.STRING)
     @NotNull
@@ -0,0 +1,40 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.domain;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * An order event waiting in the outbox. Written in the same transaction as the order it describes, so an event
+ * exists if and only if the order was committed; removed once it has been published.
+ */
+@Entity
+@Table(name = "order_outbox")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderOutboxEvent {
+
+    public static final String ORDER_CREATED = "order.created";
+
+    // Pooled: ids roughly follow creation time, not commit order (see OrderOutboxRelay)
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_outbox_seq")
+    @SequenceGenerator(name = "order_outbox_seq", sequenceName = "order_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "event_type", nullable = false, length = 50)
+    private String eventType;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(nullable = false, length = 4000)
+    private String payload; // JSON, see OrderCreatedPayload
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,16 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.domain;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OrderOutboxEventRepository extends JpaRepository<OrderOutboxEvent, Long> {
+
+    // The unpublished events, lowest id first (primary key range scan)
+    @Query("select e from OrderOutboxEvent e order by e.id")
+    List<OrderOutboxEvent> findOldest(Pageable pageable);
+}
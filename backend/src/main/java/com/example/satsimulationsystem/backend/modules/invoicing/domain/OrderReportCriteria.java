@@ -0,0 +1,16 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.domain;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filter of an order-list report: which report, its filter value and an optional date range.
+ */
+@Value
+public class OrderReportCriteria {
+    OrderReportType type;
+    String value;             // NIT, module role, provider name or category; ignored for GENERAL
+    LocalDateTime startDate;  // Inclusive, null when not filtering by date
+    LocalDateTime endDate;    // Inclusive, null when not filtering by date
+}
@@ -0,0 +1,25 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.domain;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Header-level view of an order for flat (CSV) reports: the order columns, the creator's username and the item count.
+ * Built directly by a JPQL constructor expression, so neither the order entity nor its items are loaded.
+ */
+@Value
+public class OrderReportRow {
+    Long orderId;
+    LocalDateTime orderDate;
+    String clientNit;
+    String clientName;
+    String clientAddress;
+    String providerName;
+    String createdByUsername; // Null for orders without a creator
+    Integer itemCount;
+    Money totalAmount;
+    Money totalTaxes;
+    InvoicePdfStatus invoicePdfStatus;
+    String invoicePdfUrl;
+}
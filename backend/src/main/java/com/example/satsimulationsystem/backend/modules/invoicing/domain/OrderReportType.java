@@ -0,0 +1,38 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.domain;
+
+/**
+ * The order-list reports exposed under /api/invoicing/reports, with the URL segment
+ * and the request parameter that carries the filter value of each one.
+ */
+public enum OrderReportType {
+    BY_NIT("by-nit", "nit"),
+    BY_MODULE("by-module", "moduleRole"),
+    GENERAL("general", null), // No filter value, only the optional date range
+    BY_PROVIDER("by-provider", "providerName"),
+    BY_ITEM_CATEGORY("by-item-category", "category");
+
+    private final String path;
+    private final String valueParameter;
+
+    OrderReportType(String path, String valueParameter) {
+        this.path = path;
+        this.valueParameter = valueParameter;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public String getValueParameter() {
+        return valueParameter;
+    }
+
+    public static OrderReportType fromPath(String path) {
+        for (OrderReportType type : values()) {
+            if (type.path.equals(path)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown report: " + path);
+    }
+}
@@ -1,40 +1,127 @@
 package com.example.satsimulationsystem.backend.modules.invoicing.domain;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
+import java.util.Optional;
 import com.example.satsimulationsystem.backend.modules.users.domain.User;
 import java.time.LocalDateTime;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderRepositoryCustom {
+
+    // Every finder that returns orders for rendering loads items and creator in the same query
+    // (Order.WITH_ITEMS_AND_CREATOR), so mapping N orders never costs N extra queries.
+
+    // Single order lookup (invoice status, PDF worker): the worker renders outside a transaction and needs the items
+    @Override
+    @EntityGraph(Order.WITH_ITEMS_AND_CREATOR)
+    Optional<Order> findById(Long id);
+
+    @Override
+    @EntityGraph(Order.WITH_ITEMS_AND_CREATOR)
+    List<Order> findAll();
 
     // Find orders by the user who created them (for module-specific views or reports)
+    @EntityGraph(Order.WITH_ITEMS_AND_CREATOR)
     List<Order> findByCreatedBy(User user);
 
     // Find orders by client NIT (for Tax Report by NIT)
+    @EntityGraph(Order.WITH_ITEMS_AND_CREATOR)
     List<Order> findByClientNit(String clientNit);
 
     // Find orders within a date range (for filtered reports)
+    @EntityGraph(Order.WITH_ITEMS_AND_CREATOR)
     List<Order> findByOrderDateBetween(LocalDateTime startDate, LocalDateTime endDate);
 
     // Find orders by client NIT and date range
+    @EntityGraph(Order.WITH_ITEMS_AND_CREATOR)
     List<Order> findByClientNitAndOrderDateBetween(String clientNit, LocalDateTime startDate, LocalDateTime endDate);
 
     // Find orders by creator's role and date range
+    @EntityGraph(Order.WITH_ITEMS_AND_CREATOR)
     List<Order> findByCreatedByRoleAndOrderDateBetween(String role, LocalDateTime startDate, LocalDateTime endDate);
 
     // Find orders by creator's role
+    @EntityGraph(Order.WITH_ITEMS_AND_CREATOR)
     List<Order> findByCreatedByRole(String role);
 
     // Find orders by provider name and optional date range
+    @EntityGraph(Order.WITH_ITEMS_AND_CREATOR)
     List<Order> findByProviderName(String providerName);
+    @EntityGraph(Order.WITH_ITEMS_AND_CREATOR)
     List<Order> findByProviderNameAndOrderDateBetween(String providerName, LocalDateTime startDate, LocalDateTime endDate);
 
     // Find orders by item category and optional date range
     // Note: This queries orders that contain AT LEAST ONE item with the specified category.
-    List<Order> findDistinctByItems_Category(String category);
-    List<Order> findDistinctByItems_CategoryAndOrderDateBetween(String category, LocalDateTime startDate, LocalDateTime endDate);
+    // The category test is an EXISTS subquery, so matching items do not multiply order rows and no DISTINCT is needed.
+    @EntityGraph(Order.WITH_ITEMS_AND_CREATOR)
+    @Query("select o from Order o where exists (select 1 from o.items i where i.category = :category)")
+    List<Order> findByItemCategory(@Param("category") String category);
+
+    @EntityGraph(Order.WITH_ITEMS_AND_CREATOR)
+    @Query("select o from Order o where o.orderDate between :startDate and :endDate "
+            + "and exists (select 1 from o.items i where i.category = :category)")
+    List<Order> findByItemCategoryAndOrderDateBetween(@Param("category") String category,
+                                                      @Param("startDate") LocalDateTime startDate,
+                                                      @Param("endDate") LocalDateTime endDate);
+
+    // Ids of orders whose invoice PDF still has to be rendered (used by the PDF worker sweep)
+    @Query("select o.id from Order o where o.invoicePdfStatus = :status order by o.id")
+    List<Long> findIdsByInvoicePdfStatus(@Param("status") InvoicePdfStatus status, Pageable pageable);
+
+    // Targeted updates used by the PDF worker so it never rewrites the whole order graph
+    @Modifying
+    @Transactional
+    @Query("update Order o set o.invoicePdfUrl = :url, o.invoicePdfStatus = :status, o.invoicePdfAttempts = :attempts where o.id = :id")
+    int updateInvoicePdf(@Param("id") Long id, @Param("url") String url, @Param("status") InvoicePdfStatus status, @Param("attempts") Integer attempts);
+
+    @Modifying
+    @Transactional
+    @Query("update Order o set o.invoicePdfStatus = :status, o.invoicePdfAttempts = :attempts where o.id = :id")
+    int updateInvoicePdfStatus(@Param("id") Long id, @Param("status") InvoicePdfStatus status, @Param("attempts") Integer attempts);
+
+    // Aggregated tax reports: GROUP BY runs in the database and only one row per group is returned.
+    // Bounds are inclusive; callers pass wide bounds when no date filter is requested.
+    // Text values are grouped as DailyTaxRollup.groupKey does: trimmed, and null when blank, so these
+    // totals merge with the rollups' row for row.
+    String TAX_SUMMARY = "com.example.satsimulationsystem.backend.modules.invoicing.domain.TaxSummary";
+
+    @Query("select new " + TAX_SUMMARY + "(nullif(trim(o.clientNit), ''), count(o), sum(o.totalAmount), sum(o.totalTaxes)) "
+            + "from Order o where o.orderDate between :startDate and :endDate "
+            + "group by nullif(trim(o.clientNit), '') order by nullif(trim(o.clientNit), '')")
+    List<TaxSummary> summarizeTaxesByNit(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+
+    @Query("select new " + TAX_SUMMARY + "(nullif(trim(u.role), ''), count(o), sum(o.totalAmount), sum(o.totalTaxes)) "
+            + "from Order o join o.createdBy u where o.orderDate between :startDate and :endDate "
+            + "group by nullif(trim(u.role), '') order by nullif(trim(u.role), '')")
+    List<TaxSummary> summarizeTaxesByModuleRole(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+
+    @Query("select new " + TAX_SUMMARY + "(nullif(trim(o.providerName), ''), count(o), sum(o.totalAmount), sum(o.totalTaxes)) "
+            + "from Order o where o.orderDate between :startDate and :endDate "
+            + "group by nullif(trim(o.providerName), '') order by nullif(trim(o.providerName), '')")
+    List<TaxSummary> summarizeTaxesByProvider(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+
+    @Query("select new " + TAX_SUMMARY + "(cast(o.orderDate as LocalDate), count(o), sum(o.totalAmount), sum(o.totalTaxes)) "
+            + "from Order o where o.orderDate between :startDate and :endDate "
+            + "group by cast(o.orderDate as LocalDate) order by cast(o.orderDate as LocalDate)")
+    List<TaxSummary> summarizeTaxesByDay(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+
+    @Query("select new " + TAX_SUMMARY + "(nullif(trim(i.category), ''), count(distinct o.id), sum(i.itemTotal), sum(i.taxApplied)) "
+            + "from Order o join o.items i where o.orderDate between :startDate and :endDate "
+            + "group by nullif(trim(i.category), '') order by nullif(trim(i.category), '')")
+    List<TaxSummary> summarizeTaxesByItemCategory(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+
+    @Query("select new " + TAX_SUMMARY + "(i.moduleType, count(distinct o.id), sum(i.itemTotal), sum(i.taxApplied)) "
+            + "from Order o join o.items i where o.orderDate between :startDate and :endDate "
+            + "group by i.moduleType order by i.moduleType")
+    List<TaxSummary> summarizeTaxesByModuleType(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
 
     // Additional methods for other report types can be added here later
     // e.g., if we need to query based on data within OrderItems, more complex queries might be needed.
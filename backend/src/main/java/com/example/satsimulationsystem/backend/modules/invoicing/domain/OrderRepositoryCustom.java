@@ -0,0 +1,34 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.domain;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Report queries that Spring Data cannot derive: keyset pagination and cursor-style streaming.
+ * Both order by id, so a page continues exactly where the previous one stopped even while
+ * new orders are being inserted.
+ */
+public interface OrderRepositoryCustom {
+
+    /**
+     * Returns up to {@code limit} orders matching the criteria with an id greater than {@code afterId},
+     * with items and creator initialized.
+     *
+     * @param afterId The last id of the previous page, or null for the first page.
+     */
+    List<Order> findReportPage(OrderReportCriteria criteria, Long afterId, int limit);
+
+    /**
+     * Streams all orders matching the criteria, with items and creator, using a JDBC fetch size and without
+     * materializing the result.
+     * Must be consumed inside a transaction and closed afterwards; callers should detach each order
+     * once processed to keep the persistence context from growing.
+     */
+    Stream<Order> streamReport(OrderReportCriteria criteria);
+
+    /**
+     * Streams the header-level rows of all orders matching the criteria. Same contract as
+     * {@link #streamReport(OrderReportCriteria)}, but no entities are loaded, so nothing needs detaching.
+     */
+    Stream<OrderReportRow> streamReportRows(OrderReportCriteria criteria);
+}
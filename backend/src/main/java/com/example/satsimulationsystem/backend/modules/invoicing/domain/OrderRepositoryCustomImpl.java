@@ -0,0 +1,101 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.domain;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public class OrderRepositoryCustomImpl implements OrderRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.reports.stream.fetch-size:500}")
+    private int streamFetchSize;
+
+    @Override
+    public List<Order> findReportPage(OrderReportCriteria criteria, Long afterId, int limit) {
+        // Two fixed queries per page: the page of ids, then those orders with items and creator.
+        // Limiting a query that fetches a collection would make Hibernate paginate in memory.
+        TypedQuery<Long> idQuery = buildQuery("select o.id from Order o left join o.createdBy u",
+                criteria, afterId, Long.class);
+        idQuery.setMaxResults(limit);
+        List<Long> ids = idQuery.getResultList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return entityManager.createQuery("select o from Order o left join fetch o.createdBy left join fetch o.items "
+                        + "where o.id in :ids order by o.id", Order.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<Order> streamReport(OrderReportCriteria criteria) {
+        // Items are fetched in the same result set; rows of one order are adjacent because the query orders by id
+        TypedQuery<Order> query = buildQuery("select o from Order o left join fetch o.createdBy u left join fetch o.items",
+                criteria, null, Order.class);
+        query.setHint(HibernateHints.HINT_FETCH_SIZE, streamFetchSize);
+        query.setHint(HibernateHints.HINT_READ_ONLY, true);
+        return query.getResultStream();
+    }
+
+    @Override
+    public Stream<OrderReportRow> streamReportRows(OrderReportCriteria criteria) {
+        TypedQuery<OrderReportRow> query = buildQuery("select new " + OrderReportRow.class.getName()
+                        + "(o.id, o.orderDate, o.clientNit, o.clientName, o.clientAddress, o.providerName, u.username, "
+                        + "size(o.items), o.totalAmount, o.totalTaxes, o.invoicePdfStatus, o.invoicePdfUrl) "
+                        + "from Order o left join o.createdBy u",
+                criteria, null, OrderReportRow.class);
+        query.setHint(HibernateHints.HINT_FETCH_SIZE, streamFetchSize);
+        return query.getResultStream();
+    }
+
+    // The select clause must alias the order as "o" and its (left-joined) creator as "u"
+    private <T> TypedQuery<T> buildQuery(String select, OrderReportCriteria criteria, Long afterId, Class<T> resultType) {
+        StringBuilder jpql = new StringBuilder(select).append(" where 1 = 1");
+        switch (criteria.getType()) {
+            case BY_NIT:
+                jpql.append(" and o.clientNit = :value");
+                break;
+            case BY_MODULE:
+                jpql.append(" and u.role = :value");
+                break;
+            case BY_PROVIDER:
+                jpql.append(" and o.providerName = :value");
+                break;
+            case BY_ITEM_CATEGORY:
+                // Orders containing AT LEAST ONE item of the category, without duplicating order rows
+                jpql.append(" and exists (select 1 from o.items i where i.category = :value)");
+                break;
+            case GENERAL:
+            default:
+                break;
+        }
+        boolean dated = criteria.getStartDate() != null && criteria.getEndDate() != null;
+        if (dated) {
+            jpql.append(" and o.orderDate between :startDate and :endDate");
+        }
+        if (afterId != null) {
+            jpql.append(" and o.id > :afterId");
+        }
+        jpql.append(" order by o.id");
+
+        TypedQuery<T> query = entityManager.createQuery(jpql.toString(), resultType);
+        if (criteria.getType() != OrderReportType.GENERAL) {
+            query.setParameter("value", criteria.getValue());
+        }
+        if (dated) {
+            query.setParameter("startDate", criteria.getStartDate());
+            query.setParameter("endDate", criteria.getEndDate());
+        }
+        if (afterId != null) {
+            query.setParameter("afterId", afterId);
+        }
+        return query;
+    }
+}
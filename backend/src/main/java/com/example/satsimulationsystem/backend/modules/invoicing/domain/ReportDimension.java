@@ -0,0 +1,13 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.domain;
+
+/**
+ * Attributes that tax summary reports can be grouped by.
+ */
+public enum ReportDimension {
+    NIT,         // Client NIT (order level)
+    MODULE,      // Role of the module user that placed the order, e.g. MODULE_PHARMACY (order level)
+    MODULE_TYPE, // PHARMACY, INSURANCE, HOSPITAL (item level)
+    PROVIDER,    // Provider name (order level)
+    CATEGORY,    // Item category (item level)
+    DAY          // Calendar day of the order date (order level)
+}
@@ -0,0 +1,48 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.domain;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * A VAT rate for the items of one module, optionally narrowed to an item category and/or a provider,
+ * valid for a range of days. When several rules match an item, the most specific one wins
+ * (provider and category, then provider, then category, then module only).
+ * Rules with the same module, category and provider must not overlap in time.
+ */
+@Entity
+@Table(name = "tax_rules")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaxRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tax_rules_seq")
+    @SequenceGenerator(name = "tax_rules_seq", sequenceName = "tax_rules_seq", allocationSize = 1)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @NotNull
+    private ModuleType moduleType;
+
+    private String category;     // Null: any category
+
+    private String providerName; // Null: any provider
+
+    @Column(nullable = false, precision = 5, scale = 2)
+    @NotNull
+    private BigDecimal ratePercent; // e.g. 12.00 for 12%
+
+    @Column(nullable = false)
+    @NotNull
+    private LocalDate effectiveFrom; // First day the rule applies
+
+    private LocalDate effectiveTo;   // Last day the rule applies; null while open-ended
+}
@@ -0,0 +1,8 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.domain;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TaxRuleRepository extends JpaRepository<TaxRule, Long> {
+}
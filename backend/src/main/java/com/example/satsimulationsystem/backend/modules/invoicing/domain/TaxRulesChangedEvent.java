@@ -0,0 +1,11 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.domain;
+
+import lombok.Value;
+
+/**
+ * Published when a tax rule is created, changed or deleted, so the compiled rule table is rebuilt after the commit.
+ */
+@Value
+public class TaxRulesChangedEvent {
+    Long ruleId;
+}
@@ -0,0 +1,42 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.domain;
+
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One row of an aggregated tax report: totals for a single value of a {@link ReportDimension}.
+ * Instances are built directly by JPQL constructor expressions, so no order entities are loaded.
+ * <p>
+ * For item-level dimensions (MODULE_TYPE, CATEGORY) the amounts are the sums of the matching items
+ * and orderCount is the number of distinct orders containing at least one such item.
+ */
+@Value
+public class TaxSummary {
+    String groupKey;    // Dimension value; null when the attribute is not set on the order/item
+    Long orderCount;
+    Money totalAmount; // Sum of totals including taxes
+    Money totalTaxes;  // Sum of taxes applied
+
+    public TaxSummary(String groupKey, Long orderCount, Money totalAmount, Money totalTaxes) {
+        this.groupKey = groupKey;
+        this.orderCount = orderCount;
+        this.totalAmount = totalAmount;
+        this.totalTaxes = totalTaxes;
+    }
+
+    // JPQL sum() over Money attributes yields the column type, so the query constructors take BigDecimal
+
+    public TaxSummary(String groupKey, Long orderCount, BigDecimal totalAmount, BigDecimal totalTaxes) {
+        this(groupKey, orderCount, Money.of(totalAmount), Money.of(totalTaxes));
+    }
+
+    public TaxSummary(ModuleType moduleType, Long orderCount, BigDecimal totalAmount, BigDecimal totalTaxes) {
+        this(moduleType != null ? moduleType.name() : null, orderCount, totalAmount, totalTaxes);
+    }
+
+    public TaxSummary(LocalDate day, Long orderCount, BigDecimal totalAmount, BigDecimal totalTaxes) {
+        this(day != null ? day.toString() : null, orderCount, totalAmount, totalTaxes);
+    }
+}
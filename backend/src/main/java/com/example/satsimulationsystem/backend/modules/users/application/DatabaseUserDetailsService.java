@@ -0,0 +1,72 @@
+package com.example.satsimulationsystem.backend.modules.users.application;
+
+import com.example.satsimulationsystem.backend.modules.users.domain.User;
+import com.example.satsimulationsystem.backend.modules.users.domain.UserCredentialsChangedEvent;
+import com.example.satsimulationsystem.backend.modules.users.domain.UserRepository;
+import com.example.satsimulationsystem.backend.support.TtlCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Loads API users from the {@code app_users} table, caching the lookup for a short TTL.
+ * <p>
+ * The administrator configured through {@code spring.security.user.*} stays available as a bootstrap
+ * account (needed to create the first module users) as long as no database user has the same name.
+ * A fresh {@link UserDetails} is built on every call, because Spring Security erases the password
+ * of the instance it authenticated.
+ */
+@Service
+public class DatabaseUserDetailsService implements UserDetailsService {
+
+    private final UserRepository userRepository;
+    private final TtlCache<String, User> userCache;
+    private final String bootstrapUsername;
+    private final String bootstrapEncodedPassword;
+    private final List<GrantedAuthority> bootstrapAuthorities;
+
+    @Autowired
+    public DatabaseUserDetailsService(UserRepository userRepository,
+                                      PasswordEncoder passwordEncoder,
+                                      SecurityProperties securityProperties,
+                                      @Value("${app.security.user-cache.ttl-ms:60000}") long cacheTtlMs,
+                                      @Value("${app.security.user-cache.max-entries:10000}") int cacheMaxEntries) {
+        this.userRepository = userRepository;
+        this.userCache = new TtlCache<>(cacheTtlMs, cacheMaxEntries);
+
+        SecurityProperties.User bootstrapUser = securityProperties.getUser();
+        this.bootstrapUsername = bootstrapUser.getName();
+        this.bootstrapEncodedPassword = passwordEncoder.encode(bootstrapUser.getPassword()); // Encoded once, not per request
+        this.bootstrapAuthorities = new ArrayList<>();
+        for (String role : bootstrapUser.getRoles()) {
+            bootstrapAuthorities.addAll(ModuleUserDetails.authoritiesFor(role));
+        }
+    }
+
+    @Override
+    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        User user = userCache.get(username, name -> userRepository.findByUsername(name).orElse(null));
+        if (user != null) {
+            return new ModuleUserDetails(user);
+        }
+        if (username.equals(bootstrapUsername)) {
+            return new ModuleUserDetails(bootstrapUsername, bootstrapEncodedPassword, bootstrapAuthorities);
+        }
+        throw new UsernameNotFoundException("User not found: " + username);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCredentialsChanged(UserCredentialsChangedEvent event) {
+        userCache.invalidate(event.getUsername());
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.satsimulationsystem.backend.modules.users.application;
+
+import com.example.satsimulationsystem.backend.modules.users.domain.User;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Authenticated principal. Carries the {@link User} it was loaded from, so request handlers can use
+ * the placing user directly instead of looking it up again by username.
+ */
+public class ModuleUserDetails extends org.springframework.security.core.userdetails.User {
+
+    private final transient User user; // Null for the configured bootstrap administrator, which has no database row
+
+    public ModuleUserDetails(User user) {
+        super(user.getUsername(), user.getPassword(), authoritiesFor(user.getRole()));
+        this.user = user;
+    }
+
+    ModuleUserDetails(String username, String encodedPassword, Collection<? extends GrantedAuthority> authorities) {
+        super(username, encodedPassword, authorities);
+        this.user = null;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    // Roles are stored without the ROLE_ prefix that hasRole() expects
+    static List<GrantedAuthority> authoritiesFor(String role) {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role));
+    }
+}
@@ -1,8 +1,10 @@
 package com.example.satsimulationsystem.backend.modules.users.application;
 
 import com.example.satsimulationsystem.backend.modules.users.domain.User;
+import com.example.satsimulationsystem.backend.modules.users.domain.UserCredentialsChangedEvent;
 import com.example.satsimulationsystem.backend.modules.users.domain.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -15,11 +17,13 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder; // Will be configured in SecurityConfig
+    private final ApplicationEventPublisher eventPublisher; // Tells the authentication caches to forget changed users
 
     @Autowired
-    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder, ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -70,15 +74,17 @@ public class UserServiceImpl implements UserService {
         if (pharmacyCreds != null) user.setPharmacyServiceCredentials(pharmacyCreds);
         if (insuranceCreds != null) user.setInsuranceServiceCredentials(insuranceCreds);
 
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(new UserCredentialsChangedEvent(savedUser.getUsername()));
+        return savedUser;
     }
 
     @Override
     @Transactional
     public void deleteUser(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new IllegalArgumentException("User not found with id: " + id);
-        }
-        userRepository.deleteById(id);
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("User not found with id: " + id));
+        userRepository.delete(user);
+        eventPublisher.publishEvent(new UserCredentialsChangedEvent(user.getUsername()));
     }
 } 
\ No newline at end of file
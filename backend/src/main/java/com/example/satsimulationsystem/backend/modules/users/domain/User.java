@@ -8,7 +8,8 @@ import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
 @Entity
-@Table(name = "app_users") // "user" is often a reserved keyword in SQL
+@Table(name = "app_users", // "user" is often a reserved keyword in SQL
+       indexes = @Index(name = "ix_app_users_role", columnList = "role")) // Reports by module filter orders by their creator's role
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
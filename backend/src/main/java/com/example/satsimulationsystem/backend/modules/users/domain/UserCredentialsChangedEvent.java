@@ -0,0 +1,12 @@
+package com.example.satsimulationsystem.backend.modules.users.domain;
+
+import lombok.Value;
+
+/**
+ * Published when a user's password or module credentials change, or the user is deleted.
+ * Caches of authenticated users and verified credentials listen to it to drop stale entries.
+ */
+@Value
+public class UserCredentialsChangedEvent {
+    String username;
+}
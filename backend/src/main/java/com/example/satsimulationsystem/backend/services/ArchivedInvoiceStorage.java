@@ -0,0 +1,230 @@
+package com.example.satsimulationsystem.backend.services;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only invoice archive: PDFs are appended to large segment files and located through an off-heap
+ * {@link InvoiceArchiveIndex} (order id → segment, offset, length).
+ * <p>
+ * Millions of invoices live in a few files, which back up as large sequential files and cost no inodes per
+ * invoice. Segment files are kept open, so serving an invoice needs no per-invoice open: downloads are a
+ * byte range of a segment, handed to sendfile or {@link FileChannel#transferTo}.
+ * <p>
+ * Each record is a header (magic, order id, length, CRC-32, stored-at) followed by the PDF. A record is fsynced
+ * before the index points at it; on startup the active segment is scanned, a torn record at its tail is cut
+ * off and records the index missed are indexed again. Re-rendering an order appends a new record and moves
+ * its index entry; the old bytes become unreachable.
+ * <p>
+ * Names look like {@code invoice-42-a3-1048604.pdf} (order 42, segment 3, offset 1048604). Other names are
+ * looked up in the file storage, so invoices stored before the archive was enabled stay downloadable.
+ */
+public class ArchivedInvoiceStorage implements InvoiceStorage, AutoCloseable {
+
+    private static final Pattern ARCHIVE_NAME = Pattern.compile("invoice-(\\d{1,18})-a(\\d{1,9})-(\\d{1,18})\\.pdf");
+    private static final int RECORD_MAGIC = 0x494E5631; // "INV1"
+    private static final int HEADER_SIZE = 28;          // magic 4, order id 8, length 4, crc 4, stored-at 8
+
+    private final Path directory;
+    private final long segmentSize;
+    private final InvoiceStorage previousStorage;
+    private final InvoiceArchiveIndex index;
+    private final Map<Integer, FileChannel> readChannels = new ConcurrentHashMap<>();
+    // Not a monitor: appends fsync while holding it, which would pin a virtual thread to its carrier
+    private final ReentrantLock appendLock = new ReentrantLock();
+
+    // Guarded by appendLock
+    private int activeSegment;
+    private FileChannel activeChannel;
+    private long activeSize;
+
+    /**
+     * @param segmentSize     Size from which a new segment is started; a single invoice may exceed it.
+     * @param previousStorage Where names that are not archive names are looked up.
+     */
+    public ArchivedInvoiceStorage(Path directory, long segmentSize, InvoiceStorage previousStorage) throws IOException {
+        this.directory = directory.toAbsolutePath().normalize();
+        this.segmentSize = segmentSize;
+        this.previousStorage = previousStorage;
+        Files.createDirectories(this.directory);
+        this.index = new InvoiceArchiveIndex(this.directory.resolve("index.dat"));
+        this.activeSegment = Math.max(1, lastSegmentNumber());
+        this.activeChannel = openForAppend(activeSegment);
+        this.activeSize = recover(activeSegment, activeChannel);
+    }
+
+    @Override
+    public String store(Long orderId, InvoiceContent content) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(16 * 1024);
+        content.writeTo(buffer); // Rendered outside the lock; only the append is serialized
+        byte[] pdf = buffer.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(pdf);
+        long storedAt = System.currentTimeMillis();
+
+        appendLock.lock();
+        try {
+            if (activeSize > 0 && activeSize + HEADER_SIZE + pdf.length > segmentSize) {
+                startNextSegment();
+            }
+            long recordOffset = activeSize;
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                    .putInt(RECORD_MAGIC).putLong(orderId).putInt(pdf.length).putInt((int) crc.getValue()).putLong(storedAt)
+                    .flip();
+            try {
+                writeFully(activeChannel, header, recordOffset);
+                writeFully(activeChannel, ByteBuffer.wrap(pdf), recordOffset + HEADER_SIZE);
+                activeChannel.force(false);
+            } catch (IOException e) {
+                activeChannel.truncate(recordOffset); // Do not leave a partial record for the next append to follow
+                throw e;
+            }
+            activeSize = recordOffset + HEADER_SIZE + pdf.length;
+            index.put(orderId, activeSegment, recordOffset + HEADER_SIZE, pdf.length, storedAt);
+            return "invoice-" + orderId + "-a" + activeSegment + "-" + (recordOffset + HEADER_SIZE) + ".pdf";
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @Override
+    public Optional<StoredInvoice> locate(String name) throws IOException {
+        Matcher archiveName = ARCHIVE_NAME.matcher(name);
+        if (!archiveName.matches()) {
+            return previousStorage.locate(name);
+        }
+        InvoiceArchiveIndex.Entry entry = index.get(Long.parseLong(archiveName.group(1)));
+        if (entry == null || entry.getSegment() != Integer.parseInt(archiveName.group(2))
+                || entry.getOffset() != Long.parseLong(archiveName.group(3))) {
+            return Optional.empty(); // Unknown, or superseded by a later rendering of the order
+        }
+        return Optional.of(new StoredInvoice(segmentPath(entry.getSegment()), entry.getOffset(), entry.getLength(),
+                entry.getStoredAt(), readChannel(entry.getSegment())));
+    }
+
+    @Override
+    public void close() throws IOException {
+        appendLock.lock();
+        try {
+            activeChannel.close();
+            for (FileChannel channel : readChannels.values()) {
+                channel.close();
+            }
+            index.close();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    // Caller holds appendLock
+    private void startNextSegment() throws IOException {
+        activeChannel.force(true);
+        activeChannel.close();
+        index.force(); // Recovery only rescans the active segment, so entries of sealed ones must be on disk
+        activeSegment++;
+        activeChannel = openForAppend(activeSegment);
+        activeSize = 0;
+    }
+
+    /**
+     * Indexes the records of the segment the index may have missed and cuts off a torn record at its tail.
+     *
+     * @return The end of the last complete record.
+     */
+    private long recover(int segment, FileChannel channel) throws IOException {
+        long size = channel.size();
+        long position = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        while (position + HEADER_SIZE <= size) {
+            header.clear();
+            readFully(channel, header, position);
+            header.flip();
+            int magic = header.getInt();
+            long orderId = header.getLong();
+            int length = header.getInt();
+            int crc = header.getInt();
+            long storedAt = header.getLong();
+            long dataOffset = position + HEADER_SIZE;
+            if (magic != RECORD_MAGIC || length <= 0 || dataOffset + length > size) {
+                break;
+            }
+            InvoiceArchiveIndex.Entry entry = index.get(orderId);
+            boolean indexed = entry != null && entry.getSegment() == segment && entry.getOffset() == dataOffset;
+            if (!indexed) {
+                ByteBuffer data = ByteBuffer.allocate(length);
+                readFully(channel, data, dataOffset);
+                CRC32 check = new CRC32();
+                check.update(data.flip());
+                if ((int) check.getValue() != crc) {
+                    break;
+                }
+                index.put(orderId, segment, dataOffset, length, storedAt);
+            }
+            position = dataOffset + length;
+        }
+        if (position < size) {
+            System.err.println("Invoice archive segment " + segment + ": discarding " + (size - position)
+                    + " bytes of an incomplete record at offset " + position);
+            channel.truncate(position);
+        }
+        return position;
+    }
+
+    private FileChannel readChannel(int segment) {
+        return readChannels.computeIfAbsent(segment, number -> {
+            try {
+                return FileChannel.open(segmentPath(number), StandardOpenOption.READ);
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot open invoice archive segment " + number, e);
+            }
+        });
+    }
+
+    private FileChannel openForAppend(int segment) throws IOException {
+        return FileChannel.open(segmentPath(segment), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private Path segmentPath(int segment) {
+        return directory.resolve(String.format("segment-%06d.dat", segment));
+    }
+
+    private int lastSegmentNumber() throws IOException {
+        int last = 0;
+        try (DirectoryStream<Path> segments = Files.newDirectoryStream(directory, "segment-*.dat")) {
+            for (Path segment : segments) {
+                String fileName = segment.getFileName().toString();
+                last = Math.max(last, Integer.parseInt(fileName.substring("segment-".length(), fileName.length() - ".dat".length())));
+            }
+        }
+        return last;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of invoice archive segment");
+            }
+            position += read;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.satsimulationsystem.backend.services;
+
+import lombok.Value;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Order id → (segment, offset, length) index of the invoice archive, kept off-heap in a memory-mapped file.
+ * <p>
+ * Entries are fixed-size slots addressed directly by order id, so a lookup is one read from the page cache
+ * and the index costs no heap however many invoices there are. Order ids come from a sequence and are dense;
+ * slots of ids never used are holes in a sparse file. The file is mapped in 1 GiB regions as ids grow.
+ * <p>
+ * Writes must be serialized by the caller; reads may run concurrently with them. Plain accesses to a mapped
+ * buffer can be reordered by the compiler and the CPU, so each slot carries a version, used as a sequence lock:
+ * a writer makes it odd (release fence), writes the fields and makes it even again (release store); a reader
+ * reads it (acquire load), reads the fields and reads it again after an acquire fence, and retries unless both
+ * reads saw the same even version. A reader thus never combines fields of two renderings of the same order.
+ * Callers still check the entry against the name they were given.
+ * <p>
+ * The upper half of a version is the epoch of the index instance that wrote it, chosen at random when the file
+ * is opened. An odd version of another epoch was left by a process that died in the middle of a write: the
+ * entry reads as absent, and the archive's recovery of its active segment (the only one written to) puts it again.
+ */
+final class InvoiceArchiveIndex implements AutoCloseable {
+
+    private static final int ENTRY_SIZE = 32;          // offset 8, segment 4, length 4, stored-at 8, version 8
+    private static final int VERSION = 24;             // Zero in files written before it was used, which reads as stable
+    private static final VarHandle LONG_VIEW = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+    private static final int REGION_SHIFT = 30;        // 1 GiB per mapped region
+    private static final long REGION_SIZE = 1L << REGION_SHIFT;
+    private static final long MAX_ORDER_ID = (Integer.MAX_VALUE * REGION_SIZE) / ENTRY_SIZE - 1;
+
+    private final FileChannel channel;
+    private final int epoch = ThreadLocalRandom.current().nextInt(1, Integer.MAX_VALUE);
+    private volatile MappedByteBuffer[] regions = new MappedByteBuffer[0];
+
+    InvoiceArchiveIndex(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = channel.size();
+        if (size > 0) {
+            region((int) ((size - 1) >>> REGION_SHIFT)); // Existing entries are visible to readers right away
+        }
+    }
+
+    /**
+     * @return The entry of the order, or null if the order has no archived invoice.
+     */
+    Entry get(long orderId) {
+        if (orderId <= 0 || orderId > MAX_ORDER_ID) {
+            return null;
+        }
+        long position = orderId * ENTRY_SIZE;
+        MappedByteBuffer[] mapped = regions;
+        int region = (int) (position >>> REGION_SHIFT);
+        if (region >= mapped.length) {
+            return null; // Beyond every id written so far
+        }
+        MappedByteBuffer buffer = mapped[region];
+        int slot = (int) (position & (REGION_SIZE - 1));
+        while (true) {
+            long version = (long) LONG_VIEW.getAcquire(buffer, slot + VERSION);
+            if ((version & 1) != 0) {
+                if ((int) (version >>> 32) != epoch) {
+                    return null; // Torn by a crash
+                }
+                Thread.onSpinWait(); // Being rewritten
+                continue;
+            }
+            int length = buffer.getInt(slot + 12);
+            int segment = buffer.getInt(slot + 8);
+            long offset = buffer.getLong(slot);
+            long storedAt = buffer.getLong(slot + 16);
+            VarHandle.acquireFence(); // The field reads complete before the version is read again
+            if ((long) LONG_VIEW.getOpaque(buffer, slot + VERSION) == version) {
+                return length == 0 ? null : new Entry(segment, offset, length, storedAt);
+            }
+        }
+    }
+
+    void put(long orderId, int segment, long offset, int length, long storedAt) throws IOException {
+        if (orderId <= 0 || orderId > MAX_ORDER_ID) {
+            throw new IllegalArgumentException("Order id out of range for the invoice archive: " + orderId);
+        }
+        long position = orderId * ENTRY_SIZE;
+        MappedByteBuffer buffer = region((int) (position >>> REGION_SHIFT));
+        int slot = (int) (position & (REGION_SIZE - 1));
+        int writing = ((int) (long) LONG_VIEW.getOpaque(buffer, slot + VERSION) + 1) | 1;
+        LONG_VIEW.setOpaque(buffer, slot + VERSION, version(writing)); // Odd: readers wait or retry
+        VarHandle.releaseFence(); // The odd version is visible before any field changes
+        buffer.putLong(slot, offset);
+        buffer.putInt(slot + 8, segment);
+        buffer.putLong(slot + 16, storedAt);
+        buffer.putInt(slot + 12, length);
+        LONG_VIEW.setRelease(buffer, slot + VERSION, version(writing + 1));
+    }
+
+    private long version(int sequence) {
+        return ((long) epoch << 32) | (sequence & 0xFFFF_FFFFL);
+    }
+
+    /**
+     * Writes changed entries to disk. Entries are in the page cache as soon as they are put, so this only
+     * matters for surviving an operating system crash.
+     */
+    void force() {
+        for (MappedByteBuffer buffer : regions) {
+            buffer.force();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close(); // Mappings stay valid until collected; nothing reads them after close
+    }
+
+    private MappedByteBuffer region(int index) throws IOException {
+        MappedByteBuffer[] mapped = regions;
+        if (index < mapped.length) {
+            return mapped[index];
+        }
+        MappedByteBuffer[] grown = Arrays.copyOf(mapped, index + 1);
+        for (int i = mapped.length; i <= index; i++) {
+            grown[i] = channel.map(FileChannel.MapMode.READ_WRITE, i * REGION_SIZE, REGION_SIZE); // Extends the file sparsely
+        }
+        regions = grown;
+        return grown[index];
+    }
+
+    @Value
+    static class Entry {
+        int segment;
+        long offset;
+        int length;
+        long storedAt;
+    }
+}
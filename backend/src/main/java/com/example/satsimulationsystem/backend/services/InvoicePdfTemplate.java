@@ -0,0 +1,123 @@
+package com.example.satsimulationsystem.backend.services;
+
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.common.PDStream;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Invoice layout and its static parts, compiled once into Flate-compressed content streams.
+ * <p>
+ * The page frame (title, footer rule and caption) and the item table header are identical on every
+ * page of every invoice, so their operators are generated and compressed at startup; each document
+ * only copies the bytes into a Form XObject that its pages draw.
+ */
+final class InvoicePdfTemplate {
+
+    static final COSName PAGE_FRAME_FORM = COSName.getPDFName("Frame");
+    static final COSName TABLE_HEADER_FORM = COSName.getPDFName("TableHeader");
+
+    // Page geometry (US Letter, points)
+    static final PDRectangle PAGE_SIZE = PDRectangle.LETTER;
+    static final float MARGIN = 50f;
+    static final float RIGHT_EDGE = PAGE_SIZE.getWidth() - MARGIN;
+    static final float TITLE_Y = PAGE_SIZE.getHeight() - MARGIN;
+    static final float FOOTER_Y = 28f;
+    static final float FOOTER_FONT_SIZE = 8f;
+    static final float CONTENT_BOTTOM = 60f; // Lowest baseline available to item rows and totals
+
+    // Item table: product is left-aligned, the numeric columns are right-aligned at these x positions
+    static final float PRODUCT_X = MARGIN;
+    static final float PRODUCT_MAX_WIDTH = 250f;
+    static final float QUANTITY_RIGHT = 340f;
+    static final float UNIT_RIGHT = 410f;
+    static final float TAX_RIGHT = 480f;
+    static final float TOTAL_RIGHT = RIGHT_EDGE;
+    static final float TABLE_FONT_SIZE = 10f;
+    static final float TABLE_HEADER_HEIGHT = 16f; // From the header baseline to the first row baseline
+
+    private final byte[] pageFrameContent = compilePageFrame();
+    private final byte[] tableHeaderContent = compileTableHeader();
+
+    /**
+     * Creates the resources shared by all pages of one document: both fonts and both template forms.
+     */
+    PDResources createPageResources(PDDocument document) throws IOException {
+        PDResources formResources = createFontResources(); // Forms get their own dictionary: a form must not list itself
+        PDResources pageResources = createFontResources();
+        pageResources.put(PAGE_FRAME_FORM, createForm(document, formResources, pageFrameContent,
+                new PDRectangle(PAGE_SIZE.getWidth(), PAGE_SIZE.getHeight())));
+        pageResources.put(TABLE_HEADER_FORM, createForm(document, formResources, tableHeaderContent,
+                new PDRectangle(0, -6, PAGE_SIZE.getWidth(), 20)));
+        return pageResources;
+    }
+
+    /**
+     * Wraps already compressed page content in a stream of the document.
+     */
+    static PDStream createContentStream(PDDocument document, byte[] compressedContent) throws IOException {
+        COSStream stream = document.getDocument().createCOSStream();
+        writeCompressed(stream, compressedContent);
+        return new PDStream(stream);
+    }
+
+    private static PDResources createFontResources() {
+        COSDictionary fonts = new COSDictionary();
+        fonts.setItem(StandardFont.HELVETICA.getResourceName(), StandardFont.HELVETICA.createDictionary());
+        fonts.setItem(StandardFont.HELVETICA_BOLD.getResourceName(), StandardFont.HELVETICA_BOLD.createDictionary());
+        COSDictionary resources = new COSDictionary();
+        resources.setItem(COSName.FONT, fonts);
+        return new PDResources(resources);
+    }
+
+    private static PDFormXObject createForm(PDDocument document, PDResources resources, byte[] compressedContent,
+                                            PDRectangle bbox) throws IOException {
+        PDFormXObject form = new PDFormXObject(document);
+        writeCompressed(form.getCOSObject(), compressedContent);
+        form.setBBox(bbox);
+        form.setResources(resources);
+        return form;
+    }
+
+    private static void writeCompressed(COSStream stream, byte[] compressedContent) throws IOException {
+        try (OutputStream out = stream.createRawOutputStream()) {
+            out.write(compressedContent); // Already Flate-encoded: copied as is
+        }
+        stream.setItem(COSName.FILTER, COSName.FLATE_DECODE);
+    }
+
+    private static byte[] compilePageFrame() {
+        PdfContentWriter content = new PdfContentWriter();
+        content.beginText()
+                .setFont(StandardFont.HELVETICA_BOLD, 18f)
+                .showTextAt("SAT Simulation - Invoice", MARGIN, TITLE_Y)
+                .setFont(StandardFont.HELVETICA, FOOTER_FONT_SIZE)
+                .showTextAt("SAT Simulation System", MARGIN, FOOTER_Y)
+                .endText();
+        content.horizontalLine(MARGIN, RIGHT_EDGE, FOOTER_Y + 12, 0.5f);
+        return content.toCompressedBytes();
+    }
+
+    // Baseline at y = 0; pages translate the form to the table position
+    private static byte[] compileTableHeader() {
+        StandardFont bold = StandardFont.HELVETICA_BOLD;
+        PdfContentWriter content = new PdfContentWriter();
+        content.beginText()
+                .setFont(bold, TABLE_FONT_SIZE)
+                .showTextAt("Product/Service", PRODUCT_X, 0)
+                .showTextAt("Qty", QUANTITY_RIGHT - bold.width("Qty", TABLE_FONT_SIZE), 0)
+                .showTextAt("Unit $", UNIT_RIGHT - bold.width("Unit $", TABLE_FONT_SIZE), 0)
+                .showTextAt("Tax $", TAX_RIGHT - bold.width("Tax $", TABLE_FONT_SIZE), 0)
+                .showTextAt("Total $", TOTAL_RIGHT - bold.width("Total $", TABLE_FONT_SIZE), 0)
+                .endText();
+        content.horizontalLine(MARGIN, RIGHT_EDGE, -4, 0.5f);
+        return content.toCompressedBytes();
+    }
+}
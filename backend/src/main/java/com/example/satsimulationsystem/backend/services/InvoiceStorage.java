@@ -0,0 +1,35 @@
+package com.example.satsimulationsystem.backend.services;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Optional;
+
+/**
+ * Durable store for rendered invoice PDFs.
+ * <p>
+ * Stored invoices are addressed by name (the last segment of {@code invoicePdfUrl}) and never change once
+ * written. Implementations decide the physical layout; callers only store content and locate it by name.
+ */
+public interface InvoiceStorage {
+
+    /**
+     * Stores the invoice PDF of an order.
+     *
+     * @param orderId The order the invoice belongs to.
+     * @param content Writes the PDF bytes.
+     * @return The name under which the invoice can be located.
+     * @throws IOException If the content cannot be written; nothing is left visible under any name in that case.
+     */
+    String store(Long orderId, InvoiceContent content) throws IOException;
+
+    /**
+     * @param name A name returned by {@link #store}, or the file name of an invoice stored by an earlier layout.
+     * @return Where the invoice bytes are, or empty if there is no invoice with that name.
+     */
+    Optional<StoredInvoice> locate(String name) throws IOException;
+
+    @FunctionalInterface
+    interface InvoiceContent {
+        void writeTo(OutputStream out) throws IOException;
+    }
+}
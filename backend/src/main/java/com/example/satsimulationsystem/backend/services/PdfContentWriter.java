@@ -0,0 +1,137 @@
+package com.example.satsimulationsystem.backend.services;
+
+import org.apache.pdfbox.cos.COSName;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+/**
+ * Writes PDF content-stream operators straight into a byte buffer.
+ * <p>
+ * Replaces {@code PDPageContentStream} for the invoice: coordinates are written with a fixed two-decimal
+ * formatter, text is encoded through the {@link StandardFont} tables, and text is placed with absolute
+ * text matrices so each cell is independent of the previous one. The result is Flate-compressed once.
+ */
+final class PdfContentWriter {
+
+    private byte[] buffer = new byte[4096];
+    private int length;
+
+    PdfContentWriter beginText() {
+        return ascii("BT\n");
+    }
+
+    PdfContentWriter endText() {
+        return ascii("ET\n");
+    }
+
+    PdfContentWriter setFont(StandardFont font, float fontSize) {
+        name(font.getResourceName()).space().number(fontSize);
+        return ascii(" Tf\n");
+    }
+
+    /**
+     * Shows the text with its origin at (x, y). Must be called inside a text object.
+     */
+    PdfContentWriter showTextAt(String text, float x, float y) {
+        ascii("1 0 0 1 ").number(x).space().number(y).ascii(" Tm (");
+        for (int i = 0; i < text.length(); i++) {
+            int code = StandardFont.encode(text.charAt(i));
+            if (code == '(' || code == ')' || code == '\\') {
+                write('\\');
+                write(code);
+            } else if (code < 32 || code > 126) {
+                // Octal escape keeps the stream 7-bit clean
+                write('\\');
+                write('0' + ((code >> 6) & 7));
+                write('0' + ((code >> 3) & 7));
+                write('0' + (code & 7));
+            } else {
+                write(code);
+            }
+        }
+        return ascii(") Tj\n");
+    }
+
+    /**
+     * Draws a form XObject translated vertically by {@code y}. Must be called outside a text object.
+     */
+    PdfContentWriter drawForm(COSName form, float y) {
+        ascii("q 1 0 0 1 0 ").number(y).ascii(" cm ").name(form);
+        return ascii(" Do Q\n");
+    }
+
+    PdfContentWriter horizontalLine(float x1, float x2, float y, float lineWidth) {
+        number(lineWidth).ascii(" w ").number(x1).space().number(y).ascii(" m ");
+        number(x2).space().number(y);
+        return ascii(" l S\n");
+    }
+
+    /**
+     * @return The content written so far, Flate-compressed.
+     */
+    byte[] toCompressedBytes() {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED); // Content streams are small and repetitive; speed over ratio
+        try {
+            deflater.setInput(buffer, 0, length);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, length / 3));
+            byte[] chunk = new byte[4096];
+            while (!deflater.finished()) {
+                int written = deflater.deflate(chunk);
+                out.write(chunk, 0, written);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private PdfContentWriter name(COSName name) {
+        write('/');
+        return ascii(name.getName());
+    }
+
+    private PdfContentWriter space() {
+        write(' ');
+        return this;
+    }
+
+    // Two decimals, trailing zeros dropped: 50 -> "50", 742.5 -> "742.5", 12.345 -> "12.35"
+    private PdfContentWriter number(float value) {
+        long hundredths = Math.round(Math.abs((double) value) * 100);
+        if (value < 0 && hundredths != 0) {
+            write('-');
+        }
+        ascii(Long.toString(hundredths / 100));
+        int fraction = (int) (hundredths % 100);
+        if (fraction != 0) {
+            write('.');
+            write('0' + fraction / 10);
+            if (fraction % 10 != 0) {
+                write('0' + fraction % 10);
+            }
+        }
+        return this;
+    }
+
+    private PdfContentWriter ascii(String text) {
+        ensureCapacity(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            buffer[length++] = (byte) text.charAt(i);
+        }
+        return this;
+    }
+
+    private void write(int b) {
+        ensureCapacity(1);
+        buffer[length++] = (byte) b;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+        }
+    }
+}
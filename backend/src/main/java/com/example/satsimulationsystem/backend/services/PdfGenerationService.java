@@ -13,4 +13,21 @@ public interface PdfGenerationService {
      * @throws IOException If there is an error during PDF generation or saving.
      */
     String generateInvoicePdf(Order order) throws IOException;
+
+    /**
+     * Renders the PDF invoice for the given order without storing it.
+     *
+     * @param order The order for which to render the invoice.
+     * @return The PDF bytes.
+     * @throws IOException If there is an error during PDF generation.
+     */
+    byte[] renderInvoicePdf(Order order) throws IOException;
+
+    /**
+     * Saves an invoice rendered by {@link #renderInvoicePdf}.
+     *
+     * @return The same kind of path as {@link #generateInvoicePdf}.
+     * @throws IOException If the PDF cannot be saved.
+     */
+    String storeInvoicePdf(Long orderId, byte[] pdf) throws IOException;
 } 
\ No newline at end of file
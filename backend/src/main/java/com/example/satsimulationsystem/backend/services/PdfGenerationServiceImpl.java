@@ -1,109 +1,299 @@
 package com.example.satsimulationsystem.backend.services;
 
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.Money;
 import com.example.satsimulationsystem.backend.modules.invoicing.domain.Order;
 import com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderItem;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSString;
+import org.apache.pdfbox.pdfwriter.compress.CompressParameters;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
-import org.apache.pdfbox.pdmodel.PDPageContentStream;
-import org.apache.pdfbox.pdmodel.font.PDType1Font;
-import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
-import org.springframework.beans.factory.annotation.Value;
+import org.apache.pdfbox.pdmodel.PDResources;
 import org.springframework.stereotype.Service;
 
-import java.io.File;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
+import static com.example.satsimulationsystem.backend.services.InvoicePdfTemplate.*;
+
+/**
+ * Renders invoice PDFs and saves them to the invoice storage.
+ * <p>
+ * Each invoice records {@code invoicing.pdf.stage{stage=render}} and, when stored,
+ * {@code invoicing.pdf.stage{stage=write}}, plus its size in {@code invoicing.pdf.size}.
+ */
 @Service
 public class PdfGenerationServiceImpl implements PdfGenerationService {
 
-    private final String pdfStoragePath;
+    private static final StandardFont NORMAL_FONT = StandardFont.HELVETICA;
+    private static final StandardFont BOLD_FONT = StandardFont.HELVETICA_BOLD;
+    private static final float DETAILS_FONT_SIZE = 12f;
+    private static final float DETAILS_LEADING = 15f;
+    private static final float DETAILS_TOP = TITLE_Y - 30f;
+    private static final float FIRST_TABLE_HEADER_Y = DETAILS_TOP - 4 * DETAILS_LEADING - 30f; // Below the five order detail lines
+    private static final float NEXT_TABLE_HEADER_Y = DETAILS_TOP - 30f; // Below the "continued" line
+    private static final float ROW_LEADING = 13f;
+    private static final float TOTALS_GAP = 8f;
+    private static final float TOTALS_HEIGHT = TOTALS_GAP + DETAILS_LEADING; // Gap plus the second totals line
+    private static final int PRODUCT_MAX_CHARS = 40;
+    private static final String DOWNLOAD_PATH = "/invoices/download/";
 
-    public PdfGenerationServiceImpl(@Value("${app.pdf.storage-path:invoices-pdf}") String pdfStoragePath) {
-        this.pdfStoragePath = pdfStoragePath;
-        // Create the directory if it doesn't exist
-        try {
-            Files.createDirectories(Paths.get(this.pdfStoragePath));
-        } catch (IOException e) {
-            // Handle directory creation failure - log or throw a runtime exception
-            System.err.println("Could not create PDF storage directory: " + e.getMessage());
-            // Depending on policy, you might want to throw a more specific unchecked exception here
-        }
+    private final InvoiceStorage invoiceStorage;
+    private final InvoicePdfTemplate template = new InvoicePdfTemplate(); // Compiled once, reused by every invoice
+    private final Timer renderTimer;
+    private final Timer writeTimer;
+    private final DistributionSummary pdfSize;
+
+    public PdfGenerationServiceImpl(InvoiceStorage invoiceStorage, MeterRegistry registry) {
+        this.invoiceStorage = invoiceStorage;
+        this.renderTimer = Timer.builder("invoicing.pdf.stage").tag("stage", "render").register(registry);
+        this.writeTimer = Timer.builder("invoicing.pdf.stage").tag("stage", "write").register(registry);
+        this.pdfSize = DistributionSummary.builder("invoicing.pdf.size").baseUnit("bytes").register(registry);
     }
 
     @Override
     public String generateInvoicePdf(Order order) throws IOException {
-        String fileName = "invoice-" + order.getId() + "-" + System.currentTimeMillis() + ".pdf";
-        Path filePath = Paths.get(pdfStoragePath, fileName);
+        long started = System.nanoTime();
+        long[] rendering = new long[2]; // Nanos, bytes
+        String fileName = invoiceStorage.store(order.getId(), out -> {
+            long renderStarted = System.nanoTime();
+            ByteCountingOutputStream counting = new ByteCountingOutputStream(out);
+            writeInvoicePdf(order, counting);
+            rendering[0] = System.nanoTime() - renderStarted;
+            rendering[1] = counting.count;
+        });
+        // The PDF is streamed into the storage while it is rendered, so render includes the buffered writes;
+        // write is everything else the storage does (opening, flushing, syncing and publishing the file)
+        renderTimer.record(rendering[0], TimeUnit.NANOSECONDS);
+        writeTimer.record(System.nanoTime() - started - rendering[0], TimeUnit.NANOSECONDS);
+        pdfSize.record(rendering[1]);
+        // Return a relative path or a specific URL part that can be used to construct a download link
+        return DOWNLOAD_PATH + fileName; // This will be part of the URL
+    }
 
+    @Override
+    public byte[] renderInvoicePdf(Order order) throws IOException {
+        long started = System.nanoTime();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 * 1024);
+        writeInvoicePdf(order, out);
+        renderTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        pdfSize.record(out.size());
+        return out.toByteArray();
+    }
+
+    @Override
+    public String storeInvoicePdf(Long orderId, byte[] pdf) throws IOException {
+        long started = System.nanoTime();
+        String fileName = invoiceStorage.store(orderId, out -> out.write(pdf));
+        writeTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return DOWNLOAD_PATH + fileName;
+    }
+
+    private void writeInvoicePdf(Order order, OutputStream out) throws IOException {
         try (PDDocument document = new PDDocument()) {
-            PDPage page = new PDPage();
-            document.addPage(page);
-
-            PDPageContentStream contentStream = new PDPageContentStream(document, page);
-            PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD);
-            PDType1Font normalFont = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
-
-            float margin = 50;
-            float yStart = page.getMediaBox().getHeight() - margin;
-            float yPosition = yStart;
-            float leading = 15f; // Line spacing
-
-            // Title
-            contentStream.setFont(font, 18);
-            contentStream.beginText();
-            contentStream.newLineAtOffset(margin, yPosition);
-            contentStream.showText("SAT Simulation - Invoice");
-            contentStream.endText();
-            yPosition -= leading * 2;
-
-            // Order Details
-            contentStream.setFont(normalFont, 12);
-            yPosition = addTextLine(contentStream, normalFont, "Order ID: " + order.getId(), margin, yPosition, leading);
-            yPosition = addTextLine(contentStream, normalFont, "Order Date: " + order.getOrderDate().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME), margin, yPosition, leading);
-            yPosition = addTextLine(contentStream, normalFont, "Client: " + order.getClientName(), margin, yPosition, leading);
-            yPosition = addTextLine(contentStream, normalFont, "NIT: " + order.getClientNit(), margin, yPosition, leading);
-            yPosition = addTextLine(contentStream, normalFont, "Address: " + order.getClientAddress(), margin, yPosition, leading);
-            yPosition -= leading; // Extra space
-
-            // Items Header
-            yPosition = addTextLine(contentStream, font, String.format("%-40s %10s %10s %10s %10s", "Product/Service", "Qty", "Unit $", "Tax $", "Total $"), margin, yPosition, leading);
-            yPosition -= 5; // Small space after header
-
-            // Items
-            if (order.getItems() != null) {
-                for (OrderItem item : order.getItems()) {
-                    String line = String.format("%-40.40s %10d %10.2f %10.2f %10.2f",
-                            item.getProductNameOrService(),
-                            item.getQuantity(),
-                            item.getItemSubtotal() / item.getQuantity(), // Approx unit price before tax
-                            item.getTaxApplied(),
-                            item.getItemTotal());
-                    yPosition = addTextLine(contentStream, normalFont, line, margin, yPosition, leading);
+            PDResources resources = template.createPageResources(document); // Shared by every page of the invoice
+
+            List<OrderItem> items = order.getItems() != null ? order.getItems() : Collections.emptyList();
+            List<Integer> rowsPerPage = paginate(items.size());
+            int pageCount = rowsPerPage.size();
+            int itemIndex = 0;
+
+            for (int pageIndex = 0; pageIndex < pageCount; pageIndex++) {
+                boolean firstPage = pageIndex == 0;
+                boolean lastPage = pageIndex == pageCount - 1;
+                int rows = rowsPerPage.get(pageIndex);
+                float tableHeaderY = firstPage ? FIRST_TABLE_HEADER_Y : NEXT_TABLE_HEADER_Y;
+
+                PdfContentWriter content = new PdfContentWriter();
+                content.drawForm(PAGE_FRAME_FORM, 0);
+                if (rows > 0) {
+                    content.drawForm(TABLE_HEADER_FORM, tableHeaderY);
                 }
+
+                // All dynamic text of the page goes into one text object; fonts are only switched between blocks
+                content.beginText().setFont(NORMAL_FONT, DETAILS_FONT_SIZE);
+                float y = DETAILS_TOP;
+                if (firstPage) {
+                    y = writeLine(content, "Order ID: " + order.getId(), y);
+                    y = writeLine(content, "Order Date: " + (order.getOrderDate() != null
+                            ? order.getOrderDate().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) : ""), y);
+                    y = writeLine(content, "Client: " + order.getClientName(), y);
+                    y = writeLine(content, "NIT: " + order.getClientNit(), y);
+                    writeLine(content, "Address: " + order.getClientAddress(), y);
+                } else {
+                    writeLine(content, "Order ID: " + order.getId() + " (continued)", y);
+                }
+
+                y = tableHeaderY - TABLE_HEADER_HEIGHT;
+                if (rows > 0) {
+                    content.setFont(NORMAL_FONT, TABLE_FONT_SIZE);
+                    for (int row = 0; row < rows; row++) {
+                        writeItemRow(content, items.get(itemIndex++), y);
+                        y -= ROW_LEADING;
+                    }
+                }
+
+                if (lastPage) {
+                    if (rows == 0 && !firstPage) {
+                        y = NEXT_TABLE_HEADER_Y + ROW_LEADING; // Totals-only page: start right below the "continued" line
+                    }
+                    y -= TOTALS_GAP;
+                    content.setFont(BOLD_FONT, DETAILS_FONT_SIZE);
+                    y = writeLabelAndAmount(content, "Total Taxes:", order.getTotalTaxes(), y);
+                    writeLabelAndAmount(content, "Total Amount:", order.getTotalAmount(), y);
+                }
+
+                String pageLabel = "Page " + (pageIndex + 1) + " of " + pageCount;
+                content.setFont(NORMAL_FONT, FOOTER_FONT_SIZE)
+                        .showTextAt(pageLabel, RIGHT_EDGE - NORMAL_FONT.width(pageLabel, FOOTER_FONT_SIZE), FOOTER_Y)
+                        .endText();
+
+                PDPage page = new PDPage(PAGE_SIZE);
+                page.setResources(resources);
+                page.setContents(InvoicePdfTemplate.createContentStream(document, content.toCompressedBytes()));
+                document.addPage(page);
             }
-            yPosition -= leading; // Extra space
 
-            // Totals
-            yPosition = addTextLine(contentStream, font, String.format("%-60s %10.2f", "Total Taxes:", order.getTotalTaxes()), margin, yPosition, leading);
-            yPosition = addTextLine(contentStream, font, String.format("%-60s %10.2f", "Total Amount:", order.getTotalAmount()), margin, yPosition, leading);
+            setFileId(document, order.getId());
+            // Content streams are already compressed; skipping object-stream packing saves a second pass over the document
+            document.save(out, CompressParameters.NO_COMPRESSION);
+        }
+    }
 
-            contentStream.close();
-            document.save(filePath.toFile());
+    /**
+     * Sets the trailer's file identifier from the order id. PDFBox otherwise derives it from the current time,
+     * so two renderings of the same order would differ in these bytes only; with it, rendering is
+     * deterministic and a re-rendered invoice (after a cache eviction, or on another instance) matches the
+     * bytes a client already has part of.
+     */
+    private static void setFileId(PDDocument document, Long orderId) {
+        if (orderId == null) {
+            return;
         }
-        // Return a relative path or a specific URL part that can be used to construct a download link
-        return "/invoices/download/" + fileName; // This will be part of the URL
+        byte[] id;
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(("invoice:" + orderId).getBytes(StandardCharsets.US_ASCII));
+            id = Arrays.copyOf(digest, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // Every JRE has SHA-256
+        }
+        COSArray fileId = new COSArray();
+        fileId.add(new COSString(id)); // Permanent identifier
+        fileId.add(new COSString(id)); // Changing identifier: the same, as invoices are never modified
+        document.getDocument().getTrailer().setItem(COSName.ID, fileId);
     }
 
-    private float addTextLine(PDPageContentStream contentStream, PDType1Font font, String text, float x, float y, float leading) throws IOException {
-        contentStream.setFont(font, 12);
-        contentStream.beginText();
-        contentStream.newLineAtOffset(x, y);
-        contentStream.showText(text);
-        contentStream.endText();
-        return y - leading;
+    /**
+     * Splits the item rows over pages. The last entry is 0 when the totals do not fit below the last
+     * item row and need a page of their own. There is always at least one page.
+     */
+    static List<Integer> paginate(int itemCount) {
+        List<Integer> rowsPerPage = new ArrayList<>();
+        int remaining = itemCount;
+        float tableHeaderY = FIRST_TABLE_HEADER_Y;
+        float nextRowY;
+        do {
+            int rows = Math.min(remaining, rowCapacity(tableHeaderY));
+            rowsPerPage.add(rows);
+            remaining -= rows;
+            nextRowY = tableHeaderY - TABLE_HEADER_HEIGHT - rows * ROW_LEADING;
+            tableHeaderY = NEXT_TABLE_HEADER_Y;
+        } while (remaining > 0);
+
+        if (nextRowY - TOTALS_HEIGHT < CONTENT_BOTTOM) {
+            rowsPerPage.add(0);
+        }
+        return rowsPerPage;
+    }
+
+    private static int rowCapacity(float tableHeaderY) {
+        return (int) ((tableHeaderY - TABLE_HEADER_HEIGHT - CONTENT_BOTTOM) / ROW_LEADING) + 1;
+    }
+
+    private float writeLine(PdfContentWriter content, String text, float y) {
+        content.showTextAt(text, MARGIN, y);
+        return y - DETAILS_LEADING;
+    }
+
+    private float writeLabelAndAmount(PdfContentWriter content, String label, Money amount, float y) {
+        content.showTextAt(label, MARGIN, y);
+        showRightAligned(content, BOLD_FONT, DETAILS_FONT_SIZE, formatAmount(amount), RIGHT_EDGE, y);
+        return y - DETAILS_LEADING;
+    }
+
+    private void writeItemRow(PdfContentWriter content, OrderItem item, float y) {
+        String productName = fitProductName(item.getProductNameOrService());
+        if (!productName.isEmpty()) {
+            content.showTextAt(productName, PRODUCT_X, y);
+        }
+        Integer quantity = item.getQuantity();
+        showRightAligned(content, NORMAL_FONT, TABLE_FONT_SIZE,
+                quantity != null ? Integer.toString(quantity) : "", QUANTITY_RIGHT, y);
+        showRightAligned(content, NORMAL_FONT, TABLE_FONT_SIZE, formatAmount(item.getUnitCost()), UNIT_RIGHT, y); // Unit price before tax
+        showRightAligned(content, NORMAL_FONT, TABLE_FONT_SIZE, formatAmount(item.getTaxApplied()), TAX_RIGHT, y);
+        showRightAligned(content, NORMAL_FONT, TABLE_FONT_SIZE, formatAmount(item.getItemTotal()), TOTAL_RIGHT, y);
+    }
+
+    private void showRightAligned(PdfContentWriter content, StandardFont font, float fontSize, String text, float right, float y) {
+        if (!text.isEmpty()) {
+            content.showTextAt(text, right - font.width(text, fontSize), y);
+        }
+    }
+
+    // At most 40 characters, cut further if the glyphs are still wider than the column
+    private String fitProductName(String name) {
+        if (name == null) {
+            return "";
+        }
+        int end = Math.min(name.length(), PRODUCT_MAX_CHARS);
+        float width = 0;
+        for (int i = 0; i < end; i++) {
+            width += NORMAL_FONT.width(name.charAt(i), TABLE_FONT_SIZE);
+            if (width > PRODUCT_MAX_WIDTH) {
+                end = i;
+                break;
+            }
+        }
+        return end == name.length() ? name : name.substring(0, end);
+    }
+
+    // Exactly two decimals, without String.format or locale lookups
+    static String formatAmount(Money value) {
+        return value != null ? value.toString() : "";
+    }
+
+    private static final class ByteCountingOutputStream extends FilterOutputStream {
+        long count;
+
+        ByteCountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len); // FilterOutputStream would write byte by byte
+            count += len;
+        }
     }
-} 
\ No newline at end of file
+}
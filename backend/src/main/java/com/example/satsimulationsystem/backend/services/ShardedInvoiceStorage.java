@@ -0,0 +1,128 @@
+package com.example.satsimulationsystem.backend.services;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed invoice storage on the local filesystem.
+ * <p>
+ * A PDF is stored once under its SHA-256, in two levels of hash-sharded directories
+ * ({@code <root>/3f/a1/3fa1...e9.pdf}), so each directory holds about 1/65536 of the invoices and locating
+ * an invoice is a direct path lookup. Content is first written and fsynced to {@code <root>/.tmp} and then
+ * renamed into place, so a crash never leaves a partial PDF under a valid name, and content that is already
+ * stored (e.g. an invoice re-rendered after a retry) is not written twice.
+ * <p>
+ * Names look like {@code invoice-42-<sha256>.pdf}; only the hash locates the file, the order id keeps download
+ * names readable. Files from the earlier flat layout ({@code <root>/invoice-42-1700000000000.pdf}) are still
+ * found under their old names.
+ */
+public class ShardedInvoiceStorage implements InvoiceStorage {
+
+    private static final Pattern CONTENT_NAME = Pattern.compile("(?:[A-Za-z0-9_-]{1,100}-)?([0-9a-f]{64})\\.pdf");
+    private static final Pattern LEGACY_NAME = Pattern.compile("[A-Za-z0-9_-]{1,200}\\.pdf");
+    private static final String TEMP_DIRECTORY = ".tmp";
+    private static final long STALE_TEMP_FILE_MILLIS = TimeUnit.HOURS.toMillis(1); // Older temp files are crash leftovers
+
+    private final Path root;
+    private final Path tempDirectory;
+
+    public ShardedInvoiceStorage(String storagePath) {
+        this.root = Paths.get(storagePath).toAbsolutePath().normalize();
+        this.tempDirectory = root.resolve(TEMP_DIRECTORY);
+        try {
+            Files.createDirectories(tempDirectory);
+            deleteStaleTempFiles();
+        } catch (IOException e) {
+            System.err.println("Could not prepare PDF storage directory " + root + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public String store(Long orderId, InvoiceContent content) throws IOException {
+        String label = "invoice-" + orderId;
+        Files.createDirectories(tempDirectory);
+        Path tempFile = Files.createTempFile(tempDirectory, label + "-", ".pdf");
+        try {
+            MessageDigest digest = sha256();
+            try (OutputStream out = new DigestOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)), digest)) {
+                content.writeTo(out); // May close the stream itself
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = pathOf(hash);
+            if (Files.exists(target)) {
+                return label + "-" + hash + ".pdf"; // Already stored; keep the existing file (and its ETag)
+            }
+            try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+                channel.force(true); // Durable before it becomes visible under its final name
+            }
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // Stored concurrently with the same content
+            }
+            return label + "-" + hash + ".pdf";
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    @Override
+    public Optional<StoredInvoice> locate(String name) throws IOException {
+        Matcher contentName = CONTENT_NAME.matcher(name);
+        Path file;
+        if (contentName.matches()) {
+            file = pathOf(contentName.group(1));
+        } else if (LEGACY_NAME.matcher(name).matches()) {
+            file = root.resolve(name); // The pattern admits no separators, so this stays inside the root
+        } else {
+            return Optional.empty();
+        }
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        return Optional.of(new StoredInvoice(file, 0, attributes.size(), attributes.lastModifiedTime().toMillis(), null));
+    }
+
+    private Path pathOf(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash + ".pdf");
+    }
+
+    private void deleteStaleTempFiles() throws IOException {
+        long cutoff = System.currentTimeMillis() - STALE_TEMP_FILE_MILLIS;
+        try (DirectoryStream<Path> tempFiles = Files.newDirectoryStream(tempDirectory)) {
+            for (Path tempFile : tempFiles) {
+                if (Files.getLastModifiedTime(tempFile).toMillis() < cutoff) {
+                    Files.deleteIfExists(tempFile);
+                }
+            }
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e); // Every Java platform must provide it
+        }
+    }
+}
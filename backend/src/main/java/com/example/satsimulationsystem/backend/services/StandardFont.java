@@ -0,0 +1,95 @@
+package com.example.satsimulationsystem.backend.services;
+
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.apache.pdfbox.pdmodel.font.encoding.GlyphList;
+import org.apache.pdfbox.pdmodel.font.encoding.WinAnsiEncoding;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * A Standard 14 font used with WinAnsiEncoding, with its encoding and glyph widths precomputed into arrays.
+ * <p>
+ * Standard 14 fonts are never embedded, so a document only needs a four-entry font dictionary; measuring
+ * and encoding text is then a table lookup per character instead of a trip through PDFBox's font objects.
+ * Characters WinAnsi cannot represent are written as '?'.
+ */
+final class StandardFont {
+
+    static final StandardFont HELVETICA = new StandardFont(Standard14Fonts.FontName.HELVETICA, "F1");
+    static final StandardFont HELVETICA_BOLD = new StandardFont(Standard14Fonts.FontName.HELVETICA_BOLD, "F2");
+
+    private static final byte[] WIN_ANSI_CODES = buildEncodingTable(); // UTF-16 char -> WinAnsi code, 0 if unmapped
+    private static final int REPLACEMENT_CODE = '?';
+
+    private final String baseFont;
+    private final COSName resourceName;
+    private final float[] widths = new float[256]; // Advance width per code, in 1/1000 em
+
+    private StandardFont(Standard14Fonts.FontName fontName, String resourceName) {
+        this.baseFont = fontName.getName();
+        this.resourceName = COSName.getPDFName(resourceName);
+        PDType1Font metrics = new PDType1Font(fontName); // Startup only
+        try {
+            for (int code = 0; code < widths.length; code++) {
+                widths[code] = metrics.getWidth(code);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read metrics of " + baseFont, e);
+        }
+    }
+
+    /**
+     * Name under which the font is registered in the resources of every invoice page and template form.
+     */
+    COSName getResourceName() {
+        return resourceName;
+    }
+
+    /**
+     * @return The WinAnsi code of the character, or the code of '?' if it cannot be encoded.
+     */
+    static int encode(char c) {
+        int code = WIN_ANSI_CODES[c] & 0xFF;
+        return code != 0 ? code : REPLACEMENT_CODE;
+    }
+
+    float width(String text, float fontSize) {
+        float units = 0;
+        for (int i = 0; i < text.length(); i++) {
+            units += widths[encode(text.charAt(i))];
+        }
+        return units / 1000f * fontSize;
+    }
+
+    float width(char c, float fontSize) {
+        return widths[encode(c)] / 1000f * fontSize;
+    }
+
+    /**
+     * Creates the font dictionary for one document.
+     */
+    COSDictionary createDictionary() {
+        COSDictionary font = new COSDictionary();
+        font.setItem(COSName.TYPE, COSName.FONT);
+        font.setItem(COSName.SUBTYPE, COSName.TYPE1);
+        font.setName(COSName.BASE_FONT, baseFont);
+        font.setItem(COSName.ENCODING, COSName.WIN_ANSI_ENCODING);
+        return font;
+    }
+
+    private static byte[] buildEncodingTable() {
+        byte[] table = new byte[Character.MAX_VALUE + 1];
+        GlyphList glyphList = GlyphList.getAdobeGlyphList();
+        for (Map.Entry<Integer, String> entry : WinAnsiEncoding.INSTANCE.getCodeToNameMap().entrySet()) {
+            String unicode = glyphList.toUnicode(entry.getValue());
+            if (unicode != null && unicode.length() == 1 && table[unicode.charAt(0)] == 0) {
+                table[unicode.charAt(0)] = (byte) entry.getKey().intValue();
+            }
+        }
+        return table;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.satsimulationsystem.backend.services;
+
+import lombok.Value;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+/**
+ * Location of a stored invoice PDF: a byte range of a file, which may hold other invoices as well.
+ */
+@Value
+public class StoredInvoice {
+    Path file;
+    long offset;                // Position of the first PDF byte in the file
+    long length;
+    long lastModified;          // Epoch millis; the content never changes afterwards
+    FileChannel sharedChannel;  // Open read channel to the file owned by the storage (do not close), or null
+}
@@ -0,0 +1,20 @@
+package com.example.satsimulationsystem.backend.support;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a read-only transactional method whose queries may be served by the read replica
+ * ({@code app.datasource.replica.url}) instead of the primary database.
+ * <p>
+ * Only for reads that tolerate replication lag, such as reports: an order committed a moment ago may not be
+ * visible yet. Without a configured replica, or inside a transaction that is not read-only, the primary is used.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReadFromReplica {
+}
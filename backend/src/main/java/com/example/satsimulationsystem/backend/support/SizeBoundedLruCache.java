@@ -0,0 +1,82 @@
+package com.example.satsimulationsystem.backend.support;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * Thread-safe least-recently-used cache bounded by the total weight (e.g. bytes) of its values.
+ * <p>
+ * Putting a value evicts the least recently read or written entries until the total fits again. Evicted
+ * entries, and values heavier than the whole budget (which are never cached), are handed to the eviction
+ * listener after the cache lock is released, so the listener may do slow work such as writing them to disk.
+ */
+public class SizeBoundedLruCache<K, V> {
+
+    private final LinkedHashMap<K, V> entries = new LinkedHashMap<>(16, 0.75f, true); // Access order, eldest first
+    private final ToLongFunction<V> weigher;
+    private final long maxWeight;
+    private final BiConsumer<K, V> evictionListener;
+    private long weight; // Guarded by entries
+
+    public SizeBoundedLruCache(long maxWeight, ToLongFunction<V> weigher, BiConsumer<K, V> evictionListener) {
+        if (maxWeight <= 0) {
+            throw new IllegalArgumentException("The cache size limit must be positive.");
+        }
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+        this.evictionListener = evictionListener;
+    }
+
+    /**
+     * @return The cached value, or null if absent. A hit makes the entry the most recently used.
+     */
+    public V get(K key) {
+        synchronized (entries) {
+            return entries.get(key);
+        }
+    }
+
+    public void put(K key, V value) {
+        long valueWeight = weigher.applyAsLong(value);
+        List<Map.Entry<K, V>> evicted = new ArrayList<>();
+        synchronized (entries) {
+            V previous = entries.remove(key);
+            if (previous != null) {
+                weight -= weigher.applyAsLong(previous);
+            }
+            if (valueWeight > maxWeight) {
+                evicted.add(Map.entry(key, value));
+            } else {
+                Iterator<Map.Entry<K, V>> eldest = entries.entrySet().iterator();
+                while (weight + valueWeight > maxWeight && eldest.hasNext()) {
+                    Map.Entry<K, V> entry = eldest.next();
+                    eldest.remove();
+                    weight -= weigher.applyAsLong(entry.getValue());
+                    evicted.add(Map.entry(entry.getKey(), entry.getValue()));
+                }
+                entries.put(key, value);
+                weight += valueWeight;
+            }
+        }
+        for (Map.Entry<K, V> entry : evicted) {
+            evictionListener.accept(entry.getKey(), entry.getValue());
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long weight() {
+        synchronized (entries) {
+            return weight;
+        }
+    }
+}
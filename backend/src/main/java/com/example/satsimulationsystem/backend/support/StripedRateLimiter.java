@@ -0,0 +1,168 @@
+package com.example.satsimulationsystem.backend.support;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory token buckets with a concurrency cap, one per key (e.g. per user).
+ * <p>
+ * A key is admitted while it has fewer than {@link Limit#maxConcurrent()} calls in progress and a token left;
+ * tokens refill continuously at {@link Limit#permitsPerSecond()} up to {@link Limit#burst()}. Keys are spread
+ * over lock stripes, so callers with different keys rarely contend, and the state of a key is only touched
+ * under its stripe's lock. Every admitted call must be paired with {@link #release(String)}.
+ * <p>
+ * State is kept per key for the lifetime of the limiter; it is meant for a bounded key space such as the
+ * application's users, not for arbitrary client input.
+ */
+public class StripedRateLimiter {
+
+    private static final int STRIPES = 64; // Power of two
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final LongSupplier nanoClock;
+
+    public StripedRateLimiter() {
+        this(System::nanoTime);
+    }
+
+    StripedRateLimiter(LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * @return null if the call is admitted, otherwise why it was not and when to retry.
+     */
+    public Rejection tryAcquire(String key, Limit limit) {
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            // Read under the lock, so refilledAt only moves forward
+            long now = nanoClock.getAsLong();
+            State state = stripe.states.computeIfAbsent(key, k -> new State(limit.burst(), now));
+            if (limit.maxConcurrent() > 0 && state.inFlight >= limit.maxConcurrent()) {
+                return new Rejection(Reason.CONCURRENCY, TimeUnit.SECONDS.toNanos(1));
+            }
+            if (limit.permitsPerSecond() > 0) {
+                double elapsedSeconds = Math.max(0, now - state.refilledAt) / 1e9;
+                state.tokens = Math.min(limit.burst(), state.tokens + elapsedSeconds * limit.permitsPerSecond());
+                state.refilledAt = now;
+                if (state.tokens < 1) {
+                    long waitNanos = (long) Math.ceil((1 - state.tokens) / limit.permitsPerSecond() * 1e9);
+                    return new Rejection(Reason.RATE, waitNanos);
+                }
+                state.tokens -= 1;
+            }
+            state.inFlight++;
+            return null;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Ends a call admitted by {@link #tryAcquire(String, Limit)}.
+     */
+    public void release(String key) {
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            State state = stripe.states.get(key);
+            if (state != null && state.inFlight > 0) {
+                state.inFlight--;
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * @return Calls of the key currently admitted and not yet released.
+     */
+    public int inFlight(String key) {
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            State state = stripe.states.get(key);
+            return state != null ? state.inFlight : 0;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private Stripe stripeFor(String key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+
+    public static final class Limit {
+        private final double permitsPerSecond;
+        private final int burst;
+        private final int maxConcurrent;
+
+        /**
+         * @param permitsPerSecond Sustained rate; 0 or less for no rate limit.
+         * @param burst            Calls that may be made at once after an idle period (bucket size, at least 1).
+         * @param maxConcurrent    Calls in progress at the same time; 0 or less for no limit.
+         */
+        public Limit(double permitsPerSecond, int burst, int maxConcurrent) {
+            this.permitsPerSecond = permitsPerSecond;
+            this.burst = Math.max(1, burst);
+            this.maxConcurrent = maxConcurrent;
+        }
+
+        public double permitsPerSecond() {
+            return permitsPerSecond;
+        }
+
+        public int burst() {
+            return burst;
+        }
+
+        public int maxConcurrent() {
+            return maxConcurrent;
+        }
+    }
+
+    public enum Reason { RATE, CONCURRENCY }
+
+    public static final class Rejection {
+        private final Reason reason;
+        private final long retryAfterNanos;
+
+        Rejection(Reason reason, long retryAfterNanos) {
+            this.reason = reason;
+            this.retryAfterNanos = retryAfterNanos;
+        }
+
+        public Reason reason() {
+            return reason;
+        }
+
+        // Whole seconds, rounded up, as in a Retry-After header
+        public long retryAfterSeconds() {
+            return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(retryAfterNanos + 999_999_999L));
+        }
+    }
+
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        final Map<String, State> states = new HashMap<>();
+    }
+
+    private static final class State {
+        double tokens;
+        long refilledAt;
+        int inFlight;
+
+        State(double tokens, long refilledAt) {
+            this.tokens = tokens;
+            this.refilledAt = refilledAt;
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Small infrastructure helpers shared by several modules, such as in-memory caches.
+ */
+package com.example.satsimulationsystem.backend.support;
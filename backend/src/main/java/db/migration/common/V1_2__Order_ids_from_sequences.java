@@ -0,0 +1,45 @@
+package db.migration.common;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Moves order and item ids from IDENTITY columns to the sequences the entities use, so Hibernate can
+ * pre-allocate ids and batch inserts.
+ * <p>
+ * Each sequence starts 50 (its increment) past the highest id in use: Hibernate's pooled optimizer hands out
+ * the block below the value it fetches, so the first new id is one past the existing ones. A Java migration
+ * because plain SQL cannot start a sequence at a queried value portably.
+ */
+public class V1_2__Order_ids_from_sequences extends BaseJavaMigration {
+
+    private static final int ALLOCATION_SIZE = 50; // Matches @SequenceGenerator(allocationSize) of Order and OrderItem
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        boolean oracle = connection.getMetaData().getDatabaseProductName().toLowerCase().contains("oracle");
+        try (Statement statement = connection.createStatement()) {
+            for (String table : new String[] {"orders", "order_items"}) {
+                // Oracle: "modify id drop identity"; the standard form elsewhere (also H2 in Oracle mode)
+                statement.execute(oracle
+                        ? "alter table " + table + " modify id drop identity"
+                        : "alter table " + table + " alter column id drop identity");
+                long start = maxId(statement, table) + ALLOCATION_SIZE;
+                statement.execute("create sequence " + table + "_seq start with " + start + " increment by " + ALLOCATION_SIZE);
+            }
+        }
+    }
+
+    private static long maxId(Statement statement, String table) throws SQLException {
+        try (ResultSet result = statement.executeQuery("select coalesce(max(id), 0) from " + table)) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+-- Brings the baseline schema up to the entities: asynchronous PDF status on orders, amounts in exact cents,
+-- mandatory item-to-order links, and the tables of the tax rules, daily rollups and idempotency keys.
+-- Order and item ids move from IDENTITY to sequences in V1_2 (a Java migration, as the sequences start
+-- past the ids already used).
+
+alter table orders add (
+    invoice_pdf_status varchar2(255 char) check (invoice_pdf_status in ('PENDING','GENERATED','FAILED')),
+    invoice_pdf_attempts number(10,0)
+);
+
+-- Amounts were binary floating point; they become number(19,2), rounded half up to the cent like Money.
+-- Narrowing a column requires it to be empty, so each amount is copied into a new column that replaces it.
+alter table orders add (total_amount_cents number(19,2), total_taxes_cents number(19,2));
+update orders set total_amount_cents = round(total_amount, 2), total_taxes_cents = round(total_taxes, 2);
+alter table orders drop (total_amount, total_taxes);
+alter table orders rename column total_amount_cents to total_amount;
+alter table orders rename column total_taxes_cents to total_taxes;
+
+alter table order_items add (
+    unit_cost_cents number(19,2),
+    item_subtotal_cents number(19,2),
+    tax_applied_cents number(19,2),
+    item_total_cents number(19,2)
+);
+update order_items set unit_cost_cents = round(unit_cost, 2), item_subtotal_cents = round(item_subtotal, 2),
+    tax_applied_cents = round(tax_applied, 2), item_total_cents = round(item_total, 2);
+alter table order_items drop (unit_cost, item_subtotal, tax_applied, item_total);
+alter table order_items rename column unit_cost_cents to unit_cost;
+alter table order_items rename column item_subtotal_cents to item_subtotal;
+alter table order_items rename column tax_applied_cents to tax_applied;
+alter table order_items rename column item_total_cents to item_total;
+alter table order_items modify (unit_cost not null);
+alter table order_items modify (item_subtotal not null);
+alter table order_items modify (tax_applied not null);
+alter table order_items modify (item_total not null);
+
+-- Items are inserted with their order id now. Items without an order were unreachable through every API.
+delete from order_items where order_id is null;
+alter table order_items modify (order_id not null);
+
+create sequence daily_tax_rollups_seq start with 1 increment by 50;
+create sequence tax_rules_seq start with 1 increment by 1;
+create sequence order_idempotency_keys_seq start with 1 increment by 50;
+
+create table tax_rules (
+    id number(19,0) not null,
+    module_type varchar2(20 char) not null check (module_type in ('PHARMACY','INSURANCE','HOSPITAL')),
+    category varchar2(255 char),
+    provider_name varchar2(255 char),
+    rate_percent number(5,2) not null,
+    effective_from date not null,
+    effective_to date,
+    primary key (id)
+);
+
+create table daily_tax_rollups (
+    id number(19,0) not null,
+    rollup_date date not null,
+    dimension varchar2(20 char) not null check (dimension in ('NIT','MODULE','MODULE_TYPE','PROVIDER','CATEGORY','DAY')),
+    dimension_value varchar2(255 char) not null,
+    order_count number(19,0) not null,
+    total_amount number(19,2) not null,
+    total_taxes number(19,2) not null,
+    primary key (id),
+    constraint uk_daily_tax_rollups_key unique (rollup_date, dimension, dimension_value)
+);
+
+create table order_idempotency_keys (
+    id number(19,0) not null,
+    user_id number(19,0) not null,
+    idempotency_key varchar2(255 char) not null,
+    request_hash varchar2(64 char) not null,
+    order_id number(19,0) not null,
+    created_at timestamp(6) not null,
+    primary key (id),
+    constraint uk_order_idempotency_keys_key unique (user_id, idempotency_key)
+);
+
+create index ix_order_idempotency_keys_created on order_idempotency_keys (created_at);
@@ -0,0 +1,48 @@
+-- Schema as created by spring.jpa.hibernate.ddl-auto=update before the schema moved to migrations:
+-- IDENTITY ids, floating-point amounts, and only the users, orders and order items tables.
+-- Databases created that way are baselined at this version (spring.flyway.baseline-on-migrate) and receive
+-- every later migration; empty schemas are created by this script and follow the same path.
+-- Constraint names are the ones Hibernate generated, so both kinds of database end up identical.
+
+create table app_users (
+    id number(19,0) generated always as identity,
+    username varchar2(50 char) not null unique,
+    password varchar2(120 char) not null,
+    role varchar2(50 char) not null,
+    hospital_service_credentials varchar2(255 char),
+    pharmacy_service_credentials varchar2(255 char),
+    insurance_service_credentials varchar2(255 char),
+    is_admin_creator number(1,0) not null check (is_admin_creator in (0,1)),
+    primary key (id)
+);
+
+create table orders (
+    id number(19,0) generated always as identity,
+    client_name varchar2(255 char),
+    client_nit varchar2(255 char),
+    client_address varchar2(255 char),
+    provider_name varchar2(255 char),
+    total_amount float(53),
+    total_taxes float(53),
+    invoice_pdf_url varchar2(255 char),
+    order_date timestamp(6),
+    user_id number(19,0),
+    primary key (id)
+);
+
+create table order_items (
+    id number(19,0) generated always as identity,
+    order_id number(19,0),
+    product_name_or_service varchar2(255 char),
+    unit_cost float(53) not null,
+    quantity number(10,0) not null,
+    module_type varchar2(255 char) not null check (module_type in ('PHARMACY','INSURANCE','HOSPITAL')),
+    category varchar2(255 char),
+    item_subtotal float(53) not null,
+    tax_applied float(53) not null,
+    item_total float(53) not null,
+    primary key (id)
+);
+
+alter table order_items add constraint FKbioxgbv59vetrxe0ejfubep1w foreign key (order_id) references orders;
+alter table orders add constraint FKrg873cdvpd23vrtmqygifcdwa foreign key (user_id) references app_users;
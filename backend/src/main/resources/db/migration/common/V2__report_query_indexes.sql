@@ -0,0 +1,26 @@
+-- Indexes for the report finders and the other order access paths.
+-- Oracle does not index foreign keys by itself, so the two join columns get one as well.
+
+-- Reports by NIT: findByClientNit[AndOrderDateBetween] and the by-nit page/stream queries
+create index ix_orders_client_nit_date on orders (client_nit, order_date);
+
+-- Reports by provider: findByProviderName[AndOrderDateBetween] and the by-provider page/stream queries
+create index ix_orders_provider_date on orders (provider_name, order_date);
+
+-- Reports by module: the role is resolved in app_users, then orders are reached through their creator.
+-- Also the foreign key index of orders.user_id.
+create index ix_app_users_role on app_users (role);
+create index ix_orders_user_date on orders (user_id, order_date);
+
+-- General report and the tax summaries: date range over all orders
+create index ix_orders_order_date on orders (order_date);
+
+-- PDF worker sweep: ids of PENDING orders in id order
+create index ix_orders_pdf_status_id on orders (invoice_pdf_status, id);
+
+-- Reports by item category: "exists (select 1 from order_items where order_id = o.id and category = ?)"
+-- is answered from the index alone, in either direction
+create index ix_order_items_category_order on order_items (category, order_id);
+
+-- Loading an order's items, and the foreign key index of order_items.order_id
+create index ix_order_items_order on order_items (order_id);
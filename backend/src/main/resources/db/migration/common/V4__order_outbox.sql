@@ -0,0 +1,13 @@
+-- Transactional outbox of order events. Rows are inserted in the transaction that creates the order and
+-- deleted by OrderOutboxRelay once every sink has received them, so the table only holds the unpublished tail.
+
+create sequence order_outbox_seq start with 1 increment by 50;
+
+create table order_outbox (
+    id number(19,0) not null,
+    event_type varchar2(50 char) not null,
+    order_id number(19,0) not null,
+    payload varchar2(4000 char) not null,
+    created_at timestamp(6) not null,
+    primary key (id)
+);
@@ -0,0 +1,5 @@
+-- Rollup rows of unspecified dimension values were stored as '(none)', which a real provider, NIT or category
+-- could also be. They are now stored as a single space: blank, so no specified value can take the same key.
+-- Days that may hold a real '(none)' value are only exact again after they are rebuilt from the orders.
+
+update daily_tax_rollups set dimension_value = ' ' where dimension_value = '(none)';
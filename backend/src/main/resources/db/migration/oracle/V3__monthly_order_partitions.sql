@@ -0,0 +1,54 @@
+-- Monthly partitions for orders and their items (Oracle only; other databases keep plain tables).
+--
+-- orders is range-partitioned on order_date with one interval partition per month: Oracle creates the
+-- partition of a month when the first order of that month is inserted, and existing orders are spread over
+-- the months they belong to. order_items is partitioned by reference to orders, so each item sits in the
+-- partition of its order without storing the date. Queries with an order_date range only read the partitions
+-- overlapping it, and indexes led by order_date are local so they are pruned the same way.
+-- Closed months are compressed by OrderPartitionArchiver.
+
+-- The partition key cannot be null (orders always get their date on insert)
+alter table orders modify (order_date not null);
+
+alter table orders modify
+    partition by range (order_date) interval (numtoyminterval(1, 'MONTH'))
+    (partition orders_before_2000 values less than (timestamp '2000-01-01 00:00:00'))
+    online
+    update indexes (
+        ix_orders_client_nit_date local,
+        ix_orders_provider_date local,
+        ix_orders_user_date local,
+        ix_orders_order_date local
+    );
+
+-- A table cannot be converted to reference partitioning in place: copy the items into a new table
+create table order_items_by_month (
+    id number(19,0) not null,
+    order_id number(19,0) not null,
+    product_name_or_service varchar2(255 char),
+    unit_cost number(19,2) not null,
+    quantity number(10,0) not null,
+    module_type varchar2(255 char) not null check (module_type in ('PHARMACY','INSURANCE','HOSPITAL')),
+    category varchar2(255 char),
+    item_subtotal number(19,2) not null,
+    tax_applied number(19,2) not null,
+    item_total number(19,2) not null,
+    constraint pk_order_items primary key (id),
+    constraint fk_order_items_by_month foreign key (order_id) references orders (id)
+)
+partition by reference (fk_order_items_by_month);
+
+insert /*+ append */ into order_items_by_month
+    (id, order_id, product_name_or_service, unit_cost, quantity, module_type, category, item_subtotal, tax_applied, item_total)
+select id, order_id, product_name_or_service, unit_cost, quantity, module_type, category, item_subtotal, tax_applied, item_total
+from order_items;
+
+commit;
+
+drop table order_items purge;
+
+alter table order_items_by_month rename to order_items;
+alter table order_items rename constraint fk_order_items_by_month to fk_order_items_order;
+
+create index ix_order_items_category_order on order_items (category, order_id) local;
+create index ix_order_items_order on order_items (order_id) local;
@@ -0,0 +1,57 @@
+package com.example.satsimulationsystem.backend;
+
+import org.hibernate.dialect.DatabaseVersion;
+import org.hibernate.dialect.OracleDialect;
+import org.hibernate.tool.schema.extract.internal.SequenceInformationExtractorLegacyImpl;
+import org.hibernate.tool.schema.extract.spi.SequenceInformationExtractor;
+
+import java.sql.Types;
+
+/**
+ * The production Oracle dialect, for H2 running in Oracle mode: entity types are validated against the
+ * Oracle column types the migrations create, while sequences are read from H2's information schema.
+ */
+public class OracleModeH2Dialect extends OracleDialect {
+
+    public OracleModeH2Dialect() {
+        super(DatabaseVersion.make(19)); // The H2 version reported by the driver would select Oracle 8 SQL
+    }
+
+    // Oracle reports every number(p,s) column as NUMBER, which the validator matches against the type name;
+    // H2 reports NUMERIC. Oracle mode also stores DATE as TIMESTAMP(0), as Oracle's DATE carries a time.
+    @Override
+    public boolean equivalentTypes(int typeCode1, int typeCode2) {
+        return super.equivalentTypes(typeCode1, typeCode2)
+                || isNumber(typeCode1) && isNumber(typeCode2)
+                || isDateOrTimestamp(typeCode1) && isDateOrTimestamp(typeCode2);
+    }
+
+    @Override
+    public String getQuerySequencesString() {
+        return "select * from information_schema.sequences";
+    }
+
+    @Override
+    public SequenceInformationExtractor getSequenceInformationExtractor() {
+        return SequenceInformationExtractorLegacyImpl.INSTANCE;
+    }
+
+    private static boolean isNumber(int typeCode) {
+        switch (typeCode) {
+            case Types.BOOLEAN:
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isDateOrTimestamp(int typeCode) {
+        return typeCode == Types.DATE || typeCode == Types.TIMESTAMP;
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.satsimulationsystem.backend;
+
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.InvoicePdfStatus;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderReportCriteria;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderReportType;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Explains the SQL Hibernate generates for the report, keyset and sweep queries and checks that each one
+ * reaches its rows through the index created for it by V2__report_query_indexes.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+class ReportQueryPlanTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2024, 12, 31, 23, 59);
+
+    @Autowired
+    OrderRepository orderRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    RecordingStatementInspector statements;
+
+    @Test
+    void filteredReportPagesSeekTheirFilterIndex() {
+        assertThat(plan(repository -> repository.findReportPage(criteria(OrderReportType.BY_NIT, FROM, TO), 100L, 50)))
+                .contains("PUBLIC.IX_ORDERS_CLIENT_NIT_DATE: CLIENT_NIT = ?1 AND ORDER_DATE >= ?2 AND ORDER_DATE <= ?3");
+        assertThat(plan(repository -> repository.findReportPage(criteria(OrderReportType.BY_NIT, null, null), 100L, 50)))
+                .contains("PUBLIC.IX_ORDERS_CLIENT_NIT_DATE: CLIENT_NIT = ?1");
+        assertThat(plan(repository -> repository.findReportPage(criteria(OrderReportType.BY_PROVIDER, FROM, TO), 100L, 50)))
+                .contains("PUBLIC.IX_ORDERS_PROVIDER_DATE: PROVIDER_NAME = ?1 AND ORDER_DATE >= ?2 AND ORDER_DATE <= ?3");
+        assertThat(plan(repository -> repository.findReportPage(criteria(OrderReportType.GENERAL, FROM, TO), 100L, 50)))
+                .contains("PUBLIC.IX_ORDERS_ORDER_DATE: ORDER_DATE >= ?1 AND ORDER_DATE <= ?2");
+        // H2 keeps the creator a left join, so it reaches orders by date; Oracle can also start from ix_app_users_role
+        assertThat(plan(repository -> repository.findReportPage(criteria(OrderReportType.BY_MODULE, FROM, TO), 100L, 50)))
+                .contains("PUBLIC.IX_ORDERS_ORDER_DATE: ORDER_DATE >= ?2 AND ORDER_DATE <= ?3");
+    }
+
+    @Test
+    void categoryTestIsAnsweredFromTheItemIndex() {
+        assertThat(plan(repository -> repository.findReportPage(criteria(OrderReportType.BY_ITEM_CATEGORY, null, null), 100L, 50)))
+                .contains("PUBLIC.IX_ORDER_ITEMS_CATEGORY_ORDER: CATEGORY = ?1 AND ORDER_ID = O1_0.ID");
+    }
+
+    @Test
+    void unfilteredKeysetPageSeeksThePrimaryKeyWithoutSorting() {
+        String plan = plan(repository -> repository.findReportPage(criteria(OrderReportType.GENERAL, null, null), 100L, 50));
+
+        assertThat(plan).containsPattern("PUBLIC\\.PRIMARY_KEY_\\w+: ID > \\?1").contains("index sorted");
+    }
+
+    @Test
+    void pdfSweepSeeksPendingOrdersInIdOrder() {
+        assertThat(plan(repository -> repository.findIdsByInvoicePdfStatus(InvoicePdfStatus.PENDING, PageRequest.of(0, 100))))
+                .contains("PUBLIC.IX_ORDERS_PDF_STATUS_ID: INVOICE_PDF_STATUS = ?1");
+    }
+
+    @Test
+    void taxSummariesScanOnlyTheDateRange() {
+        assertThat(plan(repository -> repository.summarizeTaxesByNit(FROM, TO)))
+                .contains("PUBLIC.IX_ORDERS_ORDER_DATE: ORDER_DATE >= ?1 AND ORDER_DATE <= ?2");
+        assertThat(plan(repository -> repository.summarizeTaxesByProvider(FROM, TO)))
+                .contains("PUBLIC.IX_ORDERS_ORDER_DATE: ORDER_DATE >= ?1 AND ORDER_DATE <= ?2");
+        assertThat(plan(repository -> repository.summarizeTaxesByModuleRole(FROM, TO)))
+                .contains("PUBLIC.IX_ORDERS_ORDER_DATE: ORDER_DATE >= ?1 AND ORDER_DATE <= ?2");
+    }
+
+    private static OrderReportCriteria criteria(OrderReportType type, LocalDateTime from, LocalDateTime to) {
+        return new OrderReportCriteria(type, type == OrderReportType.GENERAL ? null : "value", from, to);
+    }
+
+    // Runs the repository call and explains the first statement it issued
+    private String plan(Consumer<OrderRepository> call) {
+        statements.clear();
+        transactionTemplate.executeWithoutResult(status -> call.accept(orderRepository));
+        String sql = statements.first();
+        return jdbcTemplate.queryForObject("explain " + sql, String.class).replaceAll("\\s+", " ");
+    }
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        RecordingStatementInspector recordingStatementInspector() {
+            return new RecordingStatementInspector();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer statementInspectorCustomizer(RecordingStatementInspector inspector) {
+            return properties -> properties.put("hibernate.session_factory.statement_inspector", inspector);
+        }
+    }
+
+    static class RecordingStatementInspector implements StatementInspector {
+        private final List<String> sql = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String statement) {
+            sql.add(statement);
+            return statement;
+        }
+
+        void clear() {
+            sql.clear();
+        }
+
+        String first() {
+            return sql.get(0);
+        }
+    }
+}
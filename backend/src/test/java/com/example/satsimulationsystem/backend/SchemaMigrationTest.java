@@ -0,0 +1,85 @@
+package com.example.satsimulationsystem.backend;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The application starts against an empty schema (Flyway creates it, Hibernate validates it), and a schema
+ * created by ddl-auto=update before the migrations is baselined at V1 and upgraded with its data. Both run the
+ * same scripts from V1.1 on, so the upgraded schema is the validated one.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+class SchemaMigrationTest {
+
+    @Autowired
+    JdbcTemplate jdbcTemplate; // The application's database, created from an empty schema
+
+    @Test
+    void emptySchemaIsMigratedAndValidated() {
+        assertThat(appliedVersions(jdbcTemplate)).containsExactly("1", "1.1", "1.2", "2", "4", "5");
+    }
+
+    @Test
+    void existingSchemaIsBaselinedAndUpgraded() {
+        JdbcTemplate legacy = legacyDatabase();
+        legacy.update("insert into app_users (username, password, role, is_admin_creator) values ('pharm', 'x', 'MODULE_PHARMACY', 0)");
+        for (int i = 0; i < 3; i++) {
+            legacy.update("insert into orders (client_nit, total_amount, total_taxes, order_date, user_id) "
+                    + "values ('123', 11.205, 1.205, timestamp '2024-03-01 10:00:00', 1)");
+        }
+        legacy.update("insert into order_items (order_id, unit_cost, quantity, module_type, item_subtotal, tax_applied, item_total) "
+                + "values (3, 10.004999, 1, 'PHARMACY', 10.004999, 1.2, 11.204999)");
+        legacy.update("insert into order_items (order_id, unit_cost, quantity, module_type, item_subtotal, tax_applied, item_total) "
+                + "values (null, 1, 1, 'PHARMACY', 1, 0, 1)");
+
+        upgrade(legacy);
+
+        assertThat(appliedVersions(legacy)).containsExactly("1", "1.1", "1.2", "2", "4", "5");
+        assertThat(legacy.queryForObject("select total_amount from orders where id = 3", BigDecimal.class)).isEqualByComparingTo("11.21");
+        assertThat(legacy.queryForObject("select total_taxes from orders where id = 3", BigDecimal.class)).isEqualByComparingTo("1.21");
+        assertThat(legacy.queryForObject("select item_total from order_items where order_id = 3", BigDecimal.class)).isEqualByComparingTo("11.20");
+        assertThat(legacy.queryForObject("select count(*) from order_items", Integer.class)).isEqualTo(1); // The orphan is gone
+
+        // Hibernate's pooled optimizer hands out the 50 ids below the fetched value: 4..53 after ids 1..3
+        assertThat(legacy.queryForObject("select orders_seq.nextval from dual", Long.class)).isEqualTo(53L);
+        assertThat(legacy.queryForObject("select order_items_seq.nextval from dual", Long.class)).isEqualTo(51L);
+        legacy.update("insert into orders (id, order_date) values (4, current_timestamp)"); // No identity in the way
+    }
+
+    // A schema as ddl-auto=update created it: the V1 script, without Flyway's history
+    private static JdbcTemplate legacyDatabase() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=Oracle;DB_CLOSE_DELAY=-1", "sa", "");
+        flyway(dataSource).target("1").load().migrate();
+        JdbcTemplate legacy = new JdbcTemplate(dataSource);
+        legacy.execute("drop table \"flyway_schema_history\"");
+        return legacy;
+    }
+
+    private static void upgrade(JdbcTemplate legacy) {
+        flyway(legacy.getDataSource()).baselineOnMigrate(true).baselineVersion("1").load().migrate();
+    }
+
+    private static FluentConfiguration flyway(DataSource dataSource) {
+        return Flyway.configure().dataSource(dataSource).locations("classpath:db/migration/common");
+    }
+
+    private static List<String> appliedVersions(JdbcTemplate database) {
+        return database.queryForList("select \"version\" from \"flyway_schema_history\" where \"version\" is not null "
+                + "order by \"installed_rank\"", String.class);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.satsimulationsystem.backend.config;
+
+import com.example.satsimulationsystem.backend.modules.users.domain.UserCredentialsChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachedCredentialsAuthenticationProviderTest {
+
+    private AuthenticationProvider delegate;
+    private CachedCredentialsAuthenticationProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(AuthenticationProvider.class);
+        when(delegate.authenticate(any())).thenAnswer(invocation -> {
+            Authentication request = invocation.getArgument(0);
+            if (!"secret".equals(request.getCredentials())) {
+                throw new BadCredentialsException("Bad credentials");
+            }
+            return UsernamePasswordAuthenticationToken.authenticated(request.getName(), null,
+                    List.of(new SimpleGrantedAuthority("ROLE_MODULE_PHARMACY")));
+        });
+        provider = new CachedCredentialsAuthenticationProvider(delegate, 60_000, 100);
+    }
+
+    @Test
+    void repeatedValidCredentialsAreVerifiedOnce() {
+        Authentication first = provider.authenticate(login("pharm", "secret"));
+        Authentication second = provider.authenticate(login("pharm", "secret"));
+
+        verify(delegate, times(1)).authenticate(any());
+        assertThat(second.isAuthenticated()).isTrue();
+        assertThat(second.getPrincipal()).isEqualTo(first.getPrincipal());
+        assertThat(second.getAuthorities()).extracting("authority").containsExactly("ROLE_MODULE_PHARMACY");
+        assertThat(second.getCredentials()).isNull();
+    }
+
+    @Test
+    void wrongPasswordsAreNeverCached() {
+        provider.authenticate(login("pharm", "secret"));
+
+        assertThatThrownBy(() -> provider.authenticate(login("pharm", "wrong"))).isInstanceOf(BadCredentialsException.class);
+        assertThatThrownBy(() -> provider.authenticate(login("pharm", "wrong"))).isInstanceOf(BadCredentialsException.class);
+        verify(delegate, times(3)).authenticate(any());
+    }
+
+    @Test
+    void credentialsChangeDropsOnlyThatUsersEntries() {
+        provider.authenticate(login("pharm", "secret"));
+        provider.authenticate(login("hospital", "secret"));
+
+        provider.onCredentialsChanged(new UserCredentialsChangedEvent("pharm"));
+        provider.authenticate(login("pharm", "secret"));
+        provider.authenticate(login("hospital", "secret"));
+
+        verify(delegate, times(3)).authenticate(any()); // pharm twice, hospital once
+    }
+
+    @Test
+    void zeroTtlDisablesTheCache() {
+        provider = new CachedCredentialsAuthenticationProvider(delegate, 0, 100);
+
+        provider.authenticate(login("pharm", "secret"));
+        provider.authenticate(login("pharm", "secret"));
+
+        verify(delegate, times(2)).authenticate(any());
+    }
+
+    private static Authentication login(String username, String password) {
+        return UsernamePasswordAuthenticationToken.unauthenticated(username, password);
+    }
+}
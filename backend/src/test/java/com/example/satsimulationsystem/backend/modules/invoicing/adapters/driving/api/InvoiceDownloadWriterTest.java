@@ -0,0 +1,254 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.adapters.driving.api;
+
+import com.example.satsimulationsystem.backend.services.StoredInvoice;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvoiceDownloadWriterTest {
+
+    private static final byte[] PDF = "0123456789".getBytes(StandardCharsets.US_ASCII);
+    private static final long LAST_MODIFIED = 1_700_000_000_000L;
+
+    private final InvoiceDownloadWriter writer = new InvoiceDownloadWriter();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void wholeInvoiceWithValidatorsAndRevalidatingCacheControl() throws Exception {
+        MockHttpServletResponse response = writeInMemory(request());
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsByteArray()).isEqualTo(PDF);
+        assertThat(response.getContentLengthLong()).isEqualTo(10);
+        assertThat(response.getContentType()).isEqualTo("application/pdf");
+        assertThat(response.getHeader(HttpHeaders.ETAG)).startsWith("\"");
+        assertThat(response.getDateHeader(HttpHeaders.LAST_MODIFIED)).isEqualTo(LAST_MODIFIED);
+        assertThat(response.getHeader(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+        assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("private, no-cache");
+        assertThat(response.getHeader(HttpHeaders.CONTENT_DISPOSITION)).isEqualTo("attachment; filename=\"invoice-1.pdf\"");
+    }
+
+    @Test
+    void storedInvoiceIsTheRangeOfItsFile() throws Exception {
+        Path file = directory.resolve("segment");
+        Files.write(file, "header-0123456789-next".getBytes(StandardCharsets.US_ASCII));
+        StoredInvoice invoice = new StoredInvoice(file, 7, 10, LAST_MODIFIED, null);
+
+        MockHttpServletResponse whole = new MockHttpServletResponse();
+        writer.write(invoice, "invoice-1-a1-7.pdf", true, request(), whole);
+        MockHttpServletResponse part = new MockHttpServletResponse();
+        writer.write(invoice, "invoice-1-a1-7.pdf", true, request("Range", "bytes=2-4"), part);
+
+        assertThat(whole.getContentAsByteArray()).isEqualTo(PDF);
+        assertThat(whole.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("private, max-age=31536000, immutable");
+        assertThat(part.getStatus()).isEqualTo(206);
+        assertThat(part.getContentAsString()).isEqualTo("234");
+    }
+
+    @Test
+    void storedInvoiceOnTheOrderUrlIsRevalidated() throws Exception {
+        Path file = directory.resolve("invoice.pdf");
+        Files.write(file, PDF);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        writer.write(new StoredInvoice(file, 0, 10, LAST_MODIFIED, null), "invoice-1.pdf", false, request(), response);
+
+        assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("private, no-cache");
+    }
+
+    @Test
+    void sendfileGetsTheFileRangeInsteadOfABody() throws Exception {
+        Path file = directory.resolve("segment");
+        Files.write(file, "header-0123456789".getBytes(StandardCharsets.US_ASCII));
+        MockHttpServletRequest request = request("Range", "bytes=-3");
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        writer.write(new StoredInvoice(file, 7, 10, LAST_MODIFIED, null), "a.pdf", true, request, response);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.filename")).isEqualTo(file.toAbsolutePath().toString());
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.start")).isEqualTo(14L);
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.end")).isEqualTo(17L);
+    }
+
+    @Test
+    void boundedRange() throws Exception {
+        MockHttpServletResponse response = writeInMemory(request("Range", "bytes=2-5"));
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 2-5/10");
+        assertThat(response.getContentLengthLong()).isEqualTo(4);
+        assertThat(response.getContentAsString()).isEqualTo("2345");
+    }
+
+    @Test
+    void openAndOverlongRangesEndAtTheLastByte() throws Exception {
+        assertThat(writeInMemory(request("Range", "bytes=7-")).getContentAsString()).isEqualTo("789");
+        MockHttpServletResponse overlong = writeInMemory(request("Range", "bytes=7-999"));
+        assertThat(overlong.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 7-9/10");
+        assertThat(overlong.getContentAsString()).isEqualTo("789");
+    }
+
+    @Test
+    void suffixRangeIsTheLastBytes() throws Exception {
+        MockHttpServletResponse last3 = writeInMemory(request("Range", "bytes=-3"));
+        assertThat(last3.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 7-9/10");
+        assertThat(last3.getContentAsString()).isEqualTo("789");
+
+        MockHttpServletResponse longerThanTheFile = writeInMemory(request("Range", "bytes=-50"));
+        assertThat(longerThanTheFile.getStatus()).isEqualTo(206);
+        assertThat(longerThanTheFile.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 0-9/10");
+        assertThat(longerThanTheFile.getContentAsByteArray()).isEqualTo(PDF);
+    }
+
+    @Test
+    void unsatisfiableRangesGet416() throws Exception {
+        for (String range : new String[]{"bytes=10-", "bytes=10-20", "bytes=-0"}) {
+            MockHttpServletResponse response = writeInMemory(request("Range", range));
+
+            assertThat(response.getStatus()).as(range).isEqualTo(416);
+            assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).as(range).isEqualTo("bytes */10");
+            assertThat(response.getContentAsByteArray()).as(range).isEmpty();
+        }
+    }
+
+    @Test
+    void invalidRangesAreIgnored() throws Exception {
+        for (String range : new String[]{"bytes=5-2", "bytes=a-b", "bytes=3", "items=0-1"}) {
+            MockHttpServletResponse response = writeInMemory(request("Range", range));
+
+            assertThat(response.getStatus()).as(range).isEqualTo(200);
+            assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).as(range).isNull();
+            assertThat(response.getContentAsByteArray()).as(range).isEqualTo(PDF);
+        }
+    }
+
+    @Test
+    void multipleRangesGetTheWholeInvoice() throws Exception {
+        MockHttpServletResponse response = writeInMemory(request("Range", "bytes=0-1,4-5"));
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsByteArray()).isEqualTo(PDF);
+    }
+
+    @Test
+    void matchingEtagInIfNoneMatchGets304() throws Exception {
+        String etag = writeInMemory(request()).getHeader(HttpHeaders.ETAG);
+
+        for (String ifNoneMatch : new String[]{etag, "W/" + etag, "\"other\", " + etag, "*"}) {
+            MockHttpServletResponse response = writeInMemory(request("If-None-Match", ifNoneMatch));
+
+            assertThat(response.getStatus()).as(ifNoneMatch).isEqualTo(304);
+            assertThat(response.getContentAsByteArray()).as(ifNoneMatch).isEmpty();
+            assertThat(response.getHeader(HttpHeaders.ETAG)).as(ifNoneMatch).isEqualTo(etag);
+        }
+    }
+
+    @Test
+    void ifModifiedSinceComparesWholeSeconds() throws Exception {
+        assertThat(writeInMemory(request("If-Modified-Since", httpDate(LAST_MODIFIED))).getStatus()).isEqualTo(304);
+        assertThat(writeInMemory(request("If-Modified-Since", httpDate(LAST_MODIFIED + 60_000))).getStatus()).isEqualTo(304);
+        assertThat(writeInMemory(request("If-Modified-Since", httpDate(LAST_MODIFIED - 1_000))).getStatus()).isEqualTo(200);
+        assertThat(writeInMemory(request("If-Modified-Since", "not a date")).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void ifNoneMatchTakesPriorityOverIfModifiedSince() throws Exception {
+        MockHttpServletRequest request = request("If-None-Match", "\"other\"");
+        request.addHeader("If-Modified-Since", httpDate(LAST_MODIFIED + 60_000));
+
+        MockHttpServletResponse response = writeInMemory(request);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsByteArray()).isEqualTo(PDF);
+    }
+
+    @Test
+    void ifRangeWithTheEtagAppliesTheRangeOnlyWhileItMatches() throws Exception {
+        String etag = writeInMemory(request()).getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletRequest matching = request("Range", "bytes=0-1");
+        matching.addHeader("If-Range", etag);
+        MockHttpServletRequest stale = request("Range", "bytes=0-1");
+        stale.addHeader("If-Range", "\"other\"");
+        MockHttpServletRequest weak = request("Range", "bytes=0-1");
+        weak.addHeader("If-Range", "W/" + etag); // If-Range needs a strong match
+
+        assertThat(writeInMemory(matching).getStatus()).isEqualTo(206);
+        assertThat(writeInMemory(stale).getStatus()).isEqualTo(200);
+        assertThat(writeInMemory(weak).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void ifRangeDateOnlyAppliesToStoredInvoices() throws Exception {
+        Path file = directory.resolve("invoice.pdf");
+        Files.write(file, PDF);
+        StoredInvoice invoice = new StoredInvoice(file, 0, 10, LAST_MODIFIED, null);
+
+        MockHttpServletResponse stored = new MockHttpServletResponse();
+        writer.write(invoice, "invoice.pdf", true, ifRangeDate(LAST_MODIFIED), stored);
+        MockHttpServletResponse storedChanged = new MockHttpServletResponse();
+        writer.write(invoice, "invoice.pdf", true, ifRangeDate(LAST_MODIFIED - 1_000), storedChanged);
+        // An in-memory invoice's date is the order's, so it cannot tell two renderings apart
+        MockHttpServletResponse inMemory = writeInMemory(ifRangeDate(LAST_MODIFIED));
+
+        assertThat(stored.getStatus()).isEqualTo(206);
+        assertThat(stored.getContentAsString()).isEqualTo("01");
+        assertThat(storedChanged.getStatus()).isEqualTo(200);
+        assertThat(inMemory.getStatus()).isEqualTo(200);
+        assertThat(inMemory.getContentAsByteArray()).isEqualTo(PDF);
+    }
+
+    @Test
+    void headGetsTheHeadersWithoutABody() throws Exception {
+        MockHttpServletRequest request = request("Range", "bytes=0-3");
+        request.setMethod("HEAD");
+
+        MockHttpServletResponse response = writeInMemory(request);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentLengthLong()).isEqualTo(4);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    private MockHttpServletResponse writeInMemory(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        writer.write(PDF, LAST_MODIFIED, "invoice-1.pdf", request, response);
+        return response;
+    }
+
+    private static MockHttpServletRequest request() {
+        return new MockHttpServletRequest("GET", "/api/invoicing/orders/1/invoice.pdf");
+    }
+
+    private static MockHttpServletRequest request(String header, String value) {
+        MockHttpServletRequest request = request();
+        request.addHeader(header, value);
+        return request;
+    }
+
+    private static MockHttpServletRequest ifRangeDate(long millis) {
+        MockHttpServletRequest request = request("Range", "bytes=0-1");
+        request.addHeader("If-Range", httpDate(millis));
+        return request;
+    }
+
+    private static String httpDate(long millis) {
+        return DateTimeFormatter.RFC_1123_DATE_TIME.format(Instant.ofEpochMilli(millis).atZone(ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.application;
+
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.InvoicePdfStatus;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.Order;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderRepository;
+import com.example.satsimulationsystem.backend.services.PdfGenerationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OnDemandInvoicePdfServiceTest {
+
+    private static final int MB = 1024 * 1024;
+
+    private final PdfGenerationService pdfGenerationService = mock(PdfGenerationService.class);
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private OnDemandInvoicePdfService service;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void generationModeMustBeEagerOrLazy() {
+        assertThat(OnDemandInvoicePdfService.isLazy("eager")).isFalse();
+        assertThat(OnDemandInvoicePdfService.isLazy("lazy")).isTrue();
+        assertThatThrownBy(() -> OnDemandInvoicePdfService.isLazy("sometimes")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void renderedPdfIsCachedAndCountedInTheGauges() throws Exception {
+        service = newService(1, false);
+        when(pdfGenerationService.renderInvoicePdf(any())).thenReturn(new byte[1000]);
+        Order order = order(1L);
+
+        RenderedInvoicePdf first = service.render(order);
+        RenderedInvoicePdf second = service.render(order);
+
+        assertThat(second).isSameAs(first);
+        assertThat(service.cached(1L)).isSameAs(first);
+        verify(pdfGenerationService, times(1)).renderInvoicePdf(order);
+        assertThat(registry.get("invoicing.pdf.cache.size").gauge().value()).isEqualTo(1000);
+        assertThat(registry.get("invoicing.pdf.cache.entries").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void evictedPdfsAreDroppedWithoutSpill() throws Exception {
+        service = newService(1, false);
+        when(pdfGenerationService.renderInvoicePdf(any())).thenReturn(new byte[600 * 1024]);
+
+        service.render(order(1L));
+        service.render(order(2L));
+
+        assertThat(service.cached(1L)).isNull();
+        assertThat(service.cached(2L)).isNotNull();
+        service.shutdown(); // Drains the spill executor
+        verify(pdfGenerationService, never()).storeInvoicePdf(anyLong(), any());
+    }
+
+    @Test
+    void evictedPdfsAreSpilledToStorage() throws Exception {
+        service = newService(1, true);
+        byte[] pdf = new byte[600 * 1024];
+        when(pdfGenerationService.renderInvoicePdf(any())).thenReturn(pdf);
+        when(pdfGenerationService.storeInvoicePdf(eq(1L), any())).thenReturn("invoice-1-abc.pdf");
+
+        service.render(order(1L));
+        service.render(order(2L));
+
+        verify(pdfGenerationService, timeout(5_000)).storeInvoicePdf(1L, pdf);
+        verify(orderRepository, timeout(5_000)).updateInvoicePdf(1L, "invoice-1-abc.pdf", InvoicePdfStatus.GENERATED, 1);
+        verify(pdfGenerationService, never()).storeInvoicePdf(eq(2L), any());
+    }
+
+    @Test
+    void pdfLargerThanTheCacheIsSpilledRightAway() throws Exception {
+        service = newService(1, true);
+        when(pdfGenerationService.renderInvoicePdf(any())).thenReturn(new byte[MB + 1]);
+        when(pdfGenerationService.storeInvoicePdf(eq(1L), any())).thenReturn("invoice-1-abc.pdf");
+
+        RenderedInvoicePdf rendered = service.render(order(1L));
+
+        assertThat(rendered.getContent()).hasSize(MB + 1);
+        assertThat(service.cached(1L)).isNull();
+        verify(orderRepository, timeout(5_000)).updateInvoicePdf(1L, "invoice-1-abc.pdf", InvoicePdfStatus.GENERATED, 1);
+    }
+
+    @Test
+    void concurrentRequestsShareOneRendering() throws Exception {
+        service = newService(1, false);
+        CountDownLatch rendering = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(pdfGenerationService.renderInvoicePdf(any())).thenAnswer(invocation -> {
+            rendering.countDown();
+            release.await();
+            return new byte[100];
+        });
+        Order order = order(1L);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<RenderedInvoicePdf>> results = new ArrayList<>();
+            results.add(executor.submit(() -> service.render(order)));
+            rendering.await();
+            for (int i = 0; i < 3; i++) {
+                results.add(executor.submit(() -> service.render(order)));
+            }
+            Thread.sleep(100); // Let the waiters join the running rendering
+            release.countDown();
+
+            RenderedInvoicePdf first = results.get(0).get();
+            for (Future<RenderedInvoicePdf> result : results) {
+                assertThat(result.get()).isSameAs(first);
+            }
+            verify(pdfGenerationService, times(1)).renderInvoicePdf(order);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void failedRenderingIsNotCached() throws Exception {
+        service = newService(1, false);
+        when(pdfGenerationService.renderInvoicePdf(any()))
+                .thenThrow(new IOException("font missing"))
+                .thenReturn(new byte[100]);
+        Order order = order(1L);
+
+        assertThatThrownBy(() -> service.render(order)).isInstanceOf(IOException.class);
+        assertThat(service.cached(1L)).isNull();
+        assertThat(service.render(order).getContent()).hasSize(100);
+    }
+
+    private OnDemandInvoicePdfService newService(long cacheSizeMb, boolean spillEvicted) {
+        return new OnDemandInvoicePdfService(pdfGenerationService, orderRepository, new InvoicingMetrics(registry), registry,
+                "lazy", cacheSizeMb, spillEvicted);
+    }
+
+    private static Order order(Long id) {
+        Order order = new Order();
+        order.setId(id);
+        order.setOrderDate(LocalDateTime.of(2024, 1, 1, 12, 0));
+        return order;
+    }
+}
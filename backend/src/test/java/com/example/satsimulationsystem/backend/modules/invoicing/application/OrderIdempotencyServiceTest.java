@@ -0,0 +1,210 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.application;
+
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.Order;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderIdempotencyKey;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderIdempotencyKeyRepository;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderRepository;
+import com.example.satsimulationsystem.backend.modules.users.domain.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.example.satsimulationsystem.backend.modules.invoicing.application.IdempotentOrderResult.Outcome.CREATED;
+import static com.example.satsimulationsystem.backend.modules.invoicing.application.IdempotentOrderResult.Outcome.IN_PROGRESS;
+import static com.example.satsimulationsystem.backend.modules.invoicing.application.IdempotentOrderResult.Outcome.KEY_REUSED;
+import static com.example.satsimulationsystem.backend.modules.invoicing.application.IdempotentOrderResult.Outcome.REPLAYED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderIdempotencyServiceTest {
+
+    private final InvoicingService invoicingService = mock(InvoicingService.class);
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final OrderIdempotencyKeyRepository keyRepository = mock(OrderIdempotencyKeyRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final Map<String, OrderIdempotencyKey> storedKeys = new ConcurrentHashMap<>(); // By user id and key
+    private final Map<Long, Order> orders = new ConcurrentHashMap<>();
+    private final AtomicLong orderIds = new AtomicLong(100);
+    private final User alice = user(1L);
+    private final User bob = user(2L);
+
+    @BeforeEach
+    void setUp() {
+        when(keyRepository.findByUserIdAndIdempotencyKey(anyLong(), anyString())).thenAnswer(invocation ->
+                Optional.ofNullable(storedKeys.get(invocation.getArgument(0) + "/" + invocation.getArgument(1))));
+        when(keyRepository.saveAndFlush(any(OrderIdempotencyKey.class))).thenAnswer(invocation -> {
+            OrderIdempotencyKey key = invocation.getArgument(0);
+            storedKeys.put(key.getUserId() + "/" + key.getIdempotencyKey(), key);
+            return key;
+        });
+        when(invoicingService.createOrderAndCalculateTaxes(any(), any())).thenAnswer(invocation -> {
+            Order order = invocation.getArgument(0);
+            order.setId(orderIds.incrementAndGet());
+            orders.put(order.getId(), order);
+            return order;
+        });
+        when(invoicingService.getOrderById(anyLong())).thenAnswer(invocation -> Optional.ofNullable(orders.get(invocation.getArgument(0))));
+        when(orderRepository.existsById(anyLong())).thenAnswer(invocation -> orders.containsKey(invocation.getArgument(0)));
+    }
+
+    @Test
+    void retryWithTheSameKeyAndOrderReplaysTheOriginal() {
+        OrderIdempotencyService service = newService(24);
+
+        IdempotentOrderResult first = service.createOrder(new Order(), alice, "key-1", "hash-a");
+        clearInvocations(keyRepository);
+        IdempotentOrderResult retry = service.createOrder(new Order(), alice, "key-1", "hash-a");
+
+        assertThat(first.getOutcome()).isEqualTo(CREATED);
+        assertThat(retry.getOutcome()).isEqualTo(REPLAYED);
+        assertThat(retry.getOrder()).isSameAs(first.getOrder());
+        verify(invoicingService, times(1)).createOrderAndCalculateTaxes(any(), any());
+        verify(keyRepository, never()).findByUserIdAndIdempotencyKey(anyLong(), anyString()); // Answered from memory
+    }
+
+    @Test
+    void sameKeyWithADifferentOrderIsRejected() {
+        OrderIdempotencyService service = newService(24);
+        service.createOrder(new Order(), alice, "key-1", "hash-a");
+
+        IdempotentOrderResult reused = service.createOrder(new Order(), alice, "key-1", "hash-b");
+
+        assertThat(reused.getOutcome()).isEqualTo(KEY_REUSED);
+        assertThat(reused.getOrder()).isNull();
+        verify(invoicingService, times(1)).createOrderAndCalculateTaxes(any(), any());
+    }
+
+    @Test
+    void keysAreScopedToTheUser() {
+        OrderIdempotencyService service = newService(24);
+        IdempotentOrderResult mine = service.createOrder(new Order(), alice, "key-1", "hash-a");
+
+        IdempotentOrderResult theirs = service.createOrder(new Order(), bob, "key-1", "hash-a");
+
+        assertThat(theirs.getOutcome()).isEqualTo(CREATED);
+        assertThat(theirs.getOrder().getId()).isNotEqualTo(mine.getOrder().getId());
+    }
+
+    @Test
+    void keysStoredByAnotherInstanceAreReplayed() {
+        Order original = newService(24).createOrder(new Order(), alice, "key-1", "hash-a").getOrder();
+
+        IdempotentOrderResult retry = newService(24).createOrder(new Order(), alice, "key-1", "hash-a"); // Empty cache
+
+        assertThat(retry.getOutcome()).isEqualTo(REPLAYED);
+        assertThat(retry.getOrder()).isSameAs(original);
+    }
+
+    @Test
+    void expiredKeyCreatesANewOrderAndReplacesTheStaleKey() {
+        OrderIdempotencyService service = newService(24);
+        Order old = service.createOrder(new Order(), alice, "key-1", "hash-a").getOrder();
+        OrderIdempotencyKey stale = storedKeys.get("1/key-1");
+        stale.setCreatedAt(LocalDateTime.now().minusHours(25));
+
+        IdempotentOrderResult again = newService(24).createOrder(new Order(), alice, "key-1", "hash-b");
+
+        assertThat(again.getOutcome()).isEqualTo(CREATED);
+        assertThat(again.getOrder().getId()).isNotEqualTo(old.getId());
+        verify(keyRepository).delete(stale);
+        assertThat(storedKeys.get("1/key-1").getOrderId()).isEqualTo(again.getOrder().getId());
+    }
+
+    @Test
+    void keyOfADeletedOrderMayBeUsedAgain() {
+        OrderIdempotencyService service = newService(24);
+        Order deleted = service.createOrder(new Order(), alice, "key-1", "hash-a").getOrder();
+        orders.remove(deleted.getId());
+
+        IdempotentOrderResult again = newService(24).createOrder(new Order(), alice, "key-1", "hash-a");
+
+        assertThat(again.getOutcome()).isEqualTo(CREATED);
+        verify(keyRepository).delete(any(OrderIdempotencyKey.class));
+    }
+
+    @Test
+    void concurrentSubmissionIsAnsweredInProgress() throws Exception {
+        OrderIdempotencyService service = newService(24);
+        CountDownLatch creating = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            creating.countDown();
+            release.await();
+            Order order = invocation.getArgument(0);
+            order.setId(orderIds.incrementAndGet());
+            orders.put(order.getId(), order);
+            return order;
+        }).when(invoicingService).createOrderAndCalculateTaxes(any(), any());
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<IdempotentOrderResult> first = executor.submit(() -> service.createOrder(new Order(), alice, "key-1", "hash-a"));
+            creating.await();
+
+            assertThat(service.createOrder(new Order(), alice, "key-1", "hash-a").getOutcome()).isEqualTo(IN_PROGRESS);
+
+            release.countDown();
+            assertThat(first.get().getOutcome()).isEqualTo(CREATED);
+            assertThat(service.createOrder(new Order(), alice, "key-1", "hash-a").getOutcome()).isEqualTo(REPLAYED);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void losingTheKeyRaceToAnotherInstanceReplaysTheWinner() {
+        OrderIdempotencyService service = newService(24);
+        Order winner = new Order();
+        winner.setId(7L);
+        orders.put(7L, winner);
+        doAnswer(invocation -> {
+            // The other instance committed first; our insert violates the unique key
+            storedKeys.put("1/key-1", new OrderIdempotencyKey(1L, 1L, "key-1", "hash-a", 7L, LocalDateTime.now()));
+            throw new DataIntegrityViolationException("uk_order_idempotency_keys_key");
+        }).when(keyRepository).saveAndFlush(any(OrderIdempotencyKey.class));
+
+        IdempotentOrderResult result = service.createOrder(new Order(), alice, "key-1", "hash-a");
+
+        assertThat(result.getOutcome()).isEqualTo(REPLAYED);
+        assertThat(result.getOrder()).isSameAs(winner);
+    }
+
+    @Test
+    void purgeDeletesKeysOlderThanTheTtl() {
+        OrderIdempotencyService service = newService(24);
+
+        service.purgeExpiredKeys();
+
+        verify(keyRepository).deleteCreatedBefore(any(LocalDateTime.class));
+        verify(invoicingService, never()).createOrderAndCalculateTaxes(any(), any());
+    }
+
+    private OrderIdempotencyService newService(long ttlHours) {
+        return new OrderIdempotencyService(invoicingService, orderRepository, keyRepository, transactionManager, ttlHours, 100);
+    }
+
+    private static User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+}
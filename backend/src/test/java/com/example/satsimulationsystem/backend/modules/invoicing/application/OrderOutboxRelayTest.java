@@ -0,0 +1,203 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.application;
+
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderEventMessage;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderOutboxEvent;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderOutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderOutboxRelayTest {
+
+    private final OrderOutboxEventRepository outboxRepository = mock(OrderOutboxEventRepository.class);
+    private final TreeMap<Long, OrderOutboxEvent> outbox = new TreeMap<>();
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private OrderOutboxRelay relay;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void fakeOutbox() {
+        doAnswer(invocation -> {
+            Pageable page = invocation.getArgument(0);
+            synchronized (outbox) {
+                return outbox.values().stream().limit(page.getPageSize()).toList();
+            }
+        }).when(outboxRepository).findOldest(any());
+        doAnswer(invocation -> {
+            synchronized (outbox) {
+                ((Collection<Long>) invocation.getArgument(0)).forEach(outbox::remove);
+            }
+            return null;
+        }).when(outboxRepository).deleteAllByIdInBatch(anyCollection());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (relay != null) {
+            relay.shutdown();
+        }
+    }
+
+    @Test
+    void everySinkReceivesTheBatchByIdThenItIsDeleted() {
+        RecordingSink first = new RecordingSink("first", 0);
+        RecordingSink second = new RecordingSink("second", 0);
+        relay = newRelay(10, first, second);
+        addEvents(3L, 1L, 2L);
+
+        relay.requestPass();
+        relay.shutdown();
+
+        assertThat(first.eventIds()).containsExactly(List.of(1L, 2L, 3L));
+        assertThat(second.eventIds()).containsExactly(List.of(1L, 2L, 3L));
+        assertThat(outbox).isEmpty();
+        assertThat(registry.counter("invoicing.outbox.published", "sink", "first").count()).isEqualTo(3);
+        assertThat(registry.counter("invoicing.outbox.published", "sink", "second").count()).isEqualTo(3);
+        assertThat(registry.timer("invoicing.outbox.lag").count()).isEqualTo(3);
+    }
+
+    @Test
+    void outboxIsDrainedInBatches() {
+        RecordingSink sink = new RecordingSink("sink", 0);
+        relay = newRelay(2, sink);
+        addEvents(1L, 2L, 3L, 4L, 5L);
+
+        relay.requestPass();
+        relay.shutdown();
+
+        assertThat(sink.eventIds()).containsExactly(List.of(1L, 2L), List.of(3L, 4L), List.of(5L));
+        assertThat(outbox).isEmpty();
+    }
+
+    @Test
+    void failedBatchIsKeptAndRetriedOnTheNextPass() {
+        RecordingSink healthy = new RecordingSink("healthy", 0);
+        RecordingSink flaky = new RecordingSink("flaky", 1);
+        relay = newRelay(2, healthy, flaky);
+        addEvents(1L, 2L, 3L);
+
+        relay.requestPass();
+        await(() -> registry.counter("invoicing.outbox.failures", "sink", "flaky").count() == 1);
+        // The pass ends at the failure: nothing is deleted and later batches wait
+        assertThat(outbox).containsOnlyKeys(1L, 2L, 3L);
+        verify(outboxRepository, never()).deleteAllByIdInBatch(anyCollection());
+
+        relay.requestPass();
+        relay.shutdown();
+
+        // At least once: the sink ahead of the failing one gets the first batch again
+        assertThat(healthy.eventIds()).containsExactly(List.of(1L, 2L), List.of(1L, 2L), List.of(3L));
+        assertThat(flaky.eventIds()).containsExactly(List.of(1L, 2L), List.of(1L, 2L), List.of(3L));
+        assertThat(outbox).isEmpty();
+        verify(outboxRepository, times(2)).deleteAllByIdInBatch(anyCollection());
+    }
+
+    @Test
+    void eventsAddedBetweenPassesArePublishedByTheNextOne() {
+        RecordingSink sink = new RecordingSink("sink", 0);
+        relay = newRelay(10, sink);
+        addEvents(1L);
+
+        relay.requestPass();
+        await(() -> sink.batches.size() == 1);
+        verify(outboxRepository, timeout(5000)).deleteAllByIdInBatch(anyCollection());
+        // A lower id committed late is still picked up, after the higher ids already published
+        addEvents(0L, 2L);
+        relay.requestPass();
+        relay.shutdown();
+
+        assertThat(sink.eventIds()).containsExactly(List.of(1L), List.of(0L, 2L));
+    }
+
+    @Test
+    void withoutSinksEventsStayInTheOutbox() {
+        relay = newRelay(10);
+        addEvents(1L);
+
+        relay.requestPass();
+        relay.shutdown();
+
+        verify(outboxRepository, never()).findOldest(any());
+        assertThat(outbox).containsOnlyKeys(1L);
+    }
+
+    @SuppressWarnings("unchecked")
+    private OrderOutboxRelay newRelay(int batchSize, OrderEventSink... sinks) {
+        ObjectProvider<OrderEventSink> provider = mock(ObjectProvider.class);
+        when(provider.orderedStream()).thenReturn(Stream.of(sinks));
+        return new OrderOutboxRelay(outboxRepository, provider, registry, batchSize);
+    }
+
+    private void addEvents(Long... ids) {
+        synchronized (outbox) {
+            for (Long id : ids) {
+                outbox.put(id, new OrderOutboxEvent(id, OrderOutboxEvent.ORDER_CREATED, 100 + id, "{}",
+                        LocalDateTime.now().minusSeconds(1)));
+            }
+        }
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+            Thread.onSpinWait();
+        }
+    }
+
+    private static class RecordingSink implements OrderEventSink {
+        private final String name;
+        private final AtomicInteger failuresLeft;
+        private final List<List<OrderEventMessage>> batches = Collections.synchronizedList(new ArrayList<>());
+
+        RecordingSink(String name, int failures) {
+            this.name = name;
+            this.failuresLeft = new AtomicInteger(failures);
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public void publish(List<OrderEventMessage> events) throws Exception {
+            batches.add(List.copyOf(events));
+            if (failuresLeft.getAndDecrement() > 0) {
+                throw new Exception("unavailable");
+            }
+        }
+
+        List<List<Long>> eventIds() {
+            synchronized (batches) {
+                return batches.stream().map(batch -> batch.stream().map(OrderEventMessage::getEventId).toList()).toList();
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.application;
+
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.DailyTaxRollup;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.DailyTaxRollupRepository;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.ModuleType;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.Money;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.Order;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderCreatedEvent;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderItem;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderRepository;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.ReportDimension;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.TaxSummary;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Summaries over a range whose whole days come from the rollups and whose partial days come from the orders.
+ * The orders are spread so that every group has rows on both sides of that split.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+class TaxReportServiceImplTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+    // Rolled-up days are TODAY-3 and TODAY-2; the range starts and ends inside TODAY-4 and TODAY-1
+    private static final LocalDateTime FROM = TODAY.minusDays(4).atTime(12, 0);
+    private static final LocalDateTime TO = TODAY.minusDays(1).atTime(12, 0);
+
+    @Autowired
+    TaxReportService taxReportService;
+    @Autowired
+    DailyTaxRollupService rollupService;
+    @Autowired
+    OrderRepository orderRepository;
+    @Autowired
+    DailyTaxRollupRepository rollupRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private final List<Order> orders = new ArrayList<>();
+
+    @BeforeEach
+    void createOrders() {
+        rollupRepository.deleteAll();
+        order(TODAY.minusDays(4).atTime(13, 0), " ", "Pharmacy");     // Orders only
+        order(TODAY.minusDays(4).atTime(14, 0), "  ", (String) null); // Orders only
+        order(TODAY.minusDays(3).atTime(10, 0), null, " ");           // Rollups
+        order(TODAY.minusDays(2).atTime(10, 0), "(none)", "Pharmacy "); // Rollups
+        order(TODAY.minusDays(2).atTime(11, 0), "Acme ", "Lab");      // Rollups
+        order(TODAY.minusDays(1).atTime(8, 0), "(none)", "Lab");      // Orders only
+        order(TODAY.minusDays(1).atTime(9, 0), "Acme", " ", null); // Orders only; one order, two unspecified categories
+        order(TODAY.minusDays(1).atTime(13, 0), "Acme", "Lab");       // After the range
+    }
+
+    @AfterEach
+    void deleteOrders() {
+        orderRepository.deleteAll(orders);
+        rollupRepository.deleteAll();
+    }
+
+    @Test
+    void incrementalRollupsAndOrdersMergeIntoOneRowPerValue() {
+        orders.forEach(order -> rollupService.onOrderCreated(new OrderCreatedEvent(order)));
+
+        assertProviderSummary(taxReportService.summarizeTaxes(ReportDimension.PROVIDER, FROM, TO));
+        assertCategorySummary(taxReportService.summarizeTaxes(ReportDimension.CATEGORY, FROM, TO));
+    }
+
+    @Test
+    void rebuiltRollupsAndOrdersMergeIntoOneRowPerValue() {
+        rollupService.rebuild(TODAY.minusDays(4), TODAY.minusDays(1));
+
+        assertProviderSummary(taxReportService.summarizeTaxes(ReportDimension.PROVIDER, FROM, TO));
+        assertCategorySummary(taxReportService.summarizeTaxes(ReportDimension.CATEGORY, FROM, TO));
+    }
+
+    @Test
+    void ordersAloneGiveTheSameRowsAsTheMergedPaths() {
+        rollupService.rebuild(TODAY.minusDays(4), TODAY.minusDays(1));
+        TaxReportServiceImpl ordersOnly = new TaxReportServiceImpl(orderRepository, rollupRepository, false, "");
+
+        assertThat(ordersOnly.summarizeTaxes(ReportDimension.PROVIDER, FROM, TO))
+                .isEqualTo(taxReportService.summarizeTaxes(ReportDimension.PROVIDER, FROM, TO));
+        assertThat(ordersOnly.summarizeTaxes(ReportDimension.CATEGORY, FROM, TO))
+                .isEqualTo(taxReportService.summarizeTaxes(ReportDimension.CATEGORY, FROM, TO));
+        assertProviderSummary(ordersOnly.summarizeTaxes(ReportDimension.PROVIDER, FROM, TO));
+    }
+
+    @Test
+    void unspecifiedValuesAreStoredBlankAndRealValuesAsTheyAre() {
+        rollupService.rebuild(TODAY.minusDays(3), TODAY.minusDays(2));
+
+        assertThat(rollupRepository.findAll())
+                .filteredOn(rollup -> rollup.getDimension() == ReportDimension.PROVIDER)
+                .extracting(DailyTaxRollup::getDimensionValue)
+                .containsExactlyInAnyOrder(DailyTaxRollup.UNSPECIFIED_VALUE, "(none)", "Acme");
+    }
+
+    private static void assertProviderSummary(List<TaxSummary> summary) {
+        assertThat(summary)
+                .extracting(TaxSummary::getGroupKey, TaxSummary::getOrderCount, TaxSummary::getTotalAmount)
+                .containsExactly(
+                        tuple("(none)", 2L, Money.ofCents(2 * 1130)),
+                        tuple("Acme", 2L, Money.ofCents(1130 + 2 * 1130)),
+                        tuple(null, 3L, Money.ofCents(3 * 1130)));
+    }
+
+    private static void assertCategorySummary(List<TaxSummary> summary) {
+        assertThat(summary)
+                .extracting(TaxSummary::getGroupKey, TaxSummary::getOrderCount)
+                .containsExactly(
+                        tuple("Lab", 2L),
+                        tuple("Pharmacy", 2L),
+                        tuple(null, 3L)); // The order with two unspecified categories counts once
+    }
+
+    private void order(LocalDateTime orderDate, String providerName, String... categories) {
+        Order order = new Order();
+        order.setClientName("Client");
+        order.setClientNit("900");
+        order.setClientAddress("Main St 1");
+        order.setProviderName(providerName);
+        List<OrderItem> items = new ArrayList<>();
+        for (String category : categories) {
+            OrderItem item = new OrderItem();
+            item.setProductNameOrService("Item");
+            item.setUnitCost(Money.ofCents(1000));
+            item.setQuantity(1);
+            item.setItemSubtotal(Money.ofCents(1000));
+            item.setTaxApplied(Money.ofCents(130));
+            item.setItemTotal(Money.ofCents(1130));
+            item.setModuleType(ModuleType.PHARMACY);
+            item.setCategory(category);
+            items.add(item);
+        }
+        order.setItems(items);
+        order.setTotalTaxes(Money.ofCents(130L * categories.length));
+        order.setTotalAmount(Money.ofCents(1130L * categories.length));
+        Order saved = orderRepository.save(order);
+        // Order creation stamps the current time; move the order to its day
+        jdbcTemplate.update("update orders set order_date = ? where id = ?", orderDate, saved.getId());
+        saved.setOrderDate(orderDate);
+        orders.add(saved);
+    }
+}
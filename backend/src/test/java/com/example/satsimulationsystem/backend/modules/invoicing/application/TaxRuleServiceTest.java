@@ -0,0 +1,155 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.application;
+
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.ModuleType;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.TaxRule;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.TaxRuleRepository;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.TaxRulesChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.example.satsimulationsystem.backend.modules.invoicing.application.TaxRuleTableTest.rule;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TaxRuleServiceTest {
+
+    private static final LocalDate JAN_1 = LocalDate.of(2024, 1, 1);
+    private static final LocalDate JUL_1 = LocalDate.of(2024, 7, 1);
+
+    private final List<TaxRule> stored = new ArrayList<>(); // Guarded by itself
+    private final AtomicLong ids = new AtomicLong();
+    private final TaxRuleRepository repository = mock(TaxRuleRepository.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private TaxRuleService service;
+
+    @BeforeEach
+    void setUp() {
+        when(repository.findAll()).thenAnswer(invocation -> {
+            Thread.sleep(20); // Widens the window between the overlap check and the write
+            synchronized (stored) {
+                return new ArrayList<>(stored);
+            }
+        });
+        when(repository.findById(anyLong())).thenAnswer(invocation -> {
+            synchronized (stored) {
+                return stored.stream().filter(rule -> rule.getId().equals(invocation.getArgument(0))).findFirst();
+            }
+        });
+        when(repository.save(any(TaxRule.class))).thenAnswer(invocation -> {
+            TaxRule rule = invocation.getArgument(0);
+            rule.setId(ids.incrementAndGet());
+            synchronized (stored) {
+                stored.add(rule);
+            }
+            return rule;
+        });
+        service = new TaxRuleService(repository, new TaxRuleEngine(), eventPublisher,
+                mock(PlatformTransactionManager.class), false);
+    }
+
+    @Test
+    void createRejectsARuleOverlappingAnExistingOne() {
+        service.createRule(rule(null, ModuleType.PHARMACY, "VACCINE", null, "0.00", JAN_1, null));
+
+        assertThatThrownBy(() -> service.createRule(rule(null, ModuleType.PHARMACY, "VACCINE", null, "5.00", JUL_1, null)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Overlapping");
+        assertThat(stored).hasSize(1);
+    }
+
+    @Test
+    void createRejectsARateWithMoreThanTwoDecimals() {
+        assertThatThrownBy(() -> service.createRule(rule(null, ModuleType.PHARMACY, null, null, "12.345", JAN_1, null)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("two decimals");
+        verify(repository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void createNormalizesTheRateAndBlankKeys() {
+        TaxRule saved = service.createRule(rule(null, ModuleType.PHARMACY, " ", "", "12.5", JAN_1, null));
+
+        assertThat(saved.getRatePercent()).hasToString("12.50");
+        assertThat(saved.getCategory()).isNull();
+        assertThat(saved.getProviderName()).isNull();
+        verify(eventPublisher).publishEvent(new TaxRulesChangedEvent(saved.getId()));
+    }
+
+    @Test
+    void concurrentOverlappingCreatesAdmitOnlyOne() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                LocalDate from = JAN_1.plusDays(i);
+                Callable<Boolean> create = () -> {
+                    start.await();
+                    try {
+                        service.createRule(rule(null, ModuleType.HOSPITAL, null, null, "7.00", from, null));
+                        return true;
+                    } catch (IllegalArgumentException e) {
+                        return false;
+                    }
+                };
+                results.add(executor.submit(create));
+            }
+            start.countDown();
+            int created = 0;
+            for (Future<Boolean> result : results) {
+                created += result.get() ? 1 : 0;
+            }
+            assertThat(created).isEqualTo(1);
+            assertThat(stored).hasSize(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void updateValidatesAgainstTheOtherRules() {
+        TaxRule first = service.createRule(rule(null, ModuleType.INSURANCE, null, null, "10.00", JAN_1, JUL_1.minusDays(1)));
+        TaxRule second = service.createRule(rule(null, ModuleType.INSURANCE, null, null, "11.00", JUL_1, null));
+
+        assertThatThrownBy(() -> service.updateRule(first.getId(),
+                rule(null, ModuleType.INSURANCE, null, null, "10.00", JAN_1, JUL_1)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Overlapping");
+        assertThat(first.getEffectiveTo()).isEqualTo(JUL_1.minusDays(1));
+
+        TaxRule moved = service.updateRule(second.getId(),
+                rule(null, ModuleType.INSURANCE, "LIFE", null, "9.00", JAN_1, null));
+        assertThat(moved.getCategory()).isEqualTo("LIFE");
+        assertThat(moved.getRatePercent()).hasToString("9.00");
+    }
+
+    @Test
+    void updateOfAMissingRuleIsRejected() {
+        when(repository.findById(42L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.updateRule(42L, rule(null, ModuleType.INSURANCE, null, null, "10.00", JAN_1, null)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("not found");
+    }
+}
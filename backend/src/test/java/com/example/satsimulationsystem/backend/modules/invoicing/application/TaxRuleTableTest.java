@@ -0,0 +1,120 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.application;
+
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.ModuleType;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.TaxRule;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TaxRuleTableTest {
+
+    private static final LocalDate JAN_1 = LocalDate.of(2024, 1, 1);
+    private static final LocalDate JUN_30 = LocalDate.of(2024, 6, 30);
+    private static final LocalDate JUL_1 = LocalDate.of(2024, 7, 1);
+
+    @Test
+    void effectiveDatesAreInclusiveOnBothEnds() {
+        TaxRuleTable table = TaxRuleTable.compile(List.of(
+                rule(1L, ModuleType.PHARMACY, null, null, "12.00", JAN_1, JUN_30),
+                rule(2L, ModuleType.PHARMACY, null, null, "15.00", JUL_1, null)));
+
+        assertThat(table.rateBasisPoints(ModuleType.PHARMACY, null, null, JAN_1)).isEqualTo(1200);
+        assertThat(table.rateBasisPoints(ModuleType.PHARMACY, null, null, JUN_30)).isEqualTo(1200);
+        assertThat(table.rateBasisPoints(ModuleType.PHARMACY, null, null, JUL_1)).isEqualTo(1500);
+        assertThat(table.rateBasisPoints(ModuleType.PHARMACY, null, null, LocalDate.of(2099, 1, 1))).isEqualTo(1500);
+        assertThatThrownBy(() -> table.rateBasisPoints(ModuleType.PHARMACY, null, null, JAN_1.minusDays(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void gapBetweenRulesHasNoRate() {
+        TaxRuleTable table = TaxRuleTable.compile(List.of(
+                rule(1L, ModuleType.HOSPITAL, null, null, "7.00", JAN_1, JUN_30.minusDays(1)),
+                rule(2L, ModuleType.HOSPITAL, null, null, "8.00", JUL_1, null)));
+
+        assertThatThrownBy(() -> table.rateBasisPoints(ModuleType.HOSPITAL, null, null, JUN_30))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("No tax rule");
+    }
+
+    @Test
+    void mostSpecificRuleWinsAndFallsThroughOutsideItsDates() {
+        TaxRuleTable table = TaxRuleTable.compile(List.of(
+                rule(1L, ModuleType.PHARMACY, null, null, "12.00", JAN_1, null),
+                rule(2L, ModuleType.PHARMACY, "VACCINE", null, "0.00", JAN_1, null),
+                rule(3L, ModuleType.PHARMACY, null, "Acme", "10.00", JAN_1, null),
+                rule(4L, ModuleType.PHARMACY, "VACCINE", "Acme", "5.00", JAN_1, JUN_30)));
+
+        assertThat(table.rateBasisPoints(ModuleType.PHARMACY, "VACCINE", "Acme", JAN_1)).isEqualTo(500);
+        assertThat(table.rateBasisPoints(ModuleType.PHARMACY, "VACCINE", "Acme", JUL_1)).isEqualTo(1000);
+        assertThat(table.rateBasisPoints(ModuleType.PHARMACY, "SYRUP", "Acme", JAN_1)).isEqualTo(1000);
+        assertThat(table.rateBasisPoints(ModuleType.PHARMACY, "VACCINE", "Other", JAN_1)).isEqualTo(0);
+        assertThat(table.rateBasisPoints(ModuleType.PHARMACY, "SYRUP", null, JAN_1)).isEqualTo(1200);
+    }
+
+    @Test
+    void overlappingRulesOfTheSameKeyAreRejected() {
+        assertThatThrownBy(() -> TaxRuleTable.compile(List.of(
+                rule(1L, ModuleType.PHARMACY, "VACCINE", null, "0.00", JAN_1, JUL_1),
+                rule(2L, ModuleType.PHARMACY, "VACCINE", null, "5.00", JUL_1, null))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Overlapping")
+                .hasMessageContaining("ids 1 and 2");
+        assertThatThrownBy(() -> TaxRuleTable.compile(List.of(
+                rule(1L, ModuleType.PHARMACY, null, null, "12.00", JAN_1, null),
+                rule(2L, ModuleType.PHARMACY, " ", "", "15.00", JUL_1, null)))) // Blank means "any"
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Overlapping");
+    }
+
+    @Test
+    void rulesOfDifferentKeysMayOverlap() {
+        TaxRuleTable table = TaxRuleTable.compile(List.of(
+                rule(1L, ModuleType.PHARMACY, null, null, "12.00", JAN_1, null),
+                rule(2L, ModuleType.INSURANCE, null, null, "10.00", JAN_1, null),
+                rule(3L, ModuleType.PHARMACY, "VACCINE", null, "0.00", JAN_1, null)));
+
+        assertThat(table.size()).isEqualTo(3);
+    }
+
+    @Test
+    void invalidRulesAreRejected() {
+        assertThatThrownBy(() -> compileOne(rule(1L, ModuleType.PHARMACY, null, null, "12.345", JAN_1, null)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("two decimals");
+        assertThatThrownBy(() -> compileOne(rule(1L, ModuleType.PHARMACY, null, null, "100.01", JAN_1, null)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("between 0 and 100");
+        assertThatThrownBy(() -> compileOne(rule(1L, ModuleType.PHARMACY, null, null, "1E+12", JAN_1, null)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("between 0 and 100");
+        assertThatThrownBy(() -> compileOne(rule(1L, ModuleType.PHARMACY, null, null, "-0.01", JAN_1, null)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> compileOne(rule(1L, ModuleType.PHARMACY, null, null, "12.00", JUL_1, JUN_30)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("ends before it starts");
+        assertThatThrownBy(() -> compileOne(rule(1L, null, null, null, "12.00", JAN_1, null)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void trailingZerosBeyondTwoDecimalsAreAccepted() {
+        TaxRuleTable table = compileOne(rule(1L, ModuleType.PHARMACY, null, null, "12.5000", JAN_1, null));
+
+        assertThat(table.rateBasisPoints(ModuleType.PHARMACY, null, null, JAN_1)).isEqualTo(1250);
+    }
+
+    private static TaxRuleTable compileOne(TaxRule rule) {
+        return TaxRuleTable.compile(List.of(rule));
+    }
+
+    static TaxRule rule(Long id, ModuleType moduleType, String category, String providerName, String ratePercent,
+                        LocalDate effectiveFrom, LocalDate effectiveTo) {
+        return new TaxRule(id, moduleType, category, providerName, new BigDecimal(ratePercent), effectiveFrom, effectiveTo);
+    }
+}
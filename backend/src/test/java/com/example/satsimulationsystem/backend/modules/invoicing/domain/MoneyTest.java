@@ -0,0 +1,88 @@
+package com.example.satsimulationsystem.backend.modules.invoicing.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyTest {
+
+    @Test
+    void percentageRoundsHalfUpToTheCent() {
+        assertThat(Money.ofCents(1).percentage(5000)).isEqualTo(Money.ofCents(1));      // 0.005 -> 0.01
+        assertThat(Money.ofCents(1).percentage(4999)).isEqualTo(Money.ofCents(0));      // 0.004999 -> 0.00
+        assertThat(Money.ofCents(12_345).percentage(1200)).isEqualTo(Money.ofCents(1481)); // 14.814 -> 14.81
+        assertThat(Money.ofCents(12_375).percentage(1200)).isEqualTo(Money.ofCents(1485)); // 14.85 exactly
+        assertThat(Money.ofCents(4_125).percentage(1200)).isEqualTo(Money.ofCents(495));   // 4.95 exactly
+        assertThat(Money.ofCents(4_129).percentage(1250)).isEqualTo(Money.ofCents(516));   // 5.16125 -> 5.16
+    }
+
+    @Test
+    void percentageRoundsNegativeAmountsAwayFromZero() {
+        assertThat(Money.ofCents(-1).percentage(5000)).isEqualTo(Money.ofCents(-1));
+        assertThat(Money.ofCents(-12_345).percentage(1200)).isEqualTo(Money.ofCents(-1481));
+    }
+
+    @Test
+    void percentageMatchesBigDecimalHalfUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            long cents = random.nextInt(10_000_000) - 5_000_000;
+            int basisPoints = random.nextInt(10_001);
+            BigDecimal expected = BigDecimal.valueOf(cents, 2)
+                    .multiply(BigDecimal.valueOf(basisPoints, 4))
+                    .setScale(2, RoundingMode.HALF_UP);
+            assertThat(Money.ofCents(cents).percentage(basisPoints).toBigDecimal())
+                    .as("%d cents at %d bp", cents, basisPoints)
+                    .isEqualByComparingTo(expected);
+        }
+    }
+
+    @Test
+    void decimalInputIsRoundedHalfUpToTheCent() {
+        assertThat(Money.of(new BigDecimal("10.005"))).isEqualTo(Money.ofCents(1001));
+        assertThat(Money.of(new BigDecimal("10.004"))).isEqualTo(Money.ofCents(1000));
+        assertThat(Money.of(new BigDecimal("-10.005"))).isEqualTo(Money.ofCents(-1001));
+        // 1.005 is 1.00499999999999989... as a double, but its decimal text is used
+        assertThat(Money.of(1.005)).isEqualTo(Money.ofCents(101));
+        assertThat(Money.of(0.1 + 0.2)).isEqualTo(Money.ofCents(30));
+    }
+
+    @Test
+    void sumsAndProductsAreExact() {
+        Money total = Money.ZERO;
+        for (int i = 0; i < 10; i++) {
+            total = total.plus(Money.of(0.1));
+        }
+        assertThat(total).isEqualTo(Money.ofCents(100));
+        assertThat(Money.ofCents(333).times(3)).isEqualTo(Money.ofCents(999));
+    }
+
+    @Test
+    void overflowIsReportedInsteadOfWrappingAround() {
+        assertThatThrownBy(() -> Money.ofCents(Long.MAX_VALUE).plus(Money.ofCents(1))).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.ofCents(Long.MAX_VALUE / 2).times(3)).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.of(new BigDecimal("1e30"))).isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void printsExactlyTwoDecimals() {
+        assertThat(Money.ofCents(123_450)).hasToString("1234.50");
+        assertThat(Money.ofCents(-5)).hasToString("-0.05");
+        assertThat(Money.ZERO).hasToString("0.00");
+        assertThat(Money.ofCents(-123_450).toBigDecimal()).isEqualTo(new BigDecimal("-1234.50"));
+    }
+
+    @Test
+    void converterRoundTripsThroughDecimalColumns() {
+        MoneyConverter converter = new MoneyConverter();
+        assertThat(converter.convertToDatabaseColumn(Money.ofCents(1999))).isEqualTo(new BigDecimal("19.99"));
+        assertThat(converter.convertToEntityAttribute(new BigDecimal("19.990"))).isEqualTo(Money.ofCents(1999));
+        assertThat(converter.convertToDatabaseColumn(null)).isNull();
+        assertThat(converter.convertToEntityAttribute(null)).isNull();
+    }
+}
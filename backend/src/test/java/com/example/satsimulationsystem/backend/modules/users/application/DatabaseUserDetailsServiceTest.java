@@ -0,0 +1,97 @@
+package com.example.satsimulationsystem.backend.modules.users.application;
+
+import com.example.satsimulationsystem.backend.modules.users.domain.User;
+import com.example.satsimulationsystem.backend.modules.users.domain.UserCredentialsChangedEvent;
+import com.example.satsimulationsystem.backend.modules.users.domain.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DatabaseUserDetailsServiceTest {
+
+    private final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+    private UserRepository userRepository;
+    private DatabaseUserDetailsService service;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        SecurityProperties securityProperties = new SecurityProperties();
+        securityProperties.getUser().setName("admin");
+        securityProperties.getUser().setPassword("password");
+        securityProperties.getUser().setRoles(List.of("ADMINISTRATOR"));
+        service = new DatabaseUserDetailsService(userRepository, passwordEncoder, securityProperties, 60_000, 100);
+    }
+
+    @Test
+    void databaseUsersAreLoadedOnceWithinTheTtl() {
+        when(userRepository.findByUsername("pharm")).thenReturn(Optional.of(user("pharm", "MODULE_PHARMACY")));
+
+        service.loadUserByUsername("pharm");
+        UserDetails details = service.loadUserByUsername("pharm");
+
+        verify(userRepository, times(1)).findByUsername("pharm");
+        assertThat(details.getAuthorities()).extracting("authority").contains("ROLE_MODULE_PHARMACY");
+    }
+
+    @Test
+    void credentialsChangeReloadsTheUser() {
+        when(userRepository.findByUsername("pharm")).thenReturn(Optional.of(user("pharm", "MODULE_PHARMACY")));
+        service.loadUserByUsername("pharm");
+
+        service.onCredentialsChanged(new UserCredentialsChangedEvent("pharm"));
+        service.loadUserByUsername("pharm");
+
+        verify(userRepository, times(2)).findByUsername("pharm");
+    }
+
+    @Test
+    void everyCallGetsItsOwnUserDetails() {
+        // Spring Security erases the password of the instance it authenticated
+        when(userRepository.findByUsername("pharm")).thenReturn(Optional.of(user("pharm", "MODULE_PHARMACY")));
+
+        assertThat(service.loadUserByUsername("pharm")).isNotSameAs(service.loadUserByUsername("pharm"));
+    }
+
+    @Test
+    void bootstrapAdministratorIsAvailableUnlessShadowedByADatabaseUser() {
+        when(userRepository.findByUsername("admin")).thenReturn(Optional.empty());
+        UserDetails bootstrap = service.loadUserByUsername("admin");
+        assertThat(passwordEncoder.matches("password", bootstrap.getPassword())).isTrue();
+        assertThat(bootstrap.getAuthorities()).extracting("authority").contains("ROLE_ADMINISTRATOR");
+
+        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(user("admin", "MODULE_HOSPITAL")));
+        service.onCredentialsChanged(new UserCredentialsChangedEvent("admin"));
+        assertThat(service.loadUserByUsername("admin").getAuthorities()).extracting("authority").contains("ROLE_MODULE_HOSPITAL");
+    }
+
+    @Test
+    void unknownUsersAreRejected() {
+        when(userRepository.findByUsername("nobody")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.loadUserByUsername("nobody")).isInstanceOf(UsernameNotFoundException.class);
+    }
+
+    private User user(String username, String role) {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername(username);
+        user.setPassword(passwordEncoder.encode("secret"));
+        user.setRole(role);
+        return user;
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.satsimulationsystem.backend.services;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ArchivedInvoiceStorageTest {
+
+    private static final int HEADER_SIZE = 28;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void appendsRecordsBackToBackInOneSegment() throws Exception {
+        byte[] first = pdf(1, 100);
+        byte[] second = pdf(2, 50);
+        try (ArchivedInvoiceStorage storage = open(1 << 20)) {
+            assertThat(storage.store(1L, out -> out.write(first))).isEqualTo("invoice-1-a1-" + HEADER_SIZE + ".pdf");
+            long secondOffset = HEADER_SIZE + first.length + HEADER_SIZE;
+            assertThat(storage.store(2L, out -> out.write(second))).isEqualTo("invoice-2-a1-" + secondOffset + ".pdf");
+
+            assertThat(read(storage, "invoice-1-a1-" + HEADER_SIZE + ".pdf")).isEqualTo(first);
+            assertThat(read(storage, "invoice-2-a1-" + secondOffset + ".pdf")).isEqualTo(second);
+        }
+        assertThat(Files.size(directory.resolve("segment-000001.dat"))).isEqualTo(2L * HEADER_SIZE + 150);
+    }
+
+    @Test
+    void startsANewSegmentOnceTheActiveOneIsFull() throws Exception {
+        try (ArchivedInvoiceStorage storage = open(200)) {
+            assertThat(storage.store(1L, out -> out.write(pdf(1, 150)))).isEqualTo("invoice-1-a1-28.pdf");
+            assertThat(storage.store(2L, out -> out.write(pdf(2, 150)))).isEqualTo("invoice-2-a2-28.pdf");
+            assertThat(storage.store(3L, out -> out.write(pdf(3, 500)))).isEqualTo("invoice-3-a3-28.pdf"); // Oversized: own segment
+
+            assertThat(read(storage, "invoice-2-a2-28.pdf")).isEqualTo(pdf(2, 150));
+            assertThat(read(storage, "invoice-3-a3-28.pdf")).isEqualTo(pdf(3, 500));
+        }
+        assertThat(directory.resolve("segment-000003.dat")).exists();
+    }
+
+    @Test
+    void reRenderingSupersedesTheOldName() throws Exception {
+        try (ArchivedInvoiceStorage storage = open(1 << 20)) {
+            String old = storage.store(5L, out -> out.write(pdf(5, 10)));
+            String current = storage.store(5L, out -> out.write(pdf(6, 20)));
+
+            assertThat(storage.locate(old)).isEmpty();
+            assertThat(read(storage, current)).isEqualTo(pdf(6, 20));
+            assertThat(storage.locate("invoice-5-a1-999.pdf")).isEmpty();
+            assertThat(storage.locate("invoice-9-a1-28.pdf")).isEmpty();
+        }
+    }
+
+    @Test
+    void otherNamesAreLookedUpInThePreviousStorage() throws Exception {
+        InvoiceStorage previous = mock(InvoiceStorage.class);
+        StoredInvoice legacy = new StoredInvoice(directory.resolve("legacy.pdf"), 0, 10, 0, null);
+        when(previous.locate("invoice-42-1700000000000.pdf")).thenReturn(Optional.of(legacy));
+        try (ArchivedInvoiceStorage storage = new ArchivedInvoiceStorage(directory, 1 << 20, previous)) {
+            assertThat(storage.locate("invoice-42-1700000000000.pdf")).contains(legacy);
+        }
+        verify(previous).locate("invoice-42-1700000000000.pdf");
+    }
+
+    @Test
+    void entriesSurviveAReopen() throws Exception {
+        String name;
+        try (ArchivedInvoiceStorage storage = open(1 << 20)) {
+            name = storage.store(7L, out -> out.write(pdf(7, 64)));
+        }
+        try (ArchivedInvoiceStorage storage = open(1 << 20)) {
+            assertThat(read(storage, name)).isEqualTo(pdf(7, 64));
+            assertThat(storage.store(8L, out -> out.write(pdf(8, 8))))
+                    .isEqualTo("invoice-8-a1-" + (HEADER_SIZE + 64 + HEADER_SIZE) + ".pdf"); // Appends after it
+        }
+    }
+
+    @Test
+    void recoveryReindexesRecordsTheIndexMissed() throws Exception {
+        String name;
+        try (ArchivedInvoiceStorage storage = open(1 << 20)) {
+            name = storage.store(7L, out -> out.write(pdf(7, 64)));
+        }
+        Files.delete(directory.resolve("index.dat"));
+
+        try (ArchivedInvoiceStorage storage = open(1 << 20)) {
+            assertThat(read(storage, name)).isEqualTo(pdf(7, 64));
+        }
+    }
+
+    @Test
+    void recoveryCutsOffATornRecord() throws Exception {
+        String name;
+        try (ArchivedInvoiceStorage storage = open(1 << 20)) {
+            name = storage.store(7L, out -> out.write(pdf(7, 64)));
+        }
+        Path segment = directory.resolve("segment-000001.dat");
+        long complete = Files.size(segment);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            // A header promising 1000 bytes, followed by only a few of them
+            channel.write(ByteBuffer.allocate(HEADER_SIZE + 10).putInt(0x494E5631).putLong(8L).putInt(1000).flip());
+        }
+
+        try (ArchivedInvoiceStorage storage = open(1 << 20)) {
+            assertThat(Files.size(segment)).isEqualTo(complete);
+            assertThat(read(storage, name)).isEqualTo(pdf(7, 64));
+            assertThat(storage.store(8L, out -> out.write(pdf(8, 8))))
+                    .isEqualTo("invoice-8-a1-" + (complete + HEADER_SIZE) + ".pdf");
+        }
+    }
+
+    @Test
+    void recoveryStopsAtARecordWithABadChecksum() throws Exception {
+        try (ArchivedInvoiceStorage storage = open(1 << 20)) {
+            storage.store(7L, out -> out.write(pdf(7, 64)));
+        }
+        Files.delete(directory.resolve("index.dat"));
+        Path segment = directory.resolve("segment-000001.dat");
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {(byte) 0xFF}), HEADER_SIZE + 10);
+        }
+
+        try (ArchivedInvoiceStorage storage = open(1 << 20)) {
+            assertThat(storage.locate("invoice-7-a1-28.pdf")).isEmpty();
+            assertThat(Files.size(segment)).isZero();
+        }
+    }
+
+    private ArchivedInvoiceStorage open(long segmentSize) throws IOException {
+        return new ArchivedInvoiceStorage(directory, segmentSize, mock(InvoiceStorage.class));
+    }
+
+    private static byte[] read(InvoiceStorage storage, String name) throws IOException {
+        StoredInvoice stored = storage.locate(name).orElseThrow();
+        ByteBuffer buffer = ByteBuffer.allocate((int) stored.getLength());
+        stored.getSharedChannel().read(buffer, stored.getOffset());
+        return buffer.array();
+    }
+
+    private static byte[] pdf(int seed, int length) {
+        byte[] content = new byte[length];
+        Arrays.fill(content, (byte) seed);
+        byte[] prefix = "%PDF".getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(prefix, 0, content, 0, Math.min(prefix.length, length));
+        return content;
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.satsimulationsystem.backend.services;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InvoiceArchiveIndexTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void entriesAreAddressedByOrderId() throws Exception {
+        try (InvoiceArchiveIndex index = new InvoiceArchiveIndex(directory.resolve("index.dat"))) {
+            index.put(1L, 1, 28L, 100, 1_700_000_000_000L);
+            index.put(3L, 2, 4_096L, 7, 1_700_000_000_001L);
+
+            assertThat(index.get(1L)).isEqualTo(new InvoiceArchiveIndex.Entry(1, 28L, 100, 1_700_000_000_000L));
+            assertThat(index.get(3L)).isEqualTo(new InvoiceArchiveIndex.Entry(2, 4_096L, 7, 1_700_000_000_001L));
+            assertThat(index.get(2L)).isNull(); // Hole between used ids
+        }
+    }
+
+    @Test
+    void putReplacesTheEntry() throws Exception {
+        try (InvoiceArchiveIndex index = new InvoiceArchiveIndex(directory.resolve("index.dat"))) {
+            index.put(5L, 1, 28L, 100, 1L);
+            index.put(5L, 3, 56L, 200, 2L);
+
+            assertThat(index.get(5L)).isEqualTo(new InvoiceArchiveIndex.Entry(3, 56L, 200, 2L));
+        }
+    }
+
+    @Test
+    void idsBeyondTheMappedRegionsHaveNoEntry() throws Exception {
+        try (InvoiceArchiveIndex index = new InvoiceArchiveIndex(directory.resolve("index.dat"))) {
+            assertThat(index.get(1L)).isNull(); // Nothing mapped yet
+            index.put(1L, 1, 28L, 100, 1L);
+
+            long firstIdOfSecondRegion = (1L << 30) / 32;
+            assertThat(index.get(firstIdOfSecondRegion)).isNull();
+            assertThat(index.get(0L)).isNull();
+            assertThat(index.get(-1L)).isNull();
+        }
+    }
+
+    @Test
+    void secondRegionIsMappedWhenIdsGrowIntoIt() throws Exception {
+        long firstIdOfSecondRegion = (1L << 30) / 32;
+        Path file = directory.resolve("index.dat");
+        try (InvoiceArchiveIndex index = new InvoiceArchiveIndex(file)) {
+            index.put(firstIdOfSecondRegion, 4, 28L, 9, 1L);
+
+            assertThat(index.get(firstIdOfSecondRegion)).isEqualTo(new InvoiceArchiveIndex.Entry(4, 28L, 9, 1L));
+        }
+        assertThat(Files.size(file)).isEqualTo(2L << 30); // Sparse; holes take no disk space
+    }
+
+    @Test
+    void entriesArePersistedAcrossReopens() throws Exception {
+        Path file = directory.resolve("index.dat");
+        try (InvoiceArchiveIndex index = new InvoiceArchiveIndex(file)) {
+            index.put(42L, 2, 1_048_604L, 12_345, 99L);
+        }
+        try (InvoiceArchiveIndex index = new InvoiceArchiveIndex(file)) {
+            assertThat(index.get(42L)).isEqualTo(new InvoiceArchiveIndex.Entry(2, 1_048_604L, 12_345, 99L));
+        }
+    }
+
+    @Test
+    void idsOutOfRangeAreRejected() throws Exception {
+        try (InvoiceArchiveIndex index = new InvoiceArchiveIndex(directory.resolve("index.dat"))) {
+            assertThatThrownBy(() -> index.put(0L, 1, 28L, 1, 1L)).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> index.put(Long.MAX_VALUE, 1, 28L, 1, 1L)).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    void concurrentReadersNeverSeeFieldsOfTwoRenderings() throws Exception {
+        ExecutorService readers = Executors.newFixedThreadPool(2);
+        try (InvoiceArchiveIndex index = new InvoiceArchiveIndex(directory.resolve("index.dat"))) {
+            index.put(7L, 1, 1_000L, 2, 1L);
+            AtomicBoolean writing = new AtomicBoolean(true);
+            Future<?>[] results = new Future<?>[2];
+            for (int r = 0; r < results.length; r++) {
+                results[r] = readers.submit(() -> {
+                    while (writing.get()) {
+                        // Every rendering's fields are derived from its segment, so a mix does not match
+                        InvoiceArchiveIndex.Entry entry = index.get(7L);
+                        int segment = entry.getSegment();
+                        assertThat(entry).isEqualTo(new InvoiceArchiveIndex.Entry(segment, segment * 1_000L, segment + 1, segment));
+                    }
+                    return null;
+                });
+            }
+            for (int i = 2; i < 500_000; i++) {
+                index.put(7L, i, i * 1_000L, i + 1, i);
+            }
+            writing.set(false);
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            readers.shutdownNow();
+        }
+    }
+
+    @Test
+    void entryTornByACrashReadsAsAbsentUntilItIsPutAgain() throws Exception {
+        Path file = directory.resolve("index.dat");
+        try (InvoiceArchiveIndex index = new InvoiceArchiveIndex(file)) {
+            index.put(5L, 1, 28L, 100, 1L);
+        }
+        // A process that died in the middle of a put leaves an odd version of its own epoch behind
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(8).putLong(0, 3L), 5L * 32 + 24);
+        }
+        try (InvoiceArchiveIndex index = new InvoiceArchiveIndex(file)) {
+            assertThat(index.get(5L)).isNull();
+
+            index.put(5L, 2, 56L, 200, 2L);
+
+            assertThat(index.get(5L)).isEqualTo(new InvoiceArchiveIndex.Entry(2, 56L, 200, 2L));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.satsimulationsystem.backend.services;
+
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.Money;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.Order;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderItem;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class PdfGenerationServiceImplTest {
+
+    private final PdfGenerationServiceImpl service = new PdfGenerationServiceImpl(mock(InvoiceStorage.class), new SimpleMeterRegistry());
+
+    @Test
+    void renderingTheSameOrderTwiceGivesTheSameBytes() throws Exception {
+        byte[] first = service.renderInvoicePdf(order(7L, 3));
+        Thread.sleep(5); // The trailer ID used to be seeded with the current time
+        byte[] second = service.renderInvoicePdf(order(7L, 3));
+
+        assertThat(second).isEqualTo(first);
+    }
+
+    @Test
+    void multiPageRenderingIsDeterministicToo() throws Exception {
+        byte[] first = service.renderInvoicePdf(order(8L, 120));
+        byte[] second = service.renderInvoicePdf(order(8L, 120));
+
+        assertThat(second).isEqualTo(first);
+    }
+
+    @Test
+    void ordersGetDifferentFileIds() throws Exception {
+        String first = trailer(service.renderInvoicePdf(order(1L, 1)));
+        String second = trailer(service.renderInvoicePdf(order(2L, 1)));
+
+        assertThat(first).contains("/ID");
+        assertThat(second).isNotEqualTo(first);
+    }
+
+    private static String trailer(byte[] pdf) {
+        String text = new String(pdf, StandardCharsets.ISO_8859_1);
+        return text.substring(text.lastIndexOf("trailer"));
+    }
+
+    private static Order order(Long id, int itemCount) {
+        List<OrderItem> items = new ArrayList<>();
+        for (int i = 0; i < itemCount; i++) {
+            OrderItem item = new OrderItem();
+            item.setProductNameOrService("Item " + i);
+            item.setUnitCost(Money.ofCents(1000 + i));
+            item.setQuantity(1);
+            item.setItemSubtotal(Money.ofCents(1000 + i));
+            item.setTaxApplied(Money.ofCents(130));
+            item.setItemTotal(Money.ofCents(1130 + i));
+            items.add(item);
+        }
+        Order order = new Order();
+        order.setId(id);
+        order.setOrderDate(LocalDateTime.of(2024, 3, 1, 9, 30));
+        order.setClientName("ACME");
+        order.setClientNit("1234567");
+        order.setClientAddress("Main St 1");
+        order.setItems(items);
+        order.setTotalTaxes(Money.ofCents(130L * itemCount));
+        order.setTotalAmount(Money.ofCents(1130L * itemCount));
+        return order;
+    }
+}
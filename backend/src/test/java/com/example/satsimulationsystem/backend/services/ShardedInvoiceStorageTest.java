@@ -0,0 +1,123 @@
+package com.example.satsimulationsystem.backend.services;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ShardedInvoiceStorageTest {
+
+    private static final byte[] PDF = "%PDF-1.4 invoice 42".getBytes(StandardCharsets.US_ASCII);
+
+    @TempDir
+    Path root;
+
+    @Test
+    void storesUnderTwoLevelsOfHashShards() throws Exception {
+        ShardedInvoiceStorage storage = new ShardedInvoiceStorage(root.toString());
+        String hash = sha256(PDF);
+
+        String name = storage.store(42L, out -> out.write(PDF));
+
+        assertThat(name).isEqualTo("invoice-42-" + hash + ".pdf");
+        Path expected = root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash + ".pdf");
+        assertThat(expected).hasBinaryContent(PDF);
+        try (Stream<Path> tempFiles = Files.list(root.resolve(".tmp"))) {
+            assertThat(tempFiles).isEmpty();
+        }
+    }
+
+    @Test
+    void locatesByHashWhateverTheLabel() throws Exception {
+        ShardedInvoiceStorage storage = new ShardedInvoiceStorage(root.toString());
+        String name = storage.store(42L, out -> out.write(PDF));
+        String hash = sha256(PDF);
+
+        StoredInvoice stored = storage.locate(name).orElseThrow();
+        assertThat(stored.getOffset()).isZero();
+        assertThat(stored.getLength()).isEqualTo(PDF.length);
+        assertThat(stored.getSharedChannel()).isNull();
+        assertThat(storage.locate(hash + ".pdf")).map(StoredInvoice::getFile).contains(stored.getFile());
+        assertThat(storage.locate("invoice-7-" + hash + ".pdf")).map(StoredInvoice::getFile).contains(stored.getFile());
+    }
+
+    @Test
+    void identicalContentIsStoredOnce() throws Exception {
+        ShardedInvoiceStorage storage = new ShardedInvoiceStorage(root.toString());
+
+        String first = storage.store(42L, out -> out.write(PDF));
+        Path file = storage.locate(first).orElseThrow().getFile();
+        FileTime written = Files.getLastModifiedTime(file);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(written.toMillis() - 60_000));
+        String second = storage.store(43L, out -> out.write(PDF));
+
+        assertThat(second).isEqualTo("invoice-43-" + sha256(PDF) + ".pdf");
+        assertThat(Files.getLastModifiedTime(file).toMillis()).isEqualTo(written.toMillis() - 60_000); // Not rewritten
+        try (Stream<Path> files = Files.walk(root)) {
+            assertThat(files.filter(Files::isRegularFile)).hasSize(1);
+        }
+    }
+
+    @Test
+    void failedWriteLeavesNothingBehind() throws Exception {
+        ShardedInvoiceStorage storage = new ShardedInvoiceStorage(root.toString());
+
+        assertThatThrownBy(() -> storage.store(42L, out -> {
+            out.write(PDF);
+            throw new IOException("renderer failed");
+        })).isInstanceOf(IOException.class);
+
+        try (Stream<Path> files = Files.walk(root)) {
+            assertThat(files.filter(Files::isRegularFile)).isEmpty();
+        }
+    }
+
+    @Test
+    void legacyFlatNamesAreStillFound() throws Exception {
+        Files.write(root.resolve("invoice-42-1700000000000.pdf"), PDF);
+        ShardedInvoiceStorage storage = new ShardedInvoiceStorage(root.toString());
+
+        Optional<StoredInvoice> legacy = storage.locate("invoice-42-1700000000000.pdf");
+
+        assertThat(legacy).map(StoredInvoice::getLength).contains((long) PDF.length);
+        assertThat(storage.locate("invoice-43-1700000000000.pdf")).isEmpty();
+    }
+
+    @Test
+    void namesThatCouldEscapeTheRootAreRejected() throws Exception {
+        Files.write(root.resolveSibling(root.getFileName() + "-outside.pdf"), PDF);
+        ShardedInvoiceStorage storage = new ShardedInvoiceStorage(root.toString());
+
+        assertThat(storage.locate("../" + root.getFileName() + "-outside.pdf")).isEmpty();
+        assertThat(storage.locate("sub/invoice.pdf")).isEmpty();
+        assertThat(storage.locate("invoice.txt")).isEmpty();
+    }
+
+    @Test
+    void staleTempFilesAreDeletedOnStartup() throws Exception {
+        Path tempDirectory = Files.createDirectories(root.resolve(".tmp"));
+        Path stale = Files.write(tempDirectory.resolve("invoice-1-stale.pdf"), PDF);
+        Files.setLastModifiedTime(stale, FileTime.fromMillis(System.currentTimeMillis() - 2 * 3_600_000L));
+        Path fresh = Files.write(tempDirectory.resolve("invoice-2-fresh.pdf"), PDF); // May belong to a running write
+
+        new ShardedInvoiceStorage(root.toString());
+
+        assertThat(stale).doesNotExist();
+        assertThat(fresh).exists();
+    }
+
+    private static String sha256(byte[] content) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+}
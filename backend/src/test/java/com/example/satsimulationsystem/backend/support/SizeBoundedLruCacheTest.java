@@ -0,0 +1,105 @@
+package com.example.satsimulationsystem.backend.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SizeBoundedLruCacheTest {
+
+    private final List<String> evicted = new ArrayList<>();
+    private final SizeBoundedLruCache<String, byte[]> cache =
+            new SizeBoundedLruCache<>(100, value -> value.length, (key, value) -> evicted.add(key + ":" + value.length));
+
+    @Test
+    void weightIsTheSumOfTheCachedValues() {
+        cache.put("a", new byte[30]);
+        cache.put("b", new byte[50]);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.weight()).isEqualTo(80);
+        assertThat(evicted).isEmpty();
+    }
+
+    @Test
+    void replacingAValueReplacesItsWeight() {
+        cache.put("a", new byte[30]);
+        cache.put("a", new byte[70]);
+
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.weight()).isEqualTo(70);
+        assertThat(evicted).isEmpty(); // A replaced value is not an eviction
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedUntilTheNewValueFits() {
+        cache.put("a", new byte[30]);
+        cache.put("b", new byte[30]);
+        cache.put("c", new byte[30]);
+        assertThat(cache.get("a")).isNotNull(); // "b" is now the eldest
+
+        cache.put("d", new byte[40]);
+
+        assertThat(evicted).containsExactly("b:30");
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.weight()).isEqualTo(100);
+
+        cache.put("e", new byte[60]);
+        assertThat(evicted).containsExactly("b:30", "c:30", "a:30");
+        assertThat(cache.weight()).isEqualTo(100);
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    void valueHeavierThanTheBudgetIsNeverCached() {
+        cache.put("a", new byte[30]);
+
+        cache.put("huge", new byte[101]);
+
+        assertThat(cache.get("huge")).isNull();
+        assertThat(cache.get("a")).isNotNull(); // Nothing was evicted to make room
+        assertThat(cache.weight()).isEqualTo(30);
+        assertThat(evicted).containsExactly("huge:101");
+    }
+
+    @Test
+    void oversizedReplacementDropsThePreviousValue() {
+        cache.put("a", new byte[30]);
+
+        cache.put("a", new byte[200]);
+
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.weight()).isZero();
+    }
+
+    @Test
+    void listenerRunsOutsideTheCacheLock() {
+        List<Integer> sizesSeenByListener = new CopyOnWriteArrayList<>();
+        AtomicReference<SizeBoundedLruCache<String, byte[]>> holder = new AtomicReference<>();
+        holder.set(new SizeBoundedLruCache<>(10, value -> value.length, (key, value) -> {
+            Thread other = new Thread(() -> sizesSeenByListener.add(holder.get().size())); // Would block if the lock were held
+            other.start();
+            try {
+                other.join(5_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        holder.get().put("a", new byte[10]);
+
+        holder.get().put("b", new byte[10]);
+
+        assertThat(sizesSeenByListener).containsExactly(1);
+    }
+
+    @Test
+    void limitMustBePositive() {
+        assertThatThrownBy(() -> new SizeBoundedLruCache<String, byte[]>(0, value -> value.length, (key, value) -> { }))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
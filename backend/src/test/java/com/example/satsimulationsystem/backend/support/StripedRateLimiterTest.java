@@ -0,0 +1,120 @@
+package com.example.satsimulationsystem.backend.support;
+
+import com.example.satsimulationsystem.backend.support.StripedRateLimiter.Limit;
+import com.example.satsimulationsystem.backend.support.StripedRateLimiter.Reason;
+import com.example.satsimulationsystem.backend.support.StripedRateLimiter.Rejection;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StripedRateLimiterTest {
+
+    private final long[] nanos = {1_000_000_000L};
+    private final StripedRateLimiter limiter = new StripedRateLimiter(() -> nanos[0]);
+
+    @Test
+    void burstIsAdmittedThenTheRateApplies() {
+        Limit limit = new Limit(2, 3, 0);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("alice", limit)).isNull();
+        }
+        Rejection rejection = limiter.tryAcquire("alice", limit);
+
+        assertThat(rejection).isNotNull();
+        assertThat(rejection.reason()).isEqualTo(Reason.RATE);
+        // One token at 2/s takes 500 ms, reported as a whole second
+        assertThat(rejection.retryAfterSeconds()).isEqualTo(1);
+    }
+
+    @Test
+    void tokensRefillOverTimeUpToTheBurst() {
+        Limit limit = new Limit(2, 3, 0);
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("alice", limit);
+        }
+
+        advanceMillis(499);
+        assertThat(limiter.tryAcquire("alice", limit)).isNotNull();
+        advanceMillis(2);
+        assertThat(limiter.tryAcquire("alice", limit)).isNull();
+        assertThat(limiter.tryAcquire("alice", limit)).isNotNull();
+
+        // A long idle period refills to the burst, not beyond
+        advanceMillis(60_000);
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("alice", limit)).isNull();
+        }
+        assertThat(limiter.tryAcquire("alice", limit)).isNotNull();
+    }
+
+    @Test
+    void retryAfterIsTheTimeToTheNextTokenRoundedUp() {
+        Limit limit = new Limit(0.25, 1, 0);
+        limiter.tryAcquire("alice", limit);
+
+        assertThat(limiter.tryAcquire("alice", limit).retryAfterSeconds()).isEqualTo(4);
+        advanceMillis(2_500);
+        assertThat(limiter.tryAcquire("alice", limit).retryAfterSeconds()).isEqualTo(2);
+        advanceMillis(1_400);
+        assertThat(limiter.tryAcquire("alice", limit).retryAfterSeconds()).isEqualTo(1);
+    }
+
+    @Test
+    void clockReadingsOlderThanTheLastRefillDoNotDrainTheBucket() {
+        Limit limit = new Limit(1, 2, 0);
+        limiter.tryAcquire("alice", limit);
+
+        nanos[0] -= TimeUnit.SECONDS.toNanos(5);
+
+        assertThat(limiter.tryAcquire("alice", limit)).isNull();
+    }
+
+    @Test
+    void concurrencyCapIsReleasedByRelease() {
+        Limit limit = new Limit(0, 1, 2);
+
+        assertThat(limiter.tryAcquire("alice", limit)).isNull();
+        assertThat(limiter.tryAcquire("alice", limit)).isNull();
+        Rejection rejection = limiter.tryAcquire("alice", limit);
+
+        assertThat(rejection.reason()).isEqualTo(Reason.CONCURRENCY);
+        assertThat(rejection.retryAfterSeconds()).isEqualTo(1);
+        assertThat(limiter.inFlight("alice")).isEqualTo(2);
+
+        limiter.release("alice");
+
+        assertThat(limiter.inFlight("alice")).isEqualTo(1);
+        assertThat(limiter.tryAcquire("alice", limit)).isNull();
+    }
+
+    @Test
+    void rejectedCallsAreNotCountedInFlight() {
+        Limit limit = new Limit(1, 1, 5);
+        limiter.tryAcquire("alice", limit);
+        limiter.tryAcquire("alice", limit);
+
+        assertThat(limiter.inFlight("alice")).isEqualTo(1);
+        limiter.release("alice");
+        limiter.release("alice");
+        assertThat(limiter.inFlight("alice")).isZero();
+    }
+
+    @Test
+    void keysHaveIndependentBuckets() {
+        Limit limit = new Limit(1, 1, 1);
+
+        assertThat(limiter.tryAcquire("alice", limit)).isNull();
+        assertThat(limiter.tryAcquire("alice", limit)).isNotNull();
+
+        assertThat(limiter.tryAcquire("bob", limit)).isNull();
+        assertThat(limiter.inFlight("bob")).isEqualTo(1);
+        assertThat(limiter.inFlight("carol")).isZero();
+    }
+
+    private void advanceMillis(long millis) {
+        nanos[0] += TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.satsimulationsystem.backend.support;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TtlCacheTest {
+
+    @Test
+    void entriesExpireAfterTheTtl() throws InterruptedException {
+        TtlCache<String, String> cache = new TtlCache<>(20, 10);
+        cache.put("a", "1");
+        assertThat(cache.get("a")).isEqualTo("1");
+
+        Thread.sleep(40);
+
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void loaderResultsAreCachedButNullsAreNot() {
+        TtlCache<String, String> cache = new TtlCache<>(60_000, 10);
+        int[] loads = {0};
+
+        cache.get("a", key -> { loads[0]++; return "1"; });
+        cache.get("a", key -> { loads[0]++; return "1"; });
+        cache.get("b", key -> { loads[0]++; return null; });
+        cache.get("b", key -> { loads[0]++; return null; });
+
+        assertThat(loads[0]).isEqualTo(3);
+    }
+
+    @Test
+    void neverGrowsPastItsSizeLimit() {
+        TtlCache<String, String> cache = new TtlCache<>(60_000, 2);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.put("c", "3");
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("c")).isNull();
+
+        cache.put("a", "updated"); // Existing keys can still be replaced
+        assertThat(cache.get("a")).isEqualTo("updated");
+    }
+
+    @Test
+    void invalidateIfRemovesMatchingEntriesOnly() {
+        TtlCache<String, String> cache = new TtlCache<>(60_000, 10);
+        cache.put("pharm:1", "pharm");
+        cache.put("pharm:2", "pharm");
+        cache.put("hospital:1", "hospital");
+
+        cache.invalidateIf((key, value) -> value.equals("pharm"));
+
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.get("hospital:1")).isEqualTo("hospital");
+    }
+
+    @Test
+    void rejectsInvalidLimits() {
+        assertThatThrownBy(() -> new TtlCache<>(-1, 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TtlCache<>(1000, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.satsimulationsystem.benchmarks;
+
+import com.example.satsimulationsystem.backend.modules.invoicing.adapters.driving.api.dto.CreateOrderRequestDTO;
+import com.example.satsimulationsystem.backend.modules.invoicing.adapters.driving.api.dto.OrderItemDTO;
+import com.example.satsimulationsystem.backend.modules.invoicing.application.OrderTaxCalculator;
+import com.example.satsimulationsystem.backend.modules.invoicing.application.TaxRuleEngine;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.InvoicePdfStatus;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.ModuleType;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.Money;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.Order;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.OrderItem;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.TaxRule;
+import com.example.satsimulationsystem.backend.modules.users.domain.User;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic orders shaped like real submissions: mixed modules, varied prices and product names.
+ */
+final class BenchmarkOrders {
+
+    private static final ModuleType[] MODULES = ModuleType.values();
+    private static final String[] PRODUCTS = {
+            "Amoxicillin 500mg", "General consultation", "Hospitalization - standard room (per night)",
+            "Ibuprofen 400mg x 20", "Dental insurance premium", "X-ray, chest PA and lateral",
+            "Paracetamol syrup 120ml", "Emergency room fee"
+    };
+
+    private BenchmarkOrders() {
+    }
+
+    /**
+     * A calculator over the default module rates plus a few category and provider rules, as an installation
+     * that has started to use specific rates would have.
+     */
+    static OrderTaxCalculator taxCalculator() {
+        return taxCalculator(Integer.MAX_VALUE, 0);
+    }
+
+    /**
+     * @param parallelThreshold Item count from which orders are priced in parallel.
+     * @param parallelism       Pricing pool threads; 0 for one per CPU.
+     */
+    static OrderTaxCalculator taxCalculator(int parallelThreshold, int parallelism) {
+        LocalDate since = LocalDate.of(2000, 1, 1);
+        TaxRuleEngine engine = new TaxRuleEngine();
+        engine.install(List.of(
+                new TaxRule(1L, ModuleType.PHARMACY, null, null, new BigDecimal("12.00"), since, null),
+                new TaxRule(2L, ModuleType.INSURANCE, null, null, new BigDecimal("10.00"), since, null),
+                new TaxRule(3L, ModuleType.HOSPITAL, null, null, new BigDecimal("7.00"), since, null),
+                new TaxRule(4L, ModuleType.PHARMACY, "CAT-1", null, new BigDecimal("5.00"), since, LocalDate.of(2019, 12, 31)),
+                new TaxRule(5L, ModuleType.PHARMACY, "CAT-1", null, new BigDecimal("6.00"), LocalDate.of(2020, 1, 1), null),
+                new TaxRule(6L, ModuleType.HOSPITAL, "CAT-2", "Provider 10", new BigDecimal("3.50"), since, null)));
+        return new OrderTaxCalculator(engine, parallelThreshold, parallelism);
+    }
+
+    static CreateOrderRequestDTO request(int itemCount) {
+        CreateOrderRequestDTO request = new CreateOrderRequestDTO();
+        request.setClientName("Benchmark Client S.A.");
+        request.setClientNit("1234567-8");
+        request.setClientAddress("6a Avenida 12-34, Zona 1, Guatemala");
+        request.setProviderName("Provider " + itemCount);
+        List<OrderItemDTO> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            OrderItemDTO item = new OrderItemDTO();
+            item.setProductNameOrService(PRODUCTS[i % PRODUCTS.length]);
+            item.setUnitCost(unitCost(i));
+            item.setQuantity(1 + i % 7);
+            item.setModuleType(MODULES[i % MODULES.length]);
+            item.setCategory("CAT-" + (i % 5));
+            items.add(item);
+        }
+        request.setItems(items);
+        return request;
+    }
+
+    /**
+     * An order as it looks after creation: priced, persisted and with a pending invoice.
+     */
+    static Order pricedOrder(long id, int itemCount) {
+        Order order = new Order();
+        order.setId(id);
+        order.setClientName("Benchmark Client S.A.");
+        order.setClientNit("1234567-8");
+        order.setClientAddress("6a Avenida 12-34, Zona 1, Guatemala");
+        order.setProviderName("Provider " + itemCount);
+        order.setOrderDate(LocalDateTime.of(2024, 5, 17, 10, 30).plusMinutes(id));
+        order.setInvoicePdfStatus(InvoicePdfStatus.PENDING);
+        User creator = new User();
+        creator.setId(1L);
+        creator.setUsername("pharmacy");
+        order.setCreatedBy(creator);
+
+        List<OrderItem> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            OrderItem item = new OrderItem();
+            item.setId(id * 1000 + i);
+            item.setProductNameOrService(PRODUCTS[i % PRODUCTS.length]);
+            item.setUnitCost(Money.of(unitCost(i)));
+            item.setQuantity(1 + i % 7);
+            item.setModuleType(MODULES[i % MODULES.length]);
+            item.setCategory("CAT-" + (i % 5));
+            items.add(item);
+        }
+        order.setItems(items);
+        taxCalculator().calculateTaxes(order);
+        return order;
+    }
+
+    private static double unitCost(int i) {
+        return 3.75 + (i * 37 % 1000) / 7.0; // Most values need rounding, as user-entered prices do
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.satsimulationsystem.benchmarks;
+
+import com.example.satsimulationsystem.backend.modules.invoicing.adapters.driving.api.InvoicePdfLinks;
+import com.example.satsimulationsystem.backend.modules.invoicing.adapters.driving.api.OrderDtoMapper;
+import com.example.satsimulationsystem.backend.modules.invoicing.adapters.driving.api.dto.OrderResponseDTO;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of an {@code OrderResponseDTO} list, as returned by the report endpoints.
+ * The mapper is built like Spring Boot builds it (JSR-310 dates as ISO strings) and writes to a
+ * discarding stream, so only serialization is measured, not buffer growth.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderJsonBenchmark {
+
+    @Param({"1", "100", "1000"})
+    int orderCount;
+
+    private ObjectWriter writer;
+    private List<OrderResponseDTO> orders;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, OrderResponseDTO.class));
+        OrderDtoMapper mapper = new OrderDtoMapper(new InvoicePdfLinks(false));
+        orders = new ArrayList<>(orderCount);
+        for (int i = 0; i < orderCount; i++) {
+            orders.add(mapper.convertToOrderResponseDTO(BenchmarkOrders.pricedOrder(i + 1, 1 + i % 10)));
+        }
+    }
+
+    @Benchmark
+    public void writeOrderList() throws IOException {
+        writer.writeValue(OutputStream.nullOutputStream(), orders);
+    }
+}
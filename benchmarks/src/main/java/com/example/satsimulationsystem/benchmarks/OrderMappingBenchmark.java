@@ -0,0 +1,45 @@
+package com.example.satsimulationsystem.benchmarks;
+
+import com.example.satsimulationsystem.backend.modules.invoicing.adapters.driving.api.InvoicePdfLinks;
+import com.example.satsimulationsystem.backend.modules.invoicing.adapters.driving.api.OrderDtoMapper;
+import com.example.satsimulationsystem.backend.modules.invoicing.adapters.driving.api.dto.CreateOrderRequestDTO;
+import com.example.satsimulationsystem.backend.modules.invoicing.adapters.driving.api.dto.OrderResponseDTO;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.Order;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DTO mapping done by the invoicing controller for every order: request to entity and entity to response.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderMappingBenchmark {
+
+    @Param({"1", "10", "100"})
+    int itemCount;
+
+    private final OrderDtoMapper mapper = new OrderDtoMapper(new InvoicePdfLinks(false));
+    private CreateOrderRequestDTO request;
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        request = BenchmarkOrders.request(itemCount);
+        order = BenchmarkOrders.pricedOrder(1L, itemCount);
+    }
+
+    @Benchmark
+    public Order convertToOrderEntity() {
+        return mapper.convertToOrderEntity(request);
+    }
+
+    @Benchmark
+    public OrderResponseDTO convertToOrderResponseDTO() {
+        return mapper.convertToOrderResponseDTO(order);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.satsimulationsystem.benchmarks;
+
+import com.example.satsimulationsystem.backend.modules.invoicing.application.OrderTaxCalculator;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.Order;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sequential against fork-join pricing of large orders, to find the item count from which parallel
+ * pricing pays off on a given machine ({@code app.tax.pricing.parallel-threshold}).
+ * Compare the two modes per item count, e.g. {@code java -jar benchmarks.jar ParallelTaxCalculation -p parallelism=4}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelTaxCalculationBenchmark {
+
+    @Param({"250", "500", "1000", "2000", "5000", "10000", "50000"})
+    int itemCount;
+
+    @Param({"sequential", "parallel"})
+    String mode;
+
+    @Param({"0"}) // Pricing pool threads; 0 for one per CPU
+    int parallelism;
+
+    private OrderTaxCalculator calculator;
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        calculator = BenchmarkOrders.taxCalculator("parallel".equals(mode) ? 1 : Integer.MAX_VALUE, parallelism);
+        order = BenchmarkOrders.pricedOrder(1L, itemCount);
+    }
+
+    @TearDown
+    public void tearDown() {
+        calculator.shutdown();
+    }
+
+    @Benchmark
+    public Order calculateTaxes() {
+        calculator.calculateTaxes(order);
+        return order;
+    }
+}
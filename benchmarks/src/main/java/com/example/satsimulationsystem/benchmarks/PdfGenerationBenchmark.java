@@ -0,0 +1,68 @@
+package com.example.satsimulationsystem.benchmarks;
+
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.Order;
+import com.example.satsimulationsystem.backend.services.PdfGenerationServiceImpl;
+import com.example.satsimulationsystem.backend.services.ShardedInvoiceStorage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * {@link PdfGenerationServiceImpl#generateInvoicePdf} end to end, including storing the file. Every invocation
+ * renders a new order id, so each PDF is new content and is written and fsynced rather than deduplicated.
+ * Invoices are stored in a temporary directory that is emptied after every iteration so the disk does not fill up.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PdfGenerationBenchmark {
+
+    @Param({"1", "10", "100"})
+    int itemCount;
+
+    private Path storageDirectory;
+    private PdfGenerationServiceImpl pdfGenerationService;
+    private Order order;
+
+    @Setup
+    public void setUp() throws IOException {
+        storageDirectory = Files.createTempDirectory("invoice-pdf-bench");
+        pdfGenerationService = new PdfGenerationServiceImpl(new ShardedInvoiceStorage(storageDirectory.toString()), new SimpleMeterRegistry());
+        order = BenchmarkOrders.pricedOrder(42L, itemCount);
+    }
+
+    @Benchmark
+    public String generateInvoicePdf() throws IOException {
+        order.setId(order.getId() + 1);
+        return pdfGenerationService.generateInvoicePdf(order);
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteInvoices() throws IOException {
+        deleteContents(storageDirectory, false);
+    }
+
+    @TearDown
+    public void deleteStorageDirectory() throws IOException {
+        deleteContents(storageDirectory, true);
+    }
+
+    private static void deleteContents(Path directory, boolean includingDirectory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                if (includingDirectory || !path.equals(directory)) {
+                    Files.delete(path);
+                }
+            }
+        }
+    }
+}
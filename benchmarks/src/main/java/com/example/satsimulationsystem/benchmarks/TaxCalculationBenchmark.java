@@ -0,0 +1,37 @@
+package com.example.satsimulationsystem.benchmarks;
+
+import com.example.satsimulationsystem.backend.modules.invoicing.application.OrderTaxCalculator;
+import com.example.satsimulationsystem.backend.modules.invoicing.domain.Order;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link OrderTaxCalculator#calculateTaxes}: per-item rule lookup, subtotal, VAT and total.
+ * Pricing overwrites the calculated fields only, so the same order is priced again on every invocation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaxCalculationBenchmark {
+
+    @Param({"1", "10", "100"})
+    int itemCount;
+
+    private final OrderTaxCalculator calculator = BenchmarkOrders.taxCalculator();
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        order = BenchmarkOrders.pricedOrder(1L, itemCount);
+    }
+
+    @Benchmark
+    public Order calculateTaxes() {
+        calculator.calculateTaxes(order);
+        return order;
+    }
+}
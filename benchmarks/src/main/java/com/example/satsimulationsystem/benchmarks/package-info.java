@@ -0,0 +1,4 @@
+/**
+ * JMH benchmarks for the code that runs once per order: pricing, DTO mapping, JSON and PDF rendering.
+ */
+package com.example.satsimulationsystem.benchmarks;